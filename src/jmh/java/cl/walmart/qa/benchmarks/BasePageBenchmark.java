@@ -0,0 +1,90 @@
+package cl.walmart.qa.benchmarks;
+
+import cl.walmart.qa.utils.ElementSnapshot;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primitivas de BasePage (click, type, getText, isDisplayed, readAll) sobre el
+ * formulario de registro y la página de resultados de búsqueda
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BasePageBenchmark {
+
+    private static final By FIRST_NAME = By.id("input-firstname");
+    private static final By AGREE = By.name("agree");
+    private static final By HEADING = By.cssSelector("#content h1");
+    private static final By PRODUCT_TITLES = By.cssSelector(".product-layout h4 a");
+    private static final By PRODUCT_PRICES = By.cssSelector(".product-layout .price");
+
+    private WebDriver registerDriver;
+    private WebDriver searchDriver;
+    private BenchPage registerPage;
+    private BenchPage searchPage;
+
+    @Setup
+    public void setUp() {
+        registerDriver = FixtureDriver.create();
+        FixtureDriver.open(registerDriver, "register");
+        registerPage = new BenchPage(registerDriver);
+        searchDriver = FixtureDriver.create();
+        FixtureDriver.open(searchDriver, "search");
+        searchPage = new BenchPage(searchDriver);
+    }
+
+    @TearDown
+    public void tearDown() {
+        registerDriver.quit();
+        searchDriver.quit();
+    }
+
+    @Benchmark
+    public void click() {
+        registerPage.clickOn(AGREE);
+    }
+
+    @Benchmark
+    public void type() {
+        registerPage.typeInto(FIRST_NAME, "Juan");
+    }
+
+    @Benchmark
+    public String getText() {
+        return registerPage.textOf(HEADING);
+    }
+
+    @Benchmark
+    public boolean isDisplayed() {
+        return registerPage.displayed(HEADING);
+    }
+
+    @Benchmark
+    public Map<By, List<ElementSnapshot>> readAll() {
+        return searchPage.batch(PRODUCT_TITLES, PRODUCT_PRICES);
+    }
+
+    @Benchmark
+    public BenchPage newPageObject() {
+        return new BenchPage(searchDriver);
+    }
+}
@@ -0,0 +1,44 @@
+package cl.walmart.qa.benchmarks;
+
+import cl.walmart.qa.pages.BasePage;
+import cl.walmart.qa.utils.ElementSnapshot;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expone las primitivas protegidas de BasePage para medirlas tal como las usan los page objects
+ */
+public class BenchPage extends BasePage {
+
+    public BenchPage(WebDriver driver) {
+        super(driver);
+    }
+
+    public void clickOn(By locator) {
+        click(locator);
+    }
+
+    public void typeInto(By locator, String text) {
+        type(locator, text);
+    }
+
+    public String textOf(By locator) {
+        return getText(locator);
+    }
+
+    public WebElement visible(By locator) {
+        return waitForElementVisible(locator);
+    }
+
+    public boolean displayed(By locator) {
+        return isDisplayed(locator);
+    }
+
+    public Map<By, List<ElementSnapshot>> batch(By... locators) {
+        return readAll(locators);
+    }
+}
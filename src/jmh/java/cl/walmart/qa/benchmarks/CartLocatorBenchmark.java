@@ -0,0 +1,123 @@
+package cl.walmart.qa.benchmarks;
+
+import cl.walmart.qa.pages.PageContract;
+import cl.walmart.qa.pages.ShoppingCartPage;
+import cl.walmart.qa.utils.DomBatchReader;
+import cl.walmart.qa.utils.ElementSnapshot;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uniones XPath de ShoppingCartPage frente a su equivalente CSS, y lectura en lote
+ * (DomBatchReader) frente a una búsqueda por localizador
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dlocators.stats.file=target/jmh-locator-stats.properties",
+        "-Dlocators.report.file=target/jmh-locator-report.txt"})
+public class CartLocatorBenchmark {
+
+    private static final By TOTAL_PRICE_UNION = By.xpath("//table[contains(@class,'table')]//tr[last()]//td[last()] | //*[@id='content']//table//strong[contains(text(),'Total')]/parent::td/following-sibling::td");
+    private static final By TOTAL_PRICE_CSS = By.cssSelector("#content table tr:last-child td:last-child");
+    private static final By CART_TABLE_UNION = By.xpath("//div[@class='table-responsive'] | //form[@id='form-checkout'] | //table[contains(@class,'table')]");
+    private static final By CART_TABLE_CSS = By.cssSelector("div.table-responsive, #form-checkout, table.table");
+    private static final List<By> CANDIDATES = Arrays.asList(
+            By.xpath("//div[@id='content']//table//td[@class='text-left']//a"),
+            By.cssSelector("#content table td.text-left a"),
+            By.xpath("//table//tbody//td[@class='text-left']//a"),
+            By.cssSelector("table.table td a"),
+            By.xpath("//div[contains(@class,'table-responsive')]//a"));
+
+    private WebDriver driver;
+    private ShoppingCartPage cartPage;
+
+    @Setup
+    public void setUp() {
+        driver = FixtureDriver.create();
+        try {
+            FixtureDriver.open(driver, "cart");
+            // La fixture es file:// y ya cargó con driver.get: su URL no calza con el contrato (route=checkout/cart)
+            cartPage = new ShoppingCartPage(driver) {
+                @Override
+                protected PageContract readiness() {
+                    return null;
+                }
+            };
+        } catch (RuntimeException e) {
+            // Sin quit los hilos de HtmlUnit dejan colgado el fork
+            driver.quit();
+            throw e;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        driver.quit();
+    }
+
+    @Benchmark
+    public List<WebElement> totalPriceXpathUnion() {
+        return driver.findElements(TOTAL_PRICE_UNION);
+    }
+
+    @Benchmark
+    public List<WebElement> totalPriceCss() {
+        return driver.findElements(TOTAL_PRICE_CSS);
+    }
+
+    @Benchmark
+    public List<WebElement> cartTableXpathUnion() {
+        return driver.findElements(CART_TABLE_UNION);
+    }
+
+    @Benchmark
+    public List<WebElement> cartTableCss() {
+        return driver.findElements(CART_TABLE_CSS);
+    }
+
+    @Benchmark
+    public Map<By, List<ElementSnapshot>> candidatesBatchRead() {
+        return DomBatchReader.read(driver, CANDIDATES);
+    }
+
+    @Benchmark
+    public void candidatesSequentialRead(Blackhole blackhole) {
+        for (By candidate : CANDIDATES) {
+            for (WebElement element : driver.findElements(candidate)) {
+                blackhole.consume(element.getText());
+            }
+        }
+    }
+
+    @Benchmark
+    public String pageGetTotalPrice() {
+        return cartPage.getTotalPrice();
+    }
+
+    @Benchmark
+    public boolean pageIsProductInCart() {
+        return cartPage.isProductInCart("iPhone");
+    }
+}
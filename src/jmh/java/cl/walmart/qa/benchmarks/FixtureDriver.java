@@ -0,0 +1,44 @@
+package cl.walmart.qa.benchmarks;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.gargoylesoftware.htmlunit.WebClient;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.net.URL;
+
+/**
+ * Driver en proceso (HtmlUnit) sobre copias estáticas de las páginas de OpenCart
+ * Los benchmarks no usan red ni navegador externo: las fixtures están en
+ * src/jmh/resources/fixtures y se abren como file://
+ */
+public final class FixtureDriver {
+
+    private FixtureDriver() {
+    }
+
+    /**
+     * Crea un HtmlUnitDriver con JavaScript habilitado (lo necesitan DomBatchReader y las esperas de documento)
+     */
+    public static WebDriver create() {
+        return new HtmlUnitDriver(BrowserVersion.CHROME, true) {
+            @Override
+            protected WebClient modifyWebClient(WebClient client) {
+                client.getOptions().setThrowExceptionOnScriptError(false);
+                client.getOptions().setCssEnabled(true);
+                return client;
+            }
+        };
+    }
+
+    /**
+     * Abre una fixture por nombre (home, search, product, register, cart)
+     */
+    public static void open(WebDriver driver, String page) {
+        URL fixture = FixtureDriver.class.getResource("/fixtures/" + page + ".html");
+        if (fixture == null) {
+            throw new IllegalArgumentException("No existe la fixture: " + page);
+        }
+        driver.get(fixture.toString());
+    }
+}
@@ -0,0 +1,83 @@
+package cl.walmart.qa.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de localizar el mismo elemento (enlace del producto en el carrito) con cada estrategia
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dlocators.stats.file=target/jmh-locator-stats.properties",
+        "-Dlocators.report.file=target/jmh-locator-report.txt"})
+public class LocatorStrategyBenchmark {
+
+    @Param({"cssFromId", "css", "xpath", "xpathUnion", "linkText", "partialLinkText"})
+    public String strategy;
+
+    private WebDriver driver;
+    private By locator;
+
+    @Setup
+    public void setUp() {
+        driver = FixtureDriver.create();
+        FixtureDriver.open(driver, "cart");
+        locator = locatorFor(strategy);
+    }
+
+    @TearDown
+    public void tearDown() {
+        driver.quit();
+    }
+
+    @Benchmark
+    public List<WebElement> findElements() {
+        return driver.findElements(locator);
+    }
+
+    @Benchmark
+    public String findAndReadText() {
+        return driver.findElement(locator).getText();
+    }
+
+    private static By locatorFor(String strategy) {
+        switch (strategy) {
+            case "cssFromId":
+                // El enlace no tiene id propio: CSS anclado al id más cercano
+                return By.cssSelector("#form-checkout td.text-left a");
+            case "css":
+                return By.cssSelector("#content table td.text-left a");
+            case "xpath":
+                return By.xpath("//div[@id='content']//table//td[@class='text-left']//a");
+            case "xpathUnion":
+                // Unión usada por ShoppingCartPage.productName
+                return By.xpath("//div[@class='table-responsive']//td[@class='text-left']//a | //table//td[@class='text-left']//a | //form[@id='form-checkout']//td[@class='text-left']//a");
+            case "linkText":
+                return By.linkText("iPhone");
+            case "partialLinkText":
+                return By.partialLinkText("iPho");
+            default:
+                throw new IllegalArgumentException("Estrategia desconocida: " + strategy);
+        }
+    }
+}
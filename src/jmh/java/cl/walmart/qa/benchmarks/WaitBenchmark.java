@@ -0,0 +1,94 @@
+package cl.walmart.qa.benchmarks;
+
+import cl.walmart.qa.utils.WaitHelper;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sobrecosto de cada método de WaitHelper cuando la condición ya se cumple
+ * (camino normal: la página está cargada), más la ausencia confirmada de un elemento
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaitBenchmark {
+
+    private static final By FIRST_NAME = By.id("input-firstname");
+    private static final By CONTINUE = By.cssSelector("input[value='Continue']");
+    private static final By INPUTS = By.cssSelector("#content input.form-control");
+    private static final By ERRORS = By.cssSelector(".text-danger, .alert-danger");
+    private static final By HEADING = By.cssSelector("#content h1");
+
+    private WebDriver driver;
+    private WaitHelper waitHelper;
+
+    @Setup
+    public void setUp() {
+        driver = FixtureDriver.create();
+        FixtureDriver.open(driver, "register");
+        waitHelper = new WaitHelper(driver, 5);
+    }
+
+    @TearDown
+    public void tearDown() {
+        driver.quit();
+    }
+
+    @Benchmark
+    public WebElement waitForElementToBeVisible() {
+        return waitHelper.waitForElementToBeVisible(FIRST_NAME);
+    }
+
+    @Benchmark
+    public WebElement waitForElementToBePresent() {
+        return waitHelper.waitForElementToBePresent(FIRST_NAME);
+    }
+
+    @Benchmark
+    public WebElement waitForElementToBeClickable() {
+        return waitHelper.waitForElementToBeClickable(CONTINUE);
+    }
+
+    @Benchmark
+    public List<WebElement> waitForElementsToBePresent() {
+        return waitHelper.waitForElementsToBePresent(INPUTS);
+    }
+
+    @Benchmark
+    public boolean waitForTextToBePresentInElement() {
+        return waitHelper.waitForTextToBePresentInElement(HEADING, "Register");
+    }
+
+    @Benchmark
+    public int waitForFirstVisible() {
+        return waitHelper.waitForFirstVisible(ERRORS, HEADING);
+    }
+
+    @Benchmark
+    public void waitForDocumentReady() {
+        waitHelper.waitForDocumentReady();
+    }
+
+    @Benchmark
+    public boolean isAbsent() {
+        return waitHelper.isAbsent(ERRORS);
+    }
+}
@@ -0,0 +1,310 @@
+package cl.walmart.qa.driver;
+
+import cl.walmart.qa.utils.ConfigReader;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provisión de binarios de drivers (chromedriver, geckodriver, msedgedriver)
+ * Resuelve cada binario una sola vez por JVM y lo guarda en una caché local versionada
+ * (driver.cache.path/&lt;browser&gt;/&lt;versión&gt;/) con verificación SHA-256.
+ * Puede funcionar sin red desde un directorio pre-cargado (driver.seed.dir) y usa un
+ * lock de archivo para que workers paralelos y JVMs forkeadas no compitan por la caché.
+ */
+public class DriverBinaryProvider {
+
+    private static final Logger logger = LogManager.getLogger(DriverBinaryProvider.class);
+    private static final ConfigReader config = ConfigReader.getInstance();
+    private static final String CURRENT_FILE = "current";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+    private static final boolean WINDOWS = System.getProperty("os.name").toLowerCase().startsWith("win");
+
+    private static final Map<String, Path> resolved = new ConcurrentHashMap<>();
+
+    private DriverBinaryProvider() {
+    }
+
+    /**
+     * Garantiza que el binario del driver esté disponible y registrado en la
+     * propiedad de sistema que usa Selenium (webdriver.chrome.driver, etc.)
+     *
+     * @param browser Nombre del navegador (chrome, firefox, edge)
+     * @return Ruta del binario verificado
+     */
+    public static Path ensureDriver(String browser) {
+        String key = browser.toLowerCase();
+        Path binary = resolved.get(key);
+        if (binary != null) {
+            return binary;
+        }
+        synchronized (DriverBinaryProvider.class) {
+            binary = resolved.get(key);
+            if (binary == null) {
+                long start = System.nanoTime();
+                binary = resolveWithLock(key);
+                System.setProperty(systemPropertyFor(key), binary.toString());
+                resolved.put(key, binary);
+                logger.info("Driver de {} listo en {} ({} ms)", key, binary,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return binary;
+        }
+    }
+
+    private static Path resolveWithLock(String browser) {
+        Path cacheRoot = cacheRoot();
+        try {
+            Files.createDirectories(cacheRoot);
+            try (FileChannel channel = FileChannel.open(cacheRoot.resolve(".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return resolve(browser, cacheRoot);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al acceder a la caché de drivers: " + cacheRoot, e);
+        }
+    }
+
+    private static Path resolve(String browser, Path cacheRoot) throws IOException {
+        Path browserDir = cacheRoot.resolve(browser);
+        String pinnedVersion = property("driver.version." + browser);
+        boolean offline = config.getPropertyAsBoolean("driver.offline", false);
+
+        // 1) Caché local ya verificada
+        Path cached = findCached(browserDir, pinnedVersion, offline);
+        if (cached != null) {
+            logger.debug("Usando driver de {} desde la caché: {}", browser, cached);
+            return cached;
+        }
+
+        // 2) Directorio pre-cargado (agentes de CI sin red)
+        String seedDir = property("driver.seed.dir");
+        if (seedDir != null) {
+            Path seeded = findSeeded(Paths.get(seedDir).resolve(browser), browser, pinnedVersion);
+            if (seeded != null) {
+                String version = seeded.getParent().getFileName().toString();
+                logger.info("Copiando driver de {} {} desde el directorio pre-cargado {}", browser, version, seedDir);
+                return store(browserDir, version, seeded);
+            }
+        }
+
+        if (offline) {
+            throw new IllegalStateException("Modo offline: no hay driver de " + browser
+                    + " en la caché (" + browserDir + ") ni en driver.seed.dir");
+        }
+
+        // 3) Descarga con WebDriverManager (una vez, luego queda en caché)
+        WebDriverManager manager = managerFor(browser)
+                .cachePath(cacheRoot.resolve("wdm").toString())
+                .avoidOutputTree();
+        if (pinnedVersion != null) {
+            manager.driverVersion(pinnedVersion);
+        }
+        manager.setup();
+        Path downloaded = Paths.get(manager.getDownloadedDriverPath());
+        String version = manager.getDownloadedDriverVersion();
+        logger.info("Driver de {} {} resuelto con WebDriverManager", browser, version);
+        return store(browserDir, version, downloaded);
+    }
+
+    private static Path findCached(Path browserDir, String pinnedVersion, boolean offline) throws IOException {
+        String version = pinnedVersion;
+        Path currentFile = browserDir.resolve(CURRENT_FILE);
+        if (version == null) {
+            if (!Files.exists(currentFile)) {
+                return null;
+            }
+            long ttlHours = config.getPropertyAsInt("driver.cache.ttl.hours", 24);
+            long ageMillis = System.currentTimeMillis() - Files.getLastModifiedTime(currentFile).toMillis();
+            if (!offline && ageMillis > TimeUnit.HOURS.toMillis(ttlHours)) {
+                logger.debug("La caché de drivers superó el TTL de {} h; se volverá a resolver", ttlHours);
+                return null;
+            }
+            version = new String(Files.readAllBytes(currentFile), StandardCharsets.UTF_8).trim();
+        }
+        Path binary = browserDir.resolve(version).resolve(binaryName(browserDir.getFileName().toString()));
+        if (Files.isRegularFile(binary) && verifyChecksum(binary)) {
+            return binary;
+        }
+        return null;
+    }
+
+    private static Path findSeeded(Path seedBrowserDir, String browser, String pinnedVersion) throws IOException {
+        if (!Files.isDirectory(seedBrowserDir)) {
+            return null;
+        }
+        String version = pinnedVersion;
+        if (version == null) {
+            try (DirectoryStream<Path> versions = Files.newDirectoryStream(seedBrowserDir, Files::isDirectory)) {
+                for (Path candidate : versions) {
+                    String name = candidate.getFileName().toString();
+                    if (version == null || compareVersions(name, version) > 0) {
+                        version = name;
+                    }
+                }
+            }
+        }
+        if (version == null) {
+            return null;
+        }
+        Path binary = seedBrowserDir.resolve(version).resolve(binaryName(browser));
+        if (!Files.isRegularFile(binary)) {
+            return null;
+        }
+        Path checksum = checksumFile(binary);
+        if (Files.exists(checksum) && !verifyChecksum(binary)) {
+            throw new IllegalStateException("Checksum inválido para el driver pre-cargado: " + binary);
+        }
+        return binary;
+    }
+
+    /**
+     * Copia el binario a la caché versionada de forma atómica y registra su checksum
+     */
+    private static Path store(Path browserDir, String version, Path source) throws IOException {
+        Path versionDir = browserDir.resolve(version);
+        Files.createDirectories(versionDir);
+        Path target = versionDir.resolve(binaryName(browserDir.getFileName().toString()));
+
+        Path tmp = Files.createTempFile(versionDir, "driver", ".tmp");
+        Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+        tmp.toFile().setExecutable(true);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        writeAtomically(checksumFile(target), sha256(target));
+        writeAtomically(browserDir.resolve(CURRENT_FILE), version);
+        return target;
+    }
+
+    private static boolean verifyChecksum(Path binary) throws IOException {
+        Path checksum = checksumFile(binary);
+        if (!Files.exists(checksum)) {
+            return false;
+        }
+        String expected = new String(Files.readAllBytes(checksum), StandardCharsets.UTF_8).trim();
+        boolean valid = expected.equalsIgnoreCase(sha256(binary));
+        if (!valid) {
+            logger.warn("Checksum inválido para {}; se descartará de la caché", binary);
+        }
+        return valid;
+    }
+
+    private static void writeAtomically(Path target, String content) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        Files.write(tmp, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static int compareVersions(String a, String b) {
+        String[] left = a.split("\\.");
+        String[] right = b.split("\\.");
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            int l = i < left.length ? parseOrZero(left[i]) : 0;
+            int r = i < right.length ? parseOrZero(right[i]) : 0;
+            if (l != r) {
+                return Integer.compare(l, r);
+            }
+        }
+        return 0;
+    }
+
+    private static int parseOrZero(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Path checksumFile(Path binary) {
+        return binary.resolveSibling(binary.getFileName() + CHECKSUM_SUFFIX);
+    }
+
+    private static Path cacheRoot() {
+        String path = property("driver.cache.path");
+        if (path == null) {
+            return Paths.get(System.getProperty("user.home"), ".cache", "opencart-automation", "drivers");
+        }
+        return Paths.get(path);
+    }
+
+    private static String property(String key) {
+        String value = config.getProperty(key, "").trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            default:
+                return WebDriverManager.chromedriver();
+        }
+    }
+
+    private static String binaryName(String browser) {
+        String name;
+        switch (browser) {
+            case "firefox":
+                name = "geckodriver";
+                break;
+            case "edge":
+                name = "msedgedriver";
+                break;
+            default:
+                name = "chromedriver";
+        }
+        return WINDOWS ? name + ".exe" : name;
+    }
+
+    private static String systemPropertyFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package cl.walmart.qa.driver;
+
+import cl.walmart.qa.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registro de observadores de comandos WebDriver
+ * DriverFactory instala en cada navegador un CommandExecutor que mide cada comando
+ * remoto (findElement, clickElement, executeScript...) y lo notifica a los observadores
+ * registrados. La notificación ocurre en el hilo que ejecutó el comando.
+ * Los observadores que necesitan saber qué page object originó el comando usan
+ * {@link #pageObjectCalls()}: la pila se recorre una sola vez por comando y solo si alguien la pide.
+ */
+public final class DriverCommandListeners {
+
+    private static final Logger logger = LogManager.getLogger(DriverCommandListeners.class);
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static final String pagesPackage =
+            ConfigReader.getInstance().getProperty("audit.pages.package", "cl.walmart.qa.pages") + ".";
+    // Durante la notificación de un comando: métodos de page object de su pila, calculados a pedido
+    private static final ThreadLocal<List<String>[]> notifying = new ThreadLocal<>();
+
+    private DriverCommandListeners() {
+    }
+
+    /**
+     * Observador de comandos WebDriver
+     */
+    public interface Listener {
+        /**
+         * @param command Comando enviado al driver
+         * @param nanos Duración del round-trip
+         * @param failed true si el comando lanzó una excepción o respondió con error
+         */
+        void onCommand(Command command, long nanos, boolean failed);
+    }
+
+    public static void add(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void remove(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Métodos de page object (Clase.metodo) en la pila del comando, del más externo al más interno
+     * Dentro de una notificación el recorrido de la pila se hace una vez y lo comparten los observadores.
+     */
+    public static List<String> pageObjectCalls() {
+        List<String>[] cached = notifying.get();
+        if (cached == null) {
+            return walkPageObjects();
+        }
+        if (cached[0] == null) {
+            cached[0] = walkPageObjects();
+        }
+        return cached[0];
+    }
+
+    private static List<String> walkPageObjects() {
+        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+        List<String> calls = new ArrayList<>();
+        for (int i = stack.length - 1; i >= 0; i--) {
+            String className = stack[i].getClassName();
+            if (className.startsWith(pagesPackage)) {
+                String simpleName = className.substring(pagesPackage.length());
+                String method = stack[i].getMethodName();
+                int inner = simpleName.indexOf('$');
+                boolean anonymous = inner >= 0 && inner + 1 < simpleName.length() && Character.isDigit(simpleName.charAt(inner + 1));
+                if (anonymous || method.startsWith("access$")) {
+                    // Clases anónimas y accesores sintéticos: el método que los usa ya está en la pila
+                    continue;
+                }
+                if (inner >= 0) {
+                    simpleName = simpleName.substring(0, inner);
+                }
+                if (method.startsWith("lambda$")) {
+                    // lambda$isProductInCart$0 -> isProductInCart
+                    method = method.substring("lambda$".length(), method.lastIndexOf('$'));
+                }
+                calls.add(simpleName + "." + method);
+            }
+        }
+        return Collections.unmodifiableList(calls);
+    }
+
+    /**
+     * Reemplaza el CommandExecutor del driver por uno que notifica a los observadores
+     * setCommandExecutor es protegido en RemoteWebDriver, por eso se invoca por reflexión
+     */
+    static void instrument(WebDriver driver) {
+        if (!(driver instanceof RemoteWebDriver)) {
+            return;
+        }
+        RemoteWebDriver remote = (RemoteWebDriver) driver;
+        try {
+            Method setter = RemoteWebDriver.class.getDeclaredMethod("setCommandExecutor", CommandExecutor.class);
+            setter.setAccessible(true);
+            setter.invoke(remote, new ListeningExecutor(remote.getCommandExecutor()));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("No se pudo instrumentar el driver; no se medirán sus comandos: {}", e.getMessage());
+        }
+    }
+
+    private static final class ListeningExecutor implements CommandExecutor {
+        private final CommandExecutor delegate;
+
+        ListeningExecutor(CommandExecutor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            if (listeners.isEmpty()) {
+                return delegate.execute(command);
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Response response = delegate.execute(command);
+                failed = response != null && response.getStatus() != null && response.getStatus() != 0;
+                return response;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                @SuppressWarnings("unchecked")
+                List<String>[] calls = new List[1];
+                notifying.set(calls);
+                try {
+                    for (Listener listener : listeners) {
+                        try {
+                            listener.onCommand(command, elapsed, failed);
+                        } catch (RuntimeException e) {
+                            logger.debug("Observador de comandos falló: {}", e.getMessage());
+                        }
+                    }
+                } finally {
+                    notifying.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package cl.walmart.qa.driver;
+
+import cl.walmart.qa.proxy.BrowserProxy;
+import cl.walmart.qa.utils.ConfigReader;
+import cl.walmart.qa.utils.WaitHelper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fábrica centralizada de WebDriver
+ * Construye navegadores nuevos a partir de config.properties
+ */
+public class DriverFactory {
+
+    private static final Logger logger = LogManager.getLogger(DriverFactory.class);
+    private static final ConfigReader config = ConfigReader.getInstance();
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Crea un WebDriver nuevo según el navegador especificado, local o en el grid (driver.backend)
+     * Con page.load.strategy (eager por defecto) el driver no espera el evento load: cada page object
+     * espera solo por su contrato de preparación.
+     *
+     * @param browser Nombre del navegador (chrome, firefox, edge)
+     * @return WebDriver configurado con los timeouts de config.properties
+     */
+    public static WebDriver createDriver(String browser) {
+        logger.info("Creando nuevo navegador: {}", browser);
+        BrowserProxy.Session proxy = BrowserProxy.isEnabled() ? BrowserProxy.getInstance().open() : null;
+
+        WebDriver driver = GridDispatcher.isRemote()
+                ? createRemoteDriver(browser.toLowerCase(), proxy)
+                : createLocalDriver(browser, proxy);
+        if (proxy != null) {
+            BrowserProxy.getInstance().bind(driver, proxy);
+        }
+
+        // Cada comando remoto pasa por los observadores registrados (métricas, auditoría)
+        DriverCommandListeners.instrument(driver);
+
+        // Sin espera implícita: toda la sincronización la hace WaitHelper
+        WaitHelper.disableImplicitWait(driver);
+        driver.manage().timeouts().pageLoadTimeout(config.getPageLoadTimeout(), TimeUnit.SECONDS);
+        return driver;
+    }
+
+    private static WebDriver createLocalDriver(String browser, BrowserProxy.Session proxy) {
+        WebDriver driver;
+        switch (browser.toLowerCase()) {
+            case "chrome":
+                DriverBinaryProvider.ensureDriver("chrome");
+                driver = new ChromeDriver(withPageLoadStrategy(withProxy(buildChromeOptions(), proxy)));
+                break;
+
+            case "firefox":
+                DriverBinaryProvider.ensureDriver("firefox");
+                driver = new FirefoxDriver(withPageLoadStrategy(withProxy(new FirefoxOptions(), proxy)));
+                maximizeIfConfigured(driver);
+                break;
+
+            case "edge":
+                DriverBinaryProvider.ensureDriver("edge");
+                driver = new EdgeDriver(withPageLoadStrategy(withProxy(new EdgeOptions(), proxy)));
+                maximizeIfConfigured(driver);
+                break;
+
+            default:
+                logger.warn("Navegador '{}' no reconocido. Usando Chrome por defecto.", browser);
+                DriverBinaryProvider.ensureDriver("chrome");
+                driver = new ChromeDriver(withPageLoadStrategy(withProxy(buildChromeOptions(), proxy)));
+        }
+        return driver;
+    }
+
+    /**
+     * Abre la sesión en el grid a través de GridDispatcher, que espera un slot libre del navegador.
+     * Los binarios de driver los pone el nodo; aquí solo viajan las opciones.
+     */
+    private static WebDriver createRemoteDriver(String browser, BrowserProxy.Session proxy) {
+        MutableCapabilities capabilities;
+        switch (browser) {
+            case "chrome":
+                capabilities = buildChromeOptions();
+                break;
+
+            case "firefox":
+                capabilities = new FirefoxOptions();
+                break;
+
+            case "edge":
+                capabilities = new EdgeOptions();
+                break;
+
+            default:
+                // Cualquier otro navegador que ofrezca el grid (p. ej. htmlunit en el standalone embebido)
+                DesiredCapabilities desired = new DesiredCapabilities(browser, "", Platform.ANY);
+                desired.setJavascriptEnabled(true);
+                capabilities = desired;
+        }
+        WebDriver driver = GridDispatcher.getInstance().open(browser, withPageLoadStrategy(withProxy(capabilities, proxy)));
+        if ("firefox".equals(browser) || "edge".equals(browser)) {
+            maximizeIfConfigured(driver);
+        }
+        return driver;
+    }
+
+    /**
+     * Construye las opciones de Chrome a partir de las propiedades chrome.* y browser.*
+     */
+    public static ChromeOptions buildChromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+
+        if (config.shouldMaximizeBrowser()) {
+            options.addArguments("--start-maximized");
+        }
+        if (config.getPropertyAsBoolean("chrome.disable.notifications")) {
+            options.addArguments("--disable-notifications");
+        }
+        if (config.getPropertyAsBoolean("chrome.remote.allow.origins")) {
+            options.addArguments("--remote-allow-origins=*");
+        }
+        if (config.getPropertyAsBoolean("chrome.disable.automation.features")) {
+            options.addArguments("--disable-blink-features=AutomationControlled");
+        }
+        if (config.getPropertyAsBoolean("chrome.no.sandbox")) {
+            options.addArguments("--no-sandbox");
+        }
+        if (config.getPropertyAsBoolean("chrome.disable.dev.shm")) {
+            options.addArguments("--disable-dev-shm-usage");
+        }
+        if (config.isHeadless()) {
+            options.addArguments("--headless");
+        }
+        return options;
+    }
+
+    /**
+     * Si el proxy local está activo (caché o bloqueo) enruta el navegador por su propia sesión de proxy.
+     * El proxy intercepta HTTPS con su propio certificado, por eso se aceptan certificados no confiables.
+     */
+    private static <T extends MutableCapabilities> T withProxy(T options, BrowserProxy.Session proxy) {
+        if (proxy != null) {
+            options.setCapability(CapabilityType.PROXY, proxy.seleniumProxy());
+            options.setCapability(CapabilityType.ACCEPT_INSECURE_CERTS, true);
+        }
+        return options;
+    }
+
+    /**
+     * Estrategia de carga de página (page.load.strategy): normal espera el evento load, eager solo el
+     * DOM (readyState interactive) y none devuelve el control apenas se inicia la navegación
+     */
+    static PageLoadStrategy pageLoadStrategy() {
+        String value = config.getProperty("page.load.strategy", "eager").trim();
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(value.toLowerCase());
+        if (strategy == null) {
+            throw new RuntimeException("page.load.strategy inválida: '" + value + "' (normal, eager o none)");
+        }
+        return strategy;
+    }
+
+    private static <T extends MutableCapabilities> T withPageLoadStrategy(T options) {
+        options.setCapability(CapabilityType.PAGE_LOAD_STRATEGY, pageLoadStrategy().toString());
+        return options;
+    }
+
+    private static void maximizeIfConfigured(WebDriver driver) {
+        if (config.shouldMaximizeBrowser()) {
+            driver.manage().window().maximize();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package cl.walmart.qa.driver;
+
+import cl.walmart.qa.proxy.BrowserProxy;
+import cl.walmart.qa.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de navegadores reutilizables entre escenarios
+ * Presta un navegador "tibio" a cada escenario y limpia su estado al devolverlo
+ * (cookies, localStorage/sessionStorage, ventanas extra y about:blank).
+ * Un navegador se recicla al alcanzar driver.pool.max.leases o si falla el health check.
+ * Los escenarios con {@link #FRESH_TAG} reciben siempre un navegador sin usar; con
+ * driver.prewarm.enabled ese navegador (y cualquier otro que el pool deba crear) se lanza por
+ * adelantado en segundo plano.
+ */
+public class DriverPool {
+
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) {}"
+            + "try { window.sessionStorage.clear(); } catch (e) {}";
+
+    /** Tag de escenario que exige un perfil de navegador recién creado */
+    public static final String FRESH_TAG = "@navegador-nuevo";
+
+    private static volatile DriverPool instance;
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final int maxLeases;
+    private final int leaseTimeoutSeconds;
+    private final Semaphore permits;
+    private final DriverPrewarmer prewarmer;
+    private final AtomicInteger liveDrivers = new AtomicInteger();
+    private final Map<String, Deque<PooledDriver>> idle = new ConcurrentHashMap<>();
+    private final Map<WebDriver, PooledDriver> leased = new ConcurrentHashMap<>();
+
+    // Métricas del pool
+    private final AtomicLong leaseCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong recycledCount = new AtomicLong();
+    private final AtomicLong leaseWaitNanos = new AtomicLong();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong resetCount = new AtomicLong();
+    private final AtomicLong resetNanos = new AtomicLong();
+    private final AtomicLong maxResetNanos = new AtomicLong();
+
+    private DriverPool() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.enabled = config.getPropertyAsBoolean("driver.pool.enabled", true);
+        this.maxSize = Math.max(1, config.getPropertyAsInt("driver.pool.size", 1));
+        this.maxLeases = Math.max(1, config.getPropertyAsInt("driver.pool.max.leases", 25));
+        this.leaseTimeoutSeconds = config.getPropertyAsInt("driver.pool.lease.timeout", 120);
+        this.permits = new Semaphore(maxSize, true);
+        this.prewarmer = config.getPropertyAsBoolean("driver.prewarm.enabled", false)
+                ? new DriverPrewarmer(Math.max(1, config.getPropertyAsInt("driver.prewarm.size", 1)),
+                        config.getPropertyAsInt("driver.prewarm.wait", 60))
+                : null;
+        // En el grid un navegador ocioso ocupa un slot: el despachador puede cerrarlo si otro espera
+        GridDispatcher.setIdleReclaimer(browser -> evictIdle(idleFor(browser)));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+        logger.info("Pool de navegadores inicializado (habilitado: {}, tamaño: {}, préstamos máximos: {})",
+                enabled, maxSize, maxLeases);
+    }
+
+    /**
+     * Obtiene la instancia única del pool (Singleton)
+     */
+    public static DriverPool getInstance() {
+        if (instance == null) {
+            synchronized (DriverPool.class) {
+                if (instance == null) {
+                    instance = new DriverPool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Presta un navegador del tipo indicado, reutilizando uno ocioso si existe
+     *
+     * @param browser Nombre del navegador (chrome, firefox, edge)
+     * @return WebDriver listo para usar, ya limpio
+     */
+    public WebDriver lease(String browser) {
+        return lease(browser, false);
+    }
+
+    /**
+     * Presta un navegador del tipo indicado
+     *
+     * @param browser Nombre del navegador (chrome, firefox, edge)
+     * @param fresh   true para exigir un navegador nunca prestado (perfil limpio)
+     * @return WebDriver listo para usar
+     */
+    public WebDriver lease(String browser, boolean fresh) {
+        String key = browser.toLowerCase();
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(leaseTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Timeout de " + leaseTimeoutSeconds
+                        + "s esperando un navegador libre del pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido esperando un navegador del pool", e);
+        }
+        long waited = System.nanoTime() - start;
+        leaseWaitNanos.addAndGet(waited);
+        updateMax(maxLeaseWaitNanos, waited);
+        leaseCount.incrementAndGet();
+
+        try {
+            PooledDriver pooled = null;
+            if (enabled && !fresh) {
+                Deque<PooledDriver> candidates = idleFor(key);
+                while ((pooled = candidates.pollFirst()) != null) {
+                    if (isHealthy(pooled)) {
+                        break;
+                    }
+                    discard(pooled, "health check fallido");
+                }
+            }
+            if (pooled == null) {
+                pooled = create(key);
+            }
+            pooled.leases++;
+            leased.put(pooled.driver, pooled);
+            if (prewarmer != null) {
+                // El siguiente navegador nuevo arranca mientras corre este escenario
+                prewarmer.refill(key);
+            }
+            logger.debug("Navegador {} prestado (préstamo #{}, espera {} ms)",
+                    key, pooled.leases, TimeUnit.NANOSECONDS.toMillis(waited));
+            return pooled.driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve un navegador al pool. Si no puede limpiarse o ya cumplió su
+     * número máximo de préstamos, se cierra.
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        PooledDriver pooled = leased.remove(driver);
+        if (pooled == null) {
+            logger.warn("Se devolvió un navegador que no pertenece al pool; se cerrará");
+            quitQuietly(driver);
+            return;
+        }
+        try {
+            if (!enabled) {
+                discard(pooled, "pool deshabilitado");
+            } else if (pooled.leases >= maxLeases) {
+                discard(pooled, "alcanzó " + maxLeases + " préstamos");
+            } else if (reset(pooled)) {
+                idleFor(pooled.browser).offerFirst(pooled);
+            } else {
+                discard(pooled, "fallo al limpiar el estado");
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Resumen de métricas del pool: tiempos de espera de préstamo y de limpieza
+     */
+    public String getStats() {
+        long leases = leaseCount.get();
+        long resets = resetCount.get();
+        String stats = String.format("préstamos=%d, creados=%d, reciclados=%d, espera promedio=%d ms (máx %d ms), "
+                        + "limpieza promedio=%d ms (máx %d ms)",
+                leases, createdCount.get(), recycledCount.get(),
+                leases == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.get() / leases),
+                TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get()),
+                resets == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(resetNanos.get() / resets),
+                TimeUnit.NANOSECONDS.toMillis(maxResetNanos.get()));
+        return prewarmer == null ? stats : stats + ", " + prewarmer.getStats();
+    }
+
+    /**
+     * Registra las métricas de préstamos y limpiezas si el pool llegó a usarse
+     * (lo invoca RunReportsPlugin al terminar la ejecución; el shutdown hook solo cierra los navegadores)
+     */
+    public static void finish() {
+        DriverPool pool = instance;
+        if (pool != null) {
+            logger.info("Pool de navegadores al terminar la ejecución: {}", pool.getStats());
+        }
+    }
+
+    /**
+     * Cierra todos los navegadores del pool
+     */
+    public void shutdown() {
+        if (prewarmer != null) {
+            prewarmer.shutdown();
+        }
+        List<PooledDriver> all = new ArrayList<>(leased.values());
+        leased.clear();
+        for (Deque<PooledDriver> deque : idle.values()) {
+            PooledDriver pooled;
+            while ((pooled = deque.pollFirst()) != null) {
+                all.add(pooled);
+            }
+        }
+        for (PooledDriver pooled : all) {
+            quitQuietly(pooled.driver);
+            liveDrivers.decrementAndGet();
+        }
+        GridDispatcher.shutdownIfStarted();
+    }
+
+    private PooledDriver create(String browser) {
+        // Si el pool está lleno con navegadores ociosos de otro tipo, se libera uno
+        while (liveDrivers.get() >= maxSize && evictIdle()) {
+            // continuar hasta tener espacio
+        }
+        WebDriver driver = prewarmer != null ? prewarmer.take(browser) : null;
+        if (driver == null) {
+            driver = DriverFactory.createDriver(browser);
+        }
+        liveDrivers.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledDriver(browser, driver);
+    }
+
+    private boolean evictIdle() {
+        for (Deque<PooledDriver> deque : idle.values()) {
+            if (evictIdle(deque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean evictIdle(Deque<PooledDriver> deque) {
+        PooledDriver pooled = deque.pollLast();
+        if (pooled == null) {
+            return false;
+        }
+        discard(pooled, "espacio para otro navegador");
+        return true;
+    }
+
+    private boolean isHealthy(PooledDriver pooled) {
+        try {
+            return !pooled.driver.getWindowHandles().isEmpty();
+        } catch (Exception e) {
+            logger.debug("Health check fallido para navegador {}: {}", pooled.browser, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reset(PooledDriver pooled) {
+        WebDriver driver = pooled.driver;
+        long start = System.nanoTime();
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String keep = handles.iterator().next();
+            for (String handle : handles) {
+                if (!handle.equals(keep)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(keep);
+
+            // El storage y las cookies pertenecen al origen actual: limpiar antes de salir de él
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("No se pudo limpiar el navegador {}: {}", pooled.browser, e.getMessage());
+            return false;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            resetCount.incrementAndGet();
+            resetNanos.addAndGet(elapsed);
+            updateMax(maxResetNanos, elapsed);
+        }
+    }
+
+    private void discard(PooledDriver pooled, String reason) {
+        logger.info("Reciclando navegador {} tras {} préstamo(s): {}", pooled.browser, pooled.leases, reason);
+        quitQuietly(pooled.driver);
+        liveDrivers.decrementAndGet();
+        recycledCount.incrementAndGet();
+    }
+
+    private Deque<PooledDriver> idleFor(String browser) {
+        return idle.computeIfAbsent(browser, k -> new LinkedBlockingDeque<>());
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error al cerrar navegador: {}", e.getMessage());
+        }
+        BrowserProxy.release(driver);
+        GridDispatcher.release(driver);
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // reintentar
+        }
+    }
+
+    /**
+     * Navegador administrado por el pool junto con su contador de préstamos
+     */
+    private static class PooledDriver {
+        private final String browser;
+        private final WebDriver driver;
+        private int leases;
+
+        PooledDriver(String browser, WebDriver driver) {
+            this.browser = browser;
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package cl.walmart.qa.driver;
+
+import cl.walmart.qa.proxy.BrowserProxy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lanza navegadores nuevos por adelantado mientras corre el escenario actual
+ * Mantiene hasta driver.prewarm.size navegadores sin usar por tipo, creados en segundo plano
+ * con DriverFactory (mismas opciones que un navegador creado en el momento), para que el pool
+ * entregue uno listo cuando necesita un navegador nuevo. Los que no se usan se cierran al final.
+ */
+class DriverPrewarmer {
+
+    private static final Logger logger = LogManager.getLogger(DriverPrewarmer.class);
+    private static final long POLL_MILLIS = 250;
+
+    private final int depth;
+    private final int waitSeconds;
+    private final ExecutorService builder;
+    private final Map<String, BlockingDeque<WebDriver>> ready = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> building = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong built = new AtomicLong();
+    private final AtomicLong wasted = new AtomicLong();
+    private final AtomicLong buildNanos = new AtomicLong();
+
+    DriverPrewarmer(int depth, int waitSeconds) {
+        this.depth = depth;
+        this.waitSeconds = waitSeconds;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.builder = Executors.newFixedThreadPool(depth, runnable -> {
+            Thread thread = new Thread(runnable, "driver-prewarm-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Entrega un navegador lanzado por adelantado y encarga el siguiente. Si hay uno en
+     * construcción se espera (hasta driver.prewarm.wait segundos), ya que terminará antes
+     * que uno lanzado desde cero.
+     *
+     * @return navegador nuevo, o null si no hay ninguno disponible
+     */
+    WebDriver take(String browser) {
+        BlockingDeque<WebDriver> queue = readyFor(browser);
+        WebDriver driver = queue.pollFirst();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(waitSeconds);
+        try {
+            // Si el arranque en curso falla se deja de esperar en el siguiente intervalo
+            while (driver == null && buildingFor(browser).get() > 0 && System.nanoTime() < deadline) {
+                driver = queue.pollFirst(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (driver != null && !isAlive(driver)) {
+            quitQuietly(driver);
+            driver = null;
+        }
+        if (driver != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        refill(browser);
+        return driver;
+    }
+
+    /**
+     * Encarga navegadores hasta tener driver.prewarm.size listos o en construcción
+     */
+    void refill(String browser) {
+        BlockingDeque<WebDriver> queue = readyFor(browser);
+        AtomicInteger inFlight = buildingFor(browser);
+        synchronized (inFlight) {
+            while (!closed && queue.size() + inFlight.get() < depth) {
+                inFlight.incrementAndGet();
+                builder.submit(() -> build(browser, queue, inFlight));
+            }
+        }
+    }
+
+    private void build(String browser, BlockingDeque<WebDriver> queue, AtomicInteger inFlight) {
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = DriverFactory.createDriver(browser);
+            buildNanos.addAndGet(System.nanoTime() - start);
+            built.incrementAndGet();
+            synchronized (inFlight) {
+                if (!closed) {
+                    queue.offerLast(driver);
+                    logger.debug("Navegador {} lanzado por adelantado en {} ms", browser,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    return;
+                }
+            }
+            // Terminó de arrancar después del cierre: no debe quedar vivo
+            wasted.incrementAndGet();
+            quitQuietly(driver);
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo lanzar por adelantado un navegador {}: {}", browser, e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    String getStats() {
+        long count = built.get();
+        return String.format("adelantados=%d, usados=%d, sin navegador listo=%d, descartados=%d, arranque promedio=%d ms",
+                count, hits.get(), misses.get(), wasted.get(),
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(buildNanos.get() / count));
+    }
+
+    /**
+     * Cierra los navegadores no usados; los que estén arrancando se cierran al terminar
+     */
+    void shutdown() {
+        closed = true;
+        List<WebDriver> unused = new ArrayList<>();
+        for (Map.Entry<String, BlockingDeque<WebDriver>> entry : ready.entrySet()) {
+            synchronized (buildingFor(entry.getKey())) {
+                entry.getValue().drainTo(unused);
+            }
+        }
+        builder.shutdown();
+        for (WebDriver driver : unused) {
+            wasted.incrementAndGet();
+            quitQuietly(driver);
+        }
+        try {
+            // Dar tiempo a que los arranques en curso terminen y se cierren solos
+            builder.awaitTermination(waitSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Navegadores adelantados cerrados: {}", getStats());
+    }
+
+    private BlockingDeque<WebDriver> readyFor(String browser) {
+        return ready.computeIfAbsent(browser, k -> new LinkedBlockingDeque<>());
+    }
+
+    private AtomicInteger buildingFor(String browser) {
+        return building.computeIfAbsent(browser, k -> new AtomicInteger());
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (Exception e) {
+            logger.debug("Navegador adelantado no responde: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error al cerrar navegador adelantado: {}", e.getMessage());
+        }
+        BrowserProxy.release(driver);
+        GridDispatcher.release(driver);
+    }
+}
@@ -0,0 +1,71 @@
+package cl.walmart.qa.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+
+/**
+ * Selenium standalone 3 dentro de la misma JVM, para probar el backend remoto sin un grid real
+ * selenium-server solo está en el classpath con el perfil grid-local, por eso se carga por reflexión.
+ */
+final class EmbeddedGrid {
+
+    private static final Logger logger = LogManager.getLogger(EmbeddedGrid.class);
+    private static final String LAUNCHER = "org.openqa.grid.selenium.GridLauncherV3";
+    private static final String STOPPABLE = "org.openqa.grid.shared.Stoppable";
+
+    private final Object server;
+    private final String url;
+
+    private EmbeddedGrid(Object server, String url) {
+        this.server = server;
+        this.url = url;
+    }
+
+    /**
+     * Levanta el standalone en el puerto indicado (0 = uno libre)
+     */
+    static EmbeddedGrid start(int port) {
+        int actualPort = port > 0 ? port : freePort();
+        try {
+            Class<?> launcherClass = Class.forName(LAUNCHER);
+            Object launcher = launcherClass.getConstructor().newInstance();
+            Method launch = launcherClass.getMethod("launch", String[].class);
+            Object server = launch.invoke(launcher, (Object) new String[]{"-role", "standalone", "-port", String.valueOf(actualPort)});
+            if (server == null) {
+                throw new RuntimeException("GridLauncherV3 no devolvió un servidor");
+            }
+            String url = "http://localhost:" + actualPort + "/wd/hub";
+            logger.info("Selenium standalone embebido escuchando en {}", url);
+            return new EmbeddedGrid(server, url);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("grid.embedded=true requiere selenium-server en el classpath (mvn test -Pgrid-local)", e);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("No se pudo levantar el Selenium standalone embebido", e);
+        }
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    void stop() {
+        try {
+            Class.forName(STOPPABLE).getMethod("stop").invoke(server);
+            logger.info("Selenium standalone embebido detenido");
+        } catch (ReflectiveOperationException e) {
+            logger.warn("No se pudo detener el Selenium standalone embebido: {}", e.getMessage());
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new RuntimeException("No se encontró un puerto libre para el Selenium standalone", e);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package cl.walmart.qa.driver;
+
+import cl.walmart.qa.utils.ConfigReader;
+import cl.walmart.qa.utils.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Despacho de sesiones a un Selenium Grid (driver.backend=remote) según los slots libres
+ * Cada tipo de navegador tiene tantos permisos como slots tiene el grid (grid.slots, o lo que
+ * informe /status si se deja vacío). Si no hay slot libre la sesión espera en cola hasta
+ * grid.queue.timeout en lugar de fallar en el hub. Al final se escribe el uso de slots y la
+ * espera en cola por navegador (grid-dispatch.txt en reports.path).
+ */
+public class GridDispatcher {
+
+    private static final Logger logger = LogManager.getLogger(GridDispatcher.class);
+    private static final long POLL_MILLIS = 250;
+    private static volatile GridDispatcher instance;
+    private static volatile Predicate<String> idleReclaimer;
+
+    private final ConfigReader config = ConfigReader.getInstance();
+    private final URL gridUrl;
+    private final EmbeddedGrid embedded;
+    private final int defaultSlots;
+    private final int queueTimeoutSeconds;
+    private final Map<String, Integer> declaredSlots;
+    private final Map<String, Slots> slots = new ConcurrentHashMap<>();
+    private final Map<WebDriver, Slots> sessions = Collections.synchronizedMap(new IdentityHashMap<WebDriver, Slots>());
+    private final Path reportFile;
+
+    private GridDispatcher() {
+        if (config.getPropertyAsBoolean("grid.embedded", false)) {
+            embedded = EmbeddedGrid.start(config.getPropertyAsInt("grid.embedded.port", 0));
+        } else {
+            embedded = null;
+        }
+        String url = embedded != null ? embedded.getUrl() : config.getProperty("grid.url", "http://localhost:4444/wd/hub");
+        try {
+            this.gridUrl = new URL(url);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException("grid.url inválida: " + url, e);
+        }
+        this.defaultSlots = Math.max(1, config.getPropertyAsInt("grid.slots.default", 1));
+        this.queueTimeoutSeconds = config.getPropertyAsInt("grid.queue.timeout", 300);
+        String spec = config.getProperty("grid.slots", "").trim();
+        this.declaredSlots = spec.isEmpty() ? discoverSlots() : parseSlots(spec);
+        this.reportFile = Paths.get(config.getProperty("reports.path", "target/cucumber-reports"), "grid-dispatch.txt");
+        logger.info("Backend remoto en {} con slots {} (por defecto {})", gridUrl, new TreeMap<>(declaredSlots), defaultSlots);
+    }
+
+    public static GridDispatcher getInstance() {
+        if (instance == null) {
+            synchronized (GridDispatcher.class) {
+                if (instance == null) {
+                    instance = new GridDispatcher();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return true si config pide enviar las sesiones a un grid (driver.backend=remote)
+     */
+    public static boolean isRemote() {
+        return "remote".equalsIgnoreCase(ConfigReader.getInstance().getProperty("driver.backend", "local").trim());
+    }
+
+    /**
+     * Abre una sesión remota cuando hay un slot libre para el navegador; mientras no lo hay espera en cola
+     *
+     * @param browser      tipo de navegador (clave de grid.slots)
+     * @param capabilities opciones del navegador
+     */
+    public RemoteWebDriver open(String browser, Capabilities capabilities) {
+        Slots browserSlots = slotsFor(browser);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(queueTimeoutSeconds);
+        try {
+            boolean acquired = browserSlots.permits.tryAcquire();
+            if (!acquired) {
+                browserSlots.queued.incrementAndGet();
+                logger.info("Grid sin slots libres de {} ({} en uso), la sesión queda en cola", browser, browserSlots.capacity);
+            }
+            while (!acquired) {
+                // Un navegador ocioso del pool también ocupa un slot: se reclama mientras se espera
+                acquired = reclaimIdle(browser)
+                        ? browserSlots.permits.tryAcquire()
+                        : browserSlots.permits.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (!acquired && System.nanoTime() >= deadline) {
+                    browserSlots.timeouts.incrementAndGet();
+                    throw new RuntimeException("Timeout de " + queueTimeoutSeconds + "s esperando un slot de "
+                            + browser + " en el grid " + gridUrl);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido esperando un slot del grid", e);
+        }
+        browserSlots.queueWait.record(System.nanoTime() - start);
+        try {
+            long created = System.nanoTime();
+            RemoteWebDriver driver = new RemoteWebDriver(gridUrl, capabilities);
+            browserSlots.startup.record(System.nanoTime() - created);
+            browserSlots.sessions.incrementAndGet();
+            int inUse = browserSlots.inUse.incrementAndGet();
+            browserSlots.peak.accumulateAndGet(inUse, Math::max);
+            sessions.put(driver, browserSlots);
+            logger.debug("Sesión remota de {} abierta ({} de {} slots en uso)", browser, inUse, browserSlots.capacity);
+            return driver;
+        } catch (RuntimeException e) {
+            browserSlots.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Registra quién puede cerrar un navegador ocioso de un tipo para liberar su slot (el pool)
+     */
+    static void setIdleReclaimer(Predicate<String> reclaimer) {
+        idleReclaimer = reclaimer;
+    }
+
+    private static boolean reclaimIdle(String browser) {
+        Predicate<String> reclaimer = idleReclaimer;
+        return reclaimer != null && reclaimer.test(browser);
+    }
+
+    /**
+     * Libera el slot de una sesión ya cerrada. No hace nada si el navegador no es remoto.
+     */
+    public static void release(WebDriver driver) {
+        GridDispatcher dispatcher = instance;
+        if (dispatcher == null || driver == null) {
+            return;
+        }
+        Slots browserSlots = dispatcher.sessions.remove(driver);
+        if (browserSlots != null) {
+            browserSlots.inUse.decrementAndGet();
+            browserSlots.permits.release();
+        }
+    }
+
+    private Slots slotsFor(String browser) {
+        String key = browser.toLowerCase(Locale.ROOT);
+        return slots.computeIfAbsent(key, k -> {
+            Integer declared = declaredSlots.get(k);
+            return new Slots(declared != null ? declared : defaultSlots);
+        });
+    }
+
+    /**
+     * "chrome:4,firefox:2"
+     */
+    private static Map<String, Integer> parseSlots(String spec) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new RuntimeException("Entrada inválida en grid.slots (se espera navegador:slots): " + entry);
+            }
+            try {
+                parsed.put(pair[0].trim().toLowerCase(Locale.ROOT), Math.max(1, Integer.parseInt(pair[1].trim())));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Número de slots inválido en grid.slots: " + entry);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Cuenta los slots por navegador del /status de Selenium 4 (value.nodes[].slots[].stereotype).
+     * Grid 3 y el standalone no los informan; en ese caso se usa grid.slots.default.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> discoverSlots() {
+        Map<String, Integer> discovered = new HashMap<>();
+        String statusUrl = gridUrl.toString().replaceAll("/wd/hub/?$", "").replaceAll("/$", "") + "/status";
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(statusUrl).openConnection();
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(5000);
+            String body;
+            try (InputStream in = connection.getInputStream(); Scanner scanner = new Scanner(in, "UTF-8")) {
+                body = scanner.useDelimiter("\\A").hasNext() ? scanner.next() : "";
+            }
+            Map<String, Object> status = new Json().toType(body, Map.class);
+            Object value = status.get("value");
+            Object nodes = value instanceof Map ? ((Map<String, Object>) value).get("nodes") : null;
+            if (nodes instanceof Collection) {
+                for (Object node : (Collection<Object>) nodes) {
+                    Object nodeSlots = node instanceof Map ? ((Map<String, Object>) node).get("slots") : null;
+                    if (!(nodeSlots instanceof Collection)) {
+                        continue;
+                    }
+                    for (Object slot : (Collection<Object>) nodeSlots) {
+                        Object stereotype = slot instanceof Map ? ((Map<String, Object>) slot).get("stereotype") : null;
+                        Object name = stereotype instanceof Map ? ((Map<String, Object>) stereotype).get("browserName") : null;
+                        if (name != null) {
+                            discovered.merge(name.toString().toLowerCase(Locale.ROOT), 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("No se pudieron obtener los slots del grid desde {}: {}", statusUrl, e.getMessage());
+        }
+        if (discovered.isEmpty()) {
+            logger.info("El grid no informa slots por navegador; se usa grid.slots.default={}", defaultSlots);
+        }
+        return discovered;
+    }
+
+    /**
+     * Resumen por navegador: slots, pico de uso, sesiones y espera en cola
+     */
+    public String getStats() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Slots> entry : new TreeMap<>(slots).entrySet()) {
+            Slots s = entry.getValue();
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(String.format("%s: slots=%d, pico=%d, sesiones=%d, en cola=%d, espera media=%d ms (p95 %d ms, máx %d ms), timeouts=%d",
+                    entry.getKey(), s.capacity, s.peak.get(), s.sessions.get(), s.queued.get(),
+                    s.queueWait.getMeanMicros() / 1000, s.queueWait.getPercentileMicros(95) / 1000,
+                    s.queueWait.getMaxMicros() / 1000, s.timeouts.get()));
+        }
+        return sb.length() == 0 ? "sin sesiones" : sb.toString();
+    }
+
+    private void writeReport() {
+        StringBuilder sb = new StringBuilder("Despacho al grid ").append(gridUrl).append(System.lineSeparator());
+        sb.append(String.format("%-10s %6s %6s %9s %8s %12s %10s %10s %10s %9s%n", "Navegador", "slots", "pico",
+                "sesiones", "en cola", "espera ms", "p95 ms", "máx ms", "arranque", "timeouts"));
+        for (Map.Entry<String, Slots> entry : new TreeMap<>(slots).entrySet()) {
+            Slots s = entry.getValue();
+            sb.append(String.format("%-10s %6d %6d %9d %8d %12d %10d %10d %10d %9d%n", entry.getKey(), s.capacity,
+                    s.peak.get(), s.sessions.get(), s.queued.get(), s.queueWait.getMeanMicros() / 1000,
+                    s.queueWait.getPercentileMicros(95) / 1000, s.queueWait.getMaxMicros() / 1000,
+                    s.startup.getMeanMicros() / 1000, s.timeouts.get()));
+        }
+        try {
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            Files.write(reportFile, sb.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el reporte del grid {}: {}", reportFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe el reporte de slots y registra las métricas si hubo despacho al grid
+     * (lo invoca RunReportsPlugin al terminar la ejecución)
+     */
+    public static void finish() {
+        GridDispatcher dispatcher = instance;
+        if (dispatcher != null) {
+            dispatcher.writeReport();
+            logger.info("Despacho al grid: {}", dispatcher.getStats());
+        }
+    }
+
+    /**
+     * Detiene el standalone embebido. Lo llama DriverPool al cerrar, después de terminar
+     * las sesiones, para que el grid siga arriba mientras se cierran.
+     */
+    static void shutdownIfStarted() {
+        GridDispatcher dispatcher = instance;
+        if (dispatcher != null && dispatcher.embedded != null) {
+            dispatcher.embedded.stop();
+        }
+    }
+
+    /**
+     * Slots de un tipo de navegador y sus métricas
+     */
+    private static final class Slots {
+        final int capacity;
+        final Semaphore permits;
+        final AtomicInteger inUse = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final AtomicLong sessions = new AtomicLong();
+        final AtomicLong queued = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final LatencyHistogram queueWait = new LatencyHistogram();
+        final LatencyHistogram startup = new LatencyHistogram();
+
+        Slots(int capacity) {
+            this.capacity = capacity;
+            this.permits = new Semaphore(capacity, true);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package cl.walmart.qa.fixtures;
+
+import cl.walmart.qa.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prepara el carrito por HTTP, sin pasar por la UI
+ * Busca el producto con la ruta product/search, lo agrega con el POST AJAX de
+ * checkout/cart/add y deja al navegador en la misma sesión de OpenCart (cookie OCSESSID):
+ * si el navegador ya tiene sesión en el sitio se reutiliza; si no, se le inyecta la cookie
+ * obtenida por HTTP. Al terminar el navegador queda en la página del carrito.
+ */
+public class CartFixture {
+
+    private static final Logger logger = LogManager.getLogger(CartFixture.class);
+    private static final Pattern FIRST_PRODUCT_ID = Pattern.compile("cart\\.add\\(\\s*'(\\d+)'");
+
+    private final OpenCartHttpClient client;
+
+    public CartFixture(String baseUrl) {
+        this.client = new OpenCartHttpClient(baseUrl, ConfigReader.getInstance().getPageLoadTimeout() * 1000);
+    }
+
+    /**
+     * Agrega el primer resultado de búsqueda al carrito de la sesión del navegador
+     * y navega a la página del carrito
+     *
+     * @param driver      navegador del escenario
+     * @param productName término de búsqueda (igual que en la UI)
+     * @param quantity    cantidad a agregar
+     * @return product_id agregado
+     */
+    public String addToCart(WebDriver driver, String productName, int quantity) {
+        long start = System.currentTimeMillis();
+        boolean browserSession = client.adoptSession(driver);
+
+        String productId = findProductId(productName);
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("product_id", productId);
+        form.put("quantity", String.valueOf(quantity));
+        String json = client.post("index.php?route=checkout/cart/add", form).body;
+        if (!json.contains("\"success\"")) {
+            throw new RuntimeException("OpenCart no agregó el producto " + productId + " al carrito: " + json);
+        }
+
+        String cartUrl = client.url("index.php?route=checkout/cart");
+        if (!browserSession) {
+            client.injectSession(driver, cartUrl);
+        }
+        driver.get(cartUrl);
+        logger.info("Producto '{}' (id {}) agregado al carrito por HTTP en {} ms", productName, productId,
+                System.currentTimeMillis() - start);
+        return productId;
+    }
+
+    /**
+     * Busca el producto y devuelve el product_id del primer resultado
+     */
+    public String findProductId(String productName) {
+        String html = client.get("index.php?route=product/search&search=" + OpenCartHttpClient.encode(productName)).body;
+        Matcher matcher = FIRST_PRODUCT_ID.matcher(html);
+        if (!matcher.find()) {
+            throw new RuntimeException("La búsqueda de '" + productName + "' no devolvió productos");
+        }
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,202 @@
+package cl.walmart.qa.fixtures;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cliente HTTP mínimo contra OpenCart con su propio jar de cookies
+ * Una instancia equivale a una sesión (cookie OCSESSID); puede tomar la sesión de un navegador
+ * o entregarle la suya. No es thread-safe: cada hilo usa su propia instancia.
+ */
+class OpenCartHttpClient {
+
+    private static final Logger logger = LogManager.getLogger(OpenCartHttpClient.class);
+    static final String SESSION_COOKIE = "OCSESSID";
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36";
+
+    private final String baseUrl;
+    private final int timeoutMillis;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    OpenCartHttpClient(String baseUrl, int timeoutMillis) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    String url(String path) {
+        return baseUrl + path;
+    }
+
+    Response get(String path) {
+        return send("GET", path, null);
+    }
+
+    Response post(String path, Map<String, String> form) {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> field : form.entrySet()) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(encode(field.getKey())).append('=').append(encode(field.getValue()));
+        }
+        return send("POST", path, body.toString());
+    }
+
+    /**
+     * Si el navegador ya está en el sitio usa su sesión, así lo que se haga por HTTP queda en ella
+     *
+     * @return true si se tomó la sesión del navegador
+     */
+    boolean adoptSession(WebDriver driver) {
+        if (!sameHost(driver.getCurrentUrl())) {
+            return false;
+        }
+        Cookie session = driver.manage().getCookieNamed(SESSION_COOKIE);
+        if (session == null) {
+            return false;
+        }
+        cookies.put(SESSION_COOKIE, session.getValue());
+        logger.debug("Usando la sesión del navegador");
+        return true;
+    }
+
+    /**
+     * Copia las cookies de la sesión HTTP al navegador. WebDriver solo acepta cookies del
+     * dominio actual y en una página HTML, por eso antes se abre landingUrl si hace falta.
+     */
+    void injectSession(WebDriver driver, String landingUrl) {
+        if (!sameHost(driver.getCurrentUrl())) {
+            driver.get(landingUrl);
+        }
+        for (Map.Entry<String, String> cookie : cookies.entrySet()) {
+            driver.manage().deleteCookieNamed(cookie.getKey());
+            driver.manage().addCookie(new Cookie(cookie.getKey(), cookie.getValue(), "/"));
+        }
+        logger.debug("Cookies de sesión inyectadas en el navegador: {}", cookies.keySet());
+    }
+
+    private boolean sameHost(String url) {
+        try {
+            String current = URI.create(url).getHost();
+            return current != null && current.equalsIgnoreCase(URI.create(baseUrl).getHost());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Response send(String method, String path, String form) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setInstanceFollowRedirects(false);
+            connection.setRequestProperty("User-Agent", USER_AGENT);
+            if (!cookies.isEmpty()) {
+                connection.setRequestProperty("Cookie", cookieHeader());
+            }
+            if (form != null) {
+                byte[] body = form.getBytes(StandardCharsets.UTF_8);
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8");
+                connection.setRequestProperty("X-Requested-With", "XMLHttpRequest");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+            int status = connection.getResponseCode();
+            storeCookies(connection.getHeaderFields());
+            String body = read(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            if (status >= 400) {
+                throw new RuntimeException(method + " " + path + " respondió " + status);
+            }
+            return new Response(status, connection.getHeaderField("Location"), body);
+        } catch (IOException e) {
+            throw new RuntimeException("Fallo la petición " + method + " " + baseUrl + path, e);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private void storeCookies(Map<String, List<String>> headers) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            // El nombre de la cabecera no siempre llega como "Set-Cookie"
+            if (header.getKey() == null || !"set-cookie".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                String pair = value.split(";", 2)[0];
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    cookies.put(pair.substring(0, equals).trim(), pair.substring(equals + 1).trim());
+                }
+            }
+        }
+    }
+
+    private String cookieHeader() {
+        StringBuilder header = new StringBuilder();
+        for (Map.Entry<String, String> cookie : cookies.entrySet()) {
+            if (header.length() > 0) {
+                header.append("; ");
+            }
+            header.append(cookie.getKey()).append('=').append(cookie.getValue());
+        }
+        return header.toString();
+    }
+
+    private static String read(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream input = in) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+        }
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Response {
+        final int status;
+        final String location;
+        final String body;
+
+        Response(int status, String location, String body) {
+            this.status = status;
+            this.location = location;
+            this.body = body;
+        }
+    }
+}
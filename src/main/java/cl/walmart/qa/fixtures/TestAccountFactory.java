@@ -0,0 +1,213 @@
+package cl.walmart.qa.fixtures;
+
+import cl.walmart.qa.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fábrica de cuentas de prueba (Singleton thread-safe)
+ * Genera identidades únicas por ejecución (&lt;prefijo&gt;.&lt;ejecución&gt;.&lt;n&gt;@&lt;dominio&gt;), de modo que
+ * los escenarios de registro no chocan entre ejecuciones ni entre hilos, y mantiene en segundo
+ * plano un pool de cuentas ya registradas por HTTP (account/register) para los escenarios que
+ * solo necesitan un usuario con sesión. Cada cuenta del pool se entrega a un solo escenario.
+ * El pool no registra más cuentas que las que pedirán los escenarios seleccionados (expectAccounts):
+ * cada cuenta que sobra queda huérfana en el sitio.
+ */
+public class TestAccountFactory {
+
+    private static final Logger logger = LogManager.getLogger(TestAccountFactory.class);
+    private static final Pattern WARNING = Pattern.compile("class=\"alert alert-danger[^\"]*\">\\s*(?:<i[^>]*></i>)?\\s*([^<]+)");
+    private static volatile TestAccountFactory instance;
+
+    private final ConfigReader config = ConfigReader.getInstance();
+    private final String runId;
+    private final AtomicLong sequence = new AtomicLong();
+    private final BlockingQueue<TestIdentity> ready = new LinkedBlockingQueue<>();
+    private final AtomicInteger provisioning = new AtomicInteger();
+    private final AtomicInteger started = new AtomicInteger();
+    private volatile int expected = -1;
+    private final AtomicInteger pooledHits = new AtomicInteger();
+    private final AtomicInteger inlineRegistrations = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final ExecutorService provisioner;
+
+    private TestAccountFactory() {
+        SecureRandom random = new SecureRandom();
+        this.runId = Long.toString(System.currentTimeMillis(), 36) + Integer.toString(random.nextInt(36 * 36), 36);
+        int threads = Math.max(1, config.getPropertyAsInt("accounts.pool.threads", 2));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.provisioner = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "account-provisioner-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static TestAccountFactory getInstance() {
+        if (instance == null) {
+            synchronized (TestAccountFactory.class) {
+                if (instance == null) {
+                    instance = new TestAccountFactory();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Identidad nueva, todavía no registrada. Segura para llamar desde varios hilos.
+     */
+    public TestIdentity newIdentity() {
+        long n = sequence.incrementAndGet();
+        String email = config.getProperty("accounts.email.prefix", "qa") + "." + runId + "." + n
+                + "@" + config.getProperty("accounts.email.domain", "ejemplo.com");
+        String telephone = String.format("+569%08d", (runId.hashCode() & 0x7fffffff) % 10000 * 10000 + n % 10000);
+        return new TestIdentity("Prueba", "Automatizada " + n, email.toLowerCase(Locale.ROOT), telephone,
+                config.getProperty("accounts.password", "Prueba123456!"));
+    }
+
+    /**
+     * Cantidad de escenarios seleccionados que tomarán una cuenta (los @cuenta del plan de ejecución)
+     * Sin este dato el pool no registra en segundo plano y cada acquire() registra su cuenta en línea.
+     */
+    public void expectAccounts(int scenarios) {
+        this.expected = scenarios;
+        logger.info("Escenarios de la ejecución que usarán una cuenta de prueba: {}", scenarios);
+    }
+
+    /**
+     * Completa el pool hasta accounts.pool.size registrando cuentas en segundo plano, sin pasar del
+     * total de cuentas que pedirán los escenarios seleccionados (contando las registradas en línea)
+     * Sincronizado: con escenarios en paralelo cada acquire() rellena el pool y, sin el candado, varios
+     * hilos pasarían la comprobación a la vez y registrarían cuentas de más. Los registros que terminan
+     * fuera del candado solo pueden sobrestimar ready + provisioning, nunca subestimarlo.
+     */
+    public synchronized void prewarm() {
+        int target = config.getPropertyAsInt("accounts.pool.size", 2);
+        while (ready.size() + provisioning.get() < target && started.get() < expected) {
+            provisioning.incrementAndGet();
+            started.incrementAndGet();
+            provisioner.submit(() -> {
+                try {
+                    ready.add(register(newIdentity()));
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    logger.warn("No se pudo registrar una cuenta del pool: {}", e.getMessage());
+                } finally {
+                    provisioning.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Entrega una cuenta registrada de uso exclusivo. Espera hasta accounts.pool.acquire.timeout
+     * a que el pool tenga una; si no llega, la registra en el hilo actual.
+     */
+    public TestIdentity acquire() {
+        TestIdentity account = ready.poll();
+        if (account == null && provisioning.get() > 0) {
+            try {
+                account = ready.poll(config.getPropertyAsInt("accounts.pool.acquire.timeout", 10), TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (account != null) {
+            pooledHits.incrementAndGet();
+        } else {
+            logger.info("Pool de cuentas vacío, registrando una cuenta en el hilo del escenario");
+            started.incrementAndGet();
+            account = register(newIdentity());
+            inlineRegistrations.incrementAndGet();
+        }
+        prewarm();
+        return account;
+    }
+
+    /**
+     * Registra la identidad con el POST de account/register
+     *
+     * @return la misma identidad, ya registrada
+     */
+    public TestIdentity register(TestIdentity identity) {
+        long start = System.currentTimeMillis();
+        OpenCartHttpClient client = newClient();
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("customer_group_id", "1");
+        form.put("firstname", identity.getFirstName());
+        form.put("lastname", identity.getLastName());
+        form.put("email", identity.getEmail());
+        form.put("telephone", identity.getTelephone());
+        form.put("password", identity.getPassword());
+        form.put("confirm", identity.getPassword());
+        form.put("newsletter", "0");
+        form.put("agree", "1");
+        OpenCartHttpClient.Response response = client.post("index.php?route=account/register", form);
+        if (response.location == null || !response.location.contains("account/success")) {
+            Matcher warning = WARNING.matcher(response.body);
+            throw new RuntimeException("OpenCart rechazó el registro de " + identity.getEmail()
+                    + (warning.find() ? ": " + warning.group(1).trim() : " (HTTP " + response.status + ")"));
+        }
+        logger.debug("Cuenta {} registrada por HTTP en {} ms", identity.getEmail(), System.currentTimeMillis() - start);
+        return identity;
+    }
+
+    /**
+     * Inicia sesión con la cuenta en la sesión del navegador (account/login por HTTP)
+     * y deja al navegador en account/account
+     */
+    public void login(WebDriver driver, TestIdentity account) {
+        OpenCartHttpClient client = newClient();
+        boolean browserSession = client.adoptSession(driver);
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("email", account.getEmail());
+        form.put("password", account.getPassword());
+        OpenCartHttpClient.Response response = client.post("index.php?route=account/login", form);
+        if (response.location == null || !response.location.contains("account/account")) {
+            throw new RuntimeException("No se pudo iniciar sesión con " + account.getEmail()
+                    + " (HTTP " + response.status + ")");
+        }
+        String accountUrl = client.url("index.php?route=account/account");
+        if (!browserSession) {
+            client.injectSession(driver, accountUrl);
+        }
+        driver.get(accountUrl);
+        logger.info("Sesión iniciada con la cuenta de prueba {}", account.getEmail());
+    }
+
+    private OpenCartHttpClient newClient() {
+        return new OpenCartHttpClient(config.getApplicationUrl(), config.getPageLoadTimeout() * 1000);
+    }
+
+    /**
+     * @return Resumen de uso del pool de cuentas
+     */
+    public String getStats() {
+        return String.format("Cuentas de prueba: %d del pool, %d registradas en línea, %d fallos, %d sin usar",
+                pooledHits.get(), inlineRegistrations.get(), failures.get(), ready.size());
+    }
+
+    /**
+     * Detiene el registro en segundo plano; las cuentas no usadas quedan registradas en el sitio
+     */
+    public void shutdown() {
+        provisioner.shutdownNow();
+        logger.info(getStats());
+    }
+}
@@ -0,0 +1,46 @@
+package cl.walmart.qa.fixtures;
+
+/**
+ * Datos de una cuenta de prueba de OpenCart
+ */
+public final class TestIdentity {
+
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String telephone;
+    private final String password;
+
+    public TestIdentity(String firstName, String lastName, String email, String telephone, String password) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.telephone = telephone;
+        this.password = password;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelephone() {
+        return telephone;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
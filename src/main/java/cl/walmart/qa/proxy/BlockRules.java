@@ -0,0 +1,111 @@
+package cl.walmart.qa.proxy;
+
+import cl.walmart.qa.utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Clases de recursos que el proxy bloquea cuando el escenario lo pide
+ * Cada clase (proxy.block.classes) tiene un patrón de URL (proxy.block.&lt;clase&gt;.url), que
+ * corta la petición antes de salir a la red, y opcionalmente un patrón de MIME
+ * (proxy.block.&lt;clase&gt;.mime), que reemplaza el cuerpo de la respuesta por un stub vacío para
+ * que el navegador no lo decodifique ni lo aplique.
+ */
+public class BlockRules {
+
+    private final List<ResourceClass> classes;
+
+    private BlockRules(List<ResourceClass> classes) {
+        this.classes = Collections.unmodifiableList(classes);
+    }
+
+    public static BlockRules fromConfig(ConfigReader config) {
+        List<ResourceClass> classes = new ArrayList<>();
+        for (String raw : config.getProperty("proxy.block.classes", "").split(",")) {
+            String name = raw.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            Pattern url = compile(name, "url", config.getProperty("proxy.block." + name + ".url", ""));
+            Pattern mime = compile(name, "mime", config.getProperty("proxy.block." + name + ".mime", ""));
+            if (url == null && mime == null) {
+                throw new RuntimeException("La clase de bloqueo '" + name + "' no define proxy.block."
+                        + name + ".url ni proxy.block." + name + ".mime");
+            }
+            classes.add(new ResourceClass(name, url, mime));
+        }
+        return new BlockRules(classes);
+    }
+
+    private static Pattern compile(String name, String kind, String regex) {
+        if (regex.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Pattern.compile(regex.trim(), "mime".equals(kind) ? Pattern.CASE_INSENSITIVE : 0);
+        } catch (PatternSyntaxException e) {
+            throw new RuntimeException("Expresión inválida en proxy.block." + name + "." + kind + ": " + e.getDescription());
+        }
+    }
+
+    /**
+     * @return nombre de la clase cuyo patrón de URL coincide, o null
+     */
+    public String matchUrl(String url) {
+        for (ResourceClass resourceClass : classes) {
+            if (resourceClass.url != null && resourceClass.url.matcher(url).find()) {
+                return resourceClass.name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return nombre de la clase cuyo patrón de MIME coincide, o null
+     */
+    public String matchMime(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (ResourceClass resourceClass : classes) {
+            if (resourceClass.mime != null && resourceClass.mime.matcher(contentType).find()) {
+                return resourceClass.name;
+            }
+        }
+        return null;
+    }
+
+    public boolean hasMimeRules() {
+        for (ResourceClass resourceClass : classes) {
+            if (resourceClass.mime != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (ResourceClass resourceClass : classes) {
+            names.add(resourceClass.name);
+        }
+        return names;
+    }
+
+    private static final class ResourceClass {
+        final String name;
+        final Pattern url;
+        final Pattern mime;
+
+        ResourceClass(String name, Pattern url, Pattern mime) {
+            this.name = name;
+            this.url = url;
+            this.mime = mime;
+        }
+    }
+}
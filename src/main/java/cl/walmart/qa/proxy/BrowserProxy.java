@@ -0,0 +1,466 @@
+package cl.walmart.qa.proxy;
+
+import cl.walmart.qa.proxy.HttpCacheStore.CachedResponse;
+import cl.walmart.qa.utils.ConfigReader;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import net.lightbody.bmp.BrowserMobProxyServer;
+import net.lightbody.bmp.client.ClientUtil;
+import net.lightbody.bmp.util.HttpMessageContents;
+import net.lightbody.bmp.util.HttpMessageInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Proxy local (BrowserMob) por el que pasa el tráfico de los navegadores
+ * Cada navegador tiene su propio servidor proxy (Session), así el bloqueo se puede activar
+ * por escenario aunque corran varios en paralelo; la caché, las reglas y las métricas son
+ * compartidas por toda la JVM.
+ *
+ * Caché (proxy.cache.mode) de recursos estáticos según proxy.cache.rules:
+ * - record: sirve lo que ya está en caché y guarda lo que falta
+ * - replay: solo sirve desde la caché; lo que falta va a la red (o responde 504 con
+ *   proxy.cache.replay.strict=true) y no se escribe nada
+ *
+ * Bloqueo (proxy.block.mode) de las clases de recursos de BlockRules:
+ * - tag: solo en escenarios con @bloquear-recursos
+ * - all: en todos los escenarios salvo los marcados con @sin-bloqueo
+ */
+public class BrowserProxy {
+
+    private static final Logger logger = LogManager.getLogger(BrowserProxy.class);
+
+    public static final String BLOCK_TAG = "@bloquear-recursos";
+    public static final String NO_BLOCK_TAG = "@sin-bloqueo";
+
+    /** GIF transparente de 1x1 que reemplaza a las imágenes bloqueadas */
+    private static final byte[] PIXEL = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+    private static final String TIMING_SCRIPT =
+            "var t = window.performance && performance.timing;"
+            + "return t ? [t.navigationStart, t.loadEventEnd, location.href] : null;";
+
+    private static volatile BrowserProxy instance;
+
+    public enum CacheMode { OFF, RECORD, REPLAY }
+
+    public enum BlockMode { OFF, TAG, ALL }
+
+    private final CacheMode mode;
+    private final CacheRules rules;
+    private final HttpCacheStore store;
+    private final boolean strictReplay;
+    private final Path reportFile;
+    private final BlockMode blockMode;
+    private final BlockRules blockRules;
+    private final PageLoadStats pageLoads;
+    private final Path blockReportFile;
+    private final boolean updateLoadBaseline;
+    private final Map<WebDriver, Session> sessions = new ConcurrentHashMap<>();
+    private final List<Session> openSessions = new ArrayList<>();
+
+    // Métricas de la caché
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong passThrough = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong recordedBytes = new AtomicLong();
+
+    // Métricas del bloqueo: peticiones cortadas por URL y respuestas reemplazadas por MIME, por clase
+    private final Map<String, AtomicLong> blockedByClass = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> stubbedByClass = new ConcurrentHashMap<>();
+    private final AtomicLong stubbedBytes = new AtomicLong();
+
+    private BrowserProxy() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.mode = cacheMode();
+        this.rules = CacheRules.parse(config.getProperty("proxy.cache.rules", ""));
+        this.strictReplay = config.getPropertyAsBoolean("proxy.cache.replay.strict", false);
+        this.reportFile = Paths.get(config.getProperty("proxy.cache.report", "target/cucumber-reports/http-cache.json"));
+        this.store = mode == CacheMode.OFF ? null : new HttpCacheStore(cacheDirectory(config));
+
+        this.blockMode = blockMode();
+        this.blockRules = BlockRules.fromConfig(config);
+        this.blockReportFile = Paths.get(config.getProperty("proxy.block.report", "target/cucumber-reports/resource-blocking.txt"));
+        String baseline = config.getProperty("proxy.block.baseline", "").trim();
+        this.pageLoads = new PageLoadStats(baseline.isEmpty() ? null : Paths.get(baseline));
+        this.updateLoadBaseline = config.getPropertyAsBoolean("proxy.block.baseline.update", false);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "browser-proxy-shutdown"));
+        logger.info("Proxy de navegadores activo (caché: {}, {} reglas; bloqueo: {}, clases {})",
+                mode.name().toLowerCase(Locale.ROOT), rules.size(),
+                blockMode.name().toLowerCase(Locale.ROOT), blockRules.names());
+    }
+
+    /**
+     * Obtiene la instancia única del proxy (Singleton)
+     */
+    public static BrowserProxy getInstance() {
+        if (instance == null) {
+            synchronized (BrowserProxy.class) {
+                if (instance == null) {
+                    instance = new BrowserProxy();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return true si la configuración pide que los navegadores usen el proxy
+     */
+    public static boolean isEnabled() {
+        return cacheMode() != CacheMode.OFF || blockMode() != BlockMode.OFF;
+    }
+
+    private static CacheMode cacheMode() {
+        String value = ConfigReader.getInstance().getProperty("proxy.cache.mode", "off").trim().toUpperCase(Locale.ROOT);
+        try {
+            return CacheMode.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("proxy.cache.mode inválido: '" + value.toLowerCase(Locale.ROOT)
+                    + "' (valores: off, record, replay)", e);
+        }
+    }
+
+    private static BlockMode blockMode() {
+        String value = ConfigReader.getInstance().getProperty("proxy.block.mode", "off").trim().toUpperCase(Locale.ROOT);
+        try {
+            return BlockMode.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("proxy.block.mode inválido: '" + value.toLowerCase(Locale.ROOT)
+                    + "' (valores: off, tag, all)", e);
+        }
+    }
+
+    private static Path cacheDirectory(ConfigReader config) {
+        String path = config.getProperty("proxy.cache.path", "").trim();
+        if (path.isEmpty()) {
+            return Paths.get(System.getProperty("user.home"), ".cache", "opencart-automation", "http");
+        }
+        return Paths.get(path);
+    }
+
+    /**
+     * Levanta un servidor proxy para un navegador nuevo
+     */
+    public Session open() {
+        Session session = new Session();
+        synchronized (openSessions) {
+            openSessions.add(session);
+        }
+        return session;
+    }
+
+    /**
+     * Asocia el navegador ya creado con su sesión de proxy
+     */
+    public void bind(WebDriver driver, Session session) {
+        sessions.put(driver, session);
+    }
+
+    /**
+     * Cierra la sesión de proxy de un navegador que se cerró (no hace nada si el proxy no se usa)
+     */
+    public static void release(WebDriver driver) {
+        BrowserProxy proxy = instance;
+        if (proxy == null) {
+            return;
+        }
+        Session session = proxy.sessions.remove(driver);
+        if (session != null) {
+            session.close();
+            synchronized (proxy.openSessions) {
+                proxy.openSessions.remove(session);
+            }
+        }
+    }
+
+    /**
+     * Decide si un escenario con estos tags corre con el bloqueo activo
+     */
+    public boolean shouldBlock(Collection<String> tags) {
+        switch (blockMode) {
+            case ALL:
+                return !tags.contains(NO_BLOCK_TAG);
+            case TAG:
+                return tags.contains(BLOCK_TAG) && !tags.contains(NO_BLOCK_TAG);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Activa o desactiva el bloqueo para el navegador del escenario
+     */
+    public void setBlocking(WebDriver driver, boolean blocking) {
+        Session session = sessions.get(driver);
+        if (session != null) {
+            session.blocking = blocking;
+        }
+    }
+
+    /**
+     * Registra el tiempo de carga del documento actual si es una navegación nueva ya terminada
+     */
+    public void samplePageLoad(WebDriver driver) {
+        Session session = sessions.get(driver);
+        if (session == null || !(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+            if (!(result instanceof List) || ((List<?>) result).size() < 3) {
+                return;
+            }
+            List<?> timing = (List<?>) result;
+            long navigationStart = ((Number) timing.get(0)).longValue();
+            long loadEventEnd = ((Number) timing.get(1)).longValue();
+            if (loadEventEnd <= 0 || navigationStart == session.lastNavigationStart) {
+                return;
+            }
+            session.lastNavigationStart = navigationStart;
+            pageLoads.record(String.valueOf(timing.get(2)), session.blocking, loadEventEnd - navigationStart);
+        } catch (RuntimeException e) {
+            logger.debug("No se pudo leer el tiempo de carga: {}", e.getMessage());
+        }
+    }
+
+    private HttpResponse filterRequest(Session session, HttpRequest request, HttpMessageInfo info) {
+        String method = request.getMethod().name();
+        String url = info.getOriginalUrl();
+        if (session.blocking) {
+            String resourceClass = blockRules.matchUrl(url);
+            if (resourceClass != null) {
+                counter(blockedByClass, resourceClass).incrementAndGet();
+                HttpResponse stub = stub(url);
+                stub.headers().set("X-Blocked", resourceClass);
+                return stub;
+            }
+        }
+        if (store == null) {
+            return null;
+        }
+        if (!rules.isCacheable(method, url)) {
+            passThrough.incrementAndGet();
+            return null;
+        }
+        CachedResponse cached = store.get(cacheKey(method, url));
+        if (cached == null) {
+            misses.incrementAndGet();
+            if (mode == CacheMode.REPLAY && strictReplay) {
+                logger.debug("Recurso no grabado (replay estricto): {}", url);
+                return response(HttpResponseStatus.GATEWAY_TIMEOUT, "text/plain; charset=UTF-8", "",
+                        ("No grabado en la caché: " + url).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        }
+        hits.incrementAndGet();
+        bytesSaved.addAndGet(cached.body.length);
+        HttpResponse hit = response(HttpResponseStatus.valueOf(cached.status), cached.contentType, cached.contentEncoding, cached.body);
+        hit.headers().set("X-Cache", "HIT");
+        return hit;
+    }
+
+    private void filterResponse(Session session, HttpResponse response, HttpMessageContents contents, HttpMessageInfo info) {
+        String method = info.getOriginalRequest().getMethod().name();
+        String url = info.getOriginalUrl();
+        if (mode == CacheMode.RECORD && response.getStatus().code() == 200 && rules.isCacheable(method, url)) {
+            byte[] body = contents.getBinaryContents();
+            if (store.put(cacheKey(method, url), 200, response.headers().get(HttpHeaders.Names.CONTENT_TYPE),
+                    response.headers().get(HttpHeaders.Names.CONTENT_ENCODING), body)) {
+                recorded.incrementAndGet();
+                recordedBytes.addAndGet(body.length);
+            }
+        }
+        if (session.blocking) {
+            String resourceClass = blockRules.matchMime(response.headers().get(HttpHeaders.Names.CONTENT_TYPE));
+            if (resourceClass != null) {
+                counter(stubbedByClass, resourceClass).incrementAndGet();
+                stubbedBytes.addAndGet(contents.getBinaryContents().length);
+                response.headers().remove(HttpHeaders.Names.CONTENT_ENCODING);
+                contents.setBinaryContents(resourceClass.startsWith("image") ? PIXEL : new byte[0]);
+                if (resourceClass.startsWith("image")) {
+                    response.headers().set(HttpHeaders.Names.CONTENT_TYPE, "image/gif");
+                }
+            }
+        }
+    }
+
+    /**
+     * Respuesta vacía del tipo que espera el navegador (imagen de 1x1, hoja de estilos o script vacío)
+     */
+    private static HttpResponse stub(String url) {
+        String path = url.toLowerCase(Locale.ROOT);
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (path.matches(".*\\.(png|jpe?g|gif|webp|svg|ico|bmp)$")) {
+            return response(HttpResponseStatus.OK, "image/gif", "", PIXEL);
+        }
+        if (path.endsWith(".css")) {
+            return response(HttpResponseStatus.OK, "text/css", "", new byte[0]);
+        }
+        if (path.endsWith(".js")) {
+            return response(HttpResponseStatus.OK, "application/javascript", "", new byte[0]);
+        }
+        return response(HttpResponseStatus.NO_CONTENT, "", "", new byte[0]);
+    }
+
+    private static HttpResponse response(HttpResponseStatus status, String contentType, String contentEncoding, byte[] body) {
+        DefaultFullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, Unpooled.wrappedBuffer(body));
+        if (!contentType.isEmpty()) {
+            response.headers().set(HttpHeaders.Names.CONTENT_TYPE, contentType);
+        }
+        if (!contentEncoding.isEmpty()) {
+            response.headers().set(HttpHeaders.Names.CONTENT_ENCODING, contentEncoding);
+        }
+        response.headers().set(HttpHeaders.Names.CONTENT_LENGTH, body.length);
+        return response;
+    }
+
+    private static AtomicLong counter(Map<String, AtomicLong> counters, String key) {
+        return counters.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private static String cacheKey(String method, String url) {
+        return method.toUpperCase(Locale.ROOT) + " " + url;
+    }
+
+    /**
+     * Resumen de caché y bloqueo para logs y reportes
+     */
+    public String getStats() {
+        long lookups = hits.get() + misses.get();
+        return String.format(Locale.ROOT,
+                "caché=%s, aciertos=%d/%d (%.1f%%), ahorro=%.1f KB, grabados=%d (%.1f KB), directos=%d; bloqueadas=%s, stubs=%s",
+                mode.name().toLowerCase(Locale.ROOT), hits.get(), lookups,
+                lookups == 0 ? 0.0 : 100.0 * hits.get() / lookups, bytesSaved.get() / 1024.0,
+                recorded.get(), recordedBytes.get() / 1024.0, passThrough.get(),
+                new TreeMap<>(blockedByClass), new TreeMap<>(stubbedByClass));
+    }
+
+    /**
+     * Escribe los reportes de caché y bloqueo, el baseline de cargas y registra las métricas si el proxy llegó a usarse
+     * (lo invoca RunReportsPlugin al terminar la ejecución; el shutdown hook solo cierra los proxies)
+     */
+    public static void finish() {
+        BrowserProxy proxy = instance;
+        if (proxy != null) {
+            proxy.writeReports();
+        }
+    }
+
+    private void writeReports() {
+        if (store != null) {
+            writeCacheReport();
+        }
+        if (blockMode != BlockMode.OFF) {
+            pageLoads.writeReport(blockReportFile, String.format(Locale.ROOT,
+                    "Bloqueo de recursos (modo %s)%nPeticiones bloqueadas por URL: %s%nRespuestas reemplazadas por MIME: %s (%.1f KB)%n%n",
+                    blockMode.name().toLowerCase(Locale.ROOT), new TreeMap<>(blockedByClass),
+                    new TreeMap<>(stubbedByClass), stubbedBytes.get() / 1024.0));
+        }
+        if (updateLoadBaseline) {
+            pageLoads.writeBaseline();
+        }
+        logger.info("Proxy de navegadores al terminar la ejecución: {}", getStats());
+    }
+
+    /**
+     * Detiene los proxies y cierra la caché
+     */
+    public void shutdown() {
+        List<Session> remaining;
+        synchronized (openSessions) {
+            remaining = new ArrayList<>(openSessions);
+            openSessions.clear();
+        }
+        for (Session session : remaining) {
+            session.close();
+        }
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private void writeCacheReport() {
+        long lookups = hits.get() + misses.get();
+        String json = "{\n"
+                + "  \"mode\": \"" + mode.name().toLowerCase(Locale.ROOT) + "\",\n"
+                + "  \"hits\": " + hits.get() + ",\n"
+                + "  \"misses\": " + misses.get() + ",\n"
+                + "  \"hitRatio\": " + String.format(Locale.ROOT, "%.4f", lookups == 0 ? 0.0 : (double) hits.get() / lookups) + ",\n"
+                + "  \"bytesSaved\": " + bytesSaved.get() + ",\n"
+                + "  \"recorded\": " + recorded.get() + ",\n"
+                + "  \"recordedBytes\": " + recordedBytes.get() + ",\n"
+                + "  \"passThrough\": " + passThrough.get() + ",\n"
+                + "  \"entries\": " + store.size() + "\n"
+                + "}\n";
+        try {
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            Files.write(reportFile, json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el reporte de la caché HTTP {}: {}", reportFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Servidor proxy de un navegador
+     */
+    public final class Session {
+        private final BrowserMobProxyServer server = new BrowserMobProxyServer();
+        private volatile boolean blocking;
+        private volatile long lastNavigationStart;
+
+        private Session() {
+            // El proxy solo lo usan los navegadores de prueba; no valida certificados de origen
+            server.setTrustAllServers(true);
+            server.addRequestFilter((request, contents, info) -> filterRequest(this, request, info));
+            if (mode == CacheMode.RECORD || (blockMode != BlockMode.OFF && blockRules.hasMimeRules())) {
+                server.addResponseFilter((response, contents, info) -> filterResponse(this, response, contents, info));
+            }
+            server.start(0);
+            logger.debug("Proxy de navegador escuchando en el puerto {}", server.getPort());
+        }
+
+        /**
+         * Configuración de proxy para las capabilities del navegador
+         */
+        public Proxy seleniumProxy() {
+            return ClientUtil.createSeleniumProxy(server);
+        }
+
+        private void close() {
+            if (server.isStarted() && !server.isStopped()) {
+                server.abort();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package cl.walmart.qa.proxy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Reglas por ruta que deciden qué peticiones pasan por la caché
+ * Formato (proxy.cache.rules): lista separada por ';' de "cache:&lt;regex&gt;" o "pass:&lt;regex&gt;"
+ * sobre la URL completa. Gana la primera regla que coincide; si ninguna coincide la petición
+ * va a la red. Solo GET es cacheable: POST (carrito, registro, login) siempre pasa.
+ */
+public class CacheRules {
+
+    private final List<Rule> rules;
+
+    private CacheRules(List<Rule> rules) {
+        this.rules = Collections.unmodifiableList(rules);
+    }
+
+    public static CacheRules parse(String spec) {
+        List<Rule> rules = new ArrayList<>();
+        if (spec == null) {
+            return new CacheRules(rules);
+        }
+        for (String raw : spec.split(";")) {
+            String rule = raw.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            int colon = rule.indexOf(':');
+            String action = colon < 0 ? "" : rule.substring(0, colon).trim().toLowerCase();
+            if (!"cache".equals(action) && !"pass".equals(action)) {
+                throw new IllegalArgumentException("Regla de caché inválida (se espera cache:<regex> o pass:<regex>): " + rule);
+            }
+            try {
+                rules.add(new Rule("cache".equals(action), Pattern.compile(rule.substring(colon + 1).trim())));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Expresión inválida en la regla de caché '" + rule + "': " + e.getDescription());
+            }
+        }
+        return new CacheRules(rules);
+    }
+
+    /**
+     * @return true si la respuesta a esta petición puede servirse o guardarse en la caché
+     */
+    public boolean isCacheable(String method, String url) {
+        if (!"GET".equalsIgnoreCase(method)) {
+            return false;
+        }
+        for (Rule rule : rules) {
+            if (rule.pattern.matcher(url).find()) {
+                return rule.cache;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    private static final class Rule {
+        final boolean cache;
+        final Pattern pattern;
+
+        Rule(boolean cache, Pattern pattern) {
+            this.cache = cache;
+            this.pattern = pattern;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package cl.walmart.qa.proxy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché de respuestas HTTP en disco con formato compacto indexado
+ * Los cuerpos se concatenan en un único archivo de datos (data.bin) y un índice de texto
+ * (index.tsv) guarda una línea por entrada: clave, offset, largo, status, content-type y
+ * content-encoding (el cuerpo se guarda tal como llegó, p. ej. comprimido con gzip).
+ * Al abrir se carga solo el índice; los cuerpos se leen con lecturas posicionales, sin
+ * mantenerlos en memoria. Las escrituras usan un lock de archivo para que JVMs paralelas
+ * que comparten el directorio no se pisen los offsets.
+ */
+public class HttpCacheStore {
+
+    private static final Logger logger = LogManager.getLogger(HttpCacheStore.class);
+    private static final String INDEX_FILE = "index.tsv";
+    private static final String DATA_FILE = "data.bin";
+
+    private final Path directory;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final FileChannel data;
+    private final FileChannel indexChannel;
+
+    public HttpCacheStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            data = FileChannel.open(directory.resolve(DATA_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo abrir la caché HTTP en " + directory, e);
+        }
+        loadIndex();
+    }
+
+    private void loadIndex() {
+        long dataSize;
+        try {
+            dataSize = data.size();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer la caché HTTP en " + directory, e);
+        }
+        int discarded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 6) {
+                    discarded++;
+                    continue;
+                }
+                try {
+                    Entry entry = new Entry(Long.parseLong(fields[1]), Integer.parseInt(fields[2]),
+                            Integer.parseInt(fields[3]), fields[4], fields[5]);
+                    // Una escritura interrumpida deja índices que apuntan fuera del archivo de datos
+                    if (entry.offset + entry.length <= dataSize) {
+                        index.put(fields[0], entry);
+                    } else {
+                        discarded++;
+                    }
+                } catch (NumberFormatException e) {
+                    discarded++;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el índice de la caché HTTP en " + directory, e);
+        }
+        logger.info("Caché HTTP abierta en {}: {} entradas ({} KB){}", directory, index.size(), dataSize / 1024,
+                discarded > 0 ? ", " + discarded + " líneas de índice descartadas" : "");
+    }
+
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Lee una respuesta guardada
+     *
+     * @return la respuesta o null si la clave no está en la caché
+     */
+    public CachedResponse get(String key) {
+        Entry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+        try {
+            long position = entry.offset;
+            while (buffer.hasRemaining()) {
+                int read = data.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("fin de archivo inesperado");
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo leer '{}' de la caché HTTP: {}", key, e.getMessage());
+            return null;
+        }
+        return new CachedResponse(entry.status, entry.contentType, entry.contentEncoding, buffer.array());
+    }
+
+    /**
+     * Agrega una respuesta al final del archivo de datos y su línea al índice
+     *
+     * @return true si se guardó (false si la clave ya estaba)
+     */
+    public boolean put(String key, int status, String contentType, String contentEncoding, byte[] body) {
+        if (index.containsKey(key) || key.indexOf('\t') >= 0 || key.indexOf('\n') >= 0) {
+            return false;
+        }
+        String type = sanitize(contentType);
+        String encoding = sanitize(contentEncoding);
+        synchronized (this) {
+            if (index.containsKey(key)) {
+                return false;
+            }
+            try (FileLock ignored = indexChannel.lock()) {
+                long offset = data.size();
+                ByteBuffer buffer = ByteBuffer.wrap(body);
+                long position = offset;
+                while (buffer.hasRemaining()) {
+                    position += data.write(buffer, position);
+                }
+                String line = key + "\t" + offset + "\t" + body.length + "\t" + status + "\t" + type + "\t" + encoding + "\n";
+                ByteBuffer lineBuffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+                while (lineBuffer.hasRemaining()) {
+                    indexChannel.write(lineBuffer);
+                }
+                index.put(key, new Entry(offset, body.length, status, type, encoding));
+                return true;
+            } catch (IOException e) {
+                logger.warn("No se pudo guardar '{}' en la caché HTTP: {}", key, e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private static String sanitize(String header) {
+        return header == null ? "" : header.replace('\t', ' ').replace('\n', ' ');
+    }
+
+    public void close() {
+        try {
+            data.force(false);
+            data.close();
+            indexChannel.close();
+        } catch (IOException e) {
+            logger.debug("Error cerrando la caché HTTP: {}", e.getMessage());
+        }
+    }
+
+    private static final class Entry {
+        final long offset;
+        final int length;
+        final int status;
+        final String contentType;
+        final String contentEncoding;
+
+        Entry(long offset, int length, int status, String contentType, String contentEncoding) {
+            this.offset = offset;
+            this.length = length;
+            this.status = status;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+        }
+    }
+
+    /**
+     * Respuesta leída de la caché
+     */
+    public static final class CachedResponse {
+        public final int status;
+        public final String contentType;
+        public final String contentEncoding;
+        public final byte[] body;
+
+        CachedResponse(int status, String contentType, String contentEncoding, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package cl.walmart.qa.proxy;
+
+import cl.walmart.qa.utils.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempos de carga por página (Navigation Timing) con y sin bloqueo de recursos
+ * El ahorro de cada página se calcula contra las cargas completas de la misma ejecución o,
+ * si no hubo ninguna, contra el baseline (proxy.block.baseline), que se regenera con
+ * proxy.block.baseline.update=true en una ejecución sin bloqueo.
+ */
+public class PageLoadStats {
+
+    private static final Logger logger = LogManager.getLogger(PageLoadStats.class);
+
+    private final Map<String, LatencyHistogram> blocked = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> full = new ConcurrentHashMap<>();
+    private final Map<String, Long> baseline = new TreeMap<>();
+    private final Path baselineFile;
+
+    public PageLoadStats(Path baselineFile) {
+        this.baselineFile = baselineFile;
+        loadBaseline();
+    }
+
+    /**
+     * Registra la carga de un documento
+     *
+     * @param url     URL del documento
+     * @param blocked true si el navegador tenía el bloqueo activo
+     * @param millis  loadEventEnd - navigationStart
+     */
+    public void record(String url, boolean blocked, long millis) {
+        (blocked ? this.blocked : full).computeIfAbsent(pageOf(url), key -> new LatencyHistogram())
+                .record(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Nombre de página estable: la ruta de OpenCart (route=product/search) o el path
+     */
+    static String pageOf(String url) {
+        try {
+            URI uri = new URI(url);
+            String query = uri.getRawQuery();
+            if (query != null) {
+                for (String pair : query.split("&")) {
+                    if (pair.startsWith("route=")) {
+                        return pair.substring("route=".length());
+                    }
+                }
+            }
+            String path = uri.getPath();
+            return path == null || path.isEmpty() || "/".equals(path) || "/index.php".equals(path) ? "common/home" : path;
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    private void loadBaseline() {
+        if (baselineFile == null || !Files.exists(baselineFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(baselineFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el baseline de carga {}: {}", baselineFile, e.getMessage());
+            return;
+        }
+        for (String page : properties.stringPropertyNames()) {
+            try {
+                baseline.put(page, Long.parseLong(properties.getProperty(page).trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Valor inválido en el baseline de carga para '{}': {}", page, properties.getProperty(page));
+            }
+        }
+    }
+
+    /**
+     * Escribe la tabla por página: cargas con bloqueo, completas y ahorro estimado
+     */
+    public void writeReport(Path file, String header) {
+        StringBuilder sb = new StringBuilder(header);
+        sb.append(String.format("%-28s %8s %10s %8s %10s %10s%n", "Página", "bloq.", "media ms", "compl.", "media ms", "ahorro ms"));
+        TreeSet<String> pages = new TreeSet<>(blocked.keySet());
+        pages.addAll(full.keySet());
+        for (String page : pages) {
+            LatencyHistogram withBlocking = blocked.get(page);
+            LatencyHistogram complete = full.get(page);
+            Long reference = complete != null ? Long.valueOf(complete.getMeanMicros() / 1000) : baseline.get(page);
+            String saved = withBlocking == null || reference == null ? "-"
+                    : (reference - withBlocking.getMeanMicros() / 1000) + (complete == null ? " (baseline)" : "");
+            sb.append(String.format("%-28s %8d %10s %8d %10s %10s%n", page,
+                    withBlocking == null ? 0 : withBlocking.getCount(), mean(withBlocking),
+                    complete == null ? 0 : complete.getCount(), mean(complete), saved));
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el reporte de bloqueo {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String mean(LatencyHistogram histogram) {
+        return histogram == null ? "-" : String.valueOf(histogram.getMeanMicros() / 1000);
+    }
+
+    /**
+     * Guarda como baseline la media de las cargas completas de esta ejecución
+     */
+    public void writeBaseline() {
+        if (baselineFile == null) {
+            return;
+        }
+        if (full.isEmpty()) {
+            logger.warn("No hay cargas sin bloqueo en esta ejecución; el baseline {} no se modifica", baselineFile);
+            return;
+        }
+        Map<String, Long> merged = new TreeMap<>(baseline);
+        for (Map.Entry<String, LatencyHistogram> entry : full.entrySet()) {
+            merged.put(entry.getKey(), entry.getValue().getMeanMicros() / 1000);
+        }
+        StringBuilder sb = new StringBuilder("# Tiempo medio de carga sin bloqueo (ms) por página\n");
+        for (Map.Entry<String, Long> entry : merged.entrySet()) {
+            sb.append(entry.getKey().replace(":", "\\:").replace("=", "\\=")).append('=').append(entry.getValue()).append('\n');
+        }
+        try {
+            if (baselineFile.getParent() != null) {
+                Files.createDirectories(baselineFile.getParent());
+            }
+            Files.write(baselineFile, sb.toString().getBytes(StandardCharsets.UTF_8));
+            logger.info("Baseline de carga actualizado en {} ({} páginas)", baselineFile, merged.size());
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el baseline de carga {}: {}", baselineFile, e.getMessage());
+        }
+    }
+}
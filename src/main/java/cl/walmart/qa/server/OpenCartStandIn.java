@@ -0,0 +1,469 @@
+package cl.walmart.qa.server;
+
+import cl.walmart.qa.server.StandInCatalog.Product;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sitio OpenCart local embebido para ejecuciones herméticas
+ * Sirve en localhost las páginas y rutas AJAX que usan los page objects (portada, búsqueda,
+ * producto, cart.add/remove/edit, carrito, registro, login y páginas de éxito) con el mismo
+ * marcado que OpenCart 3. El carrito y la sesión se guardan por cookie OCSESSID, así que
+ * varios navegadores en paralelo no se pisan.
+ *
+ * Uso: app.embedded.enabled=true (o -Dapp.embedded.enabled=true) y los hooks de Cucumber
+ * levantan el servidor y apuntan app.url a él.
+ */
+public final class OpenCartStandIn {
+
+    private static final Logger logger = LogManager.getLogger(OpenCartStandIn.class);
+    private static final String SESSION_COOKIE = "OCSESSID";
+    private static final String HOME_ROUTE = "common/home";
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    /** Cuentas registradas: email -> contraseña */
+    private final Map<String, String> accounts = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Levanta el servidor
+     *
+     * @param port puerto local; 0 elige uno libre
+     * @return URL base del sitio (termina en /)
+     */
+    public synchronized String start(int port) {
+        if (server != null) {
+            return getBaseUrl();
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo iniciar el sitio local en el puerto " + port, e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "opencart-standin");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("Sitio OpenCart local escuchando en {}", getBaseUrl());
+        return getBaseUrl();
+    }
+
+    /**
+     * Detiene el servidor y descarta las sesiones
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Sitio OpenCart local detenido tras {} peticiones ({} sesiones)", requests.get(), sessions.size());
+        server = null;
+        executor = null;
+        sessions.clear();
+    }
+
+    public synchronized String getBaseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("El sitio local no está iniciado");
+        }
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/image/")) {
+                sendImage(exchange);
+            } else if ("/".equals(path) || "/index.php".equals(path)) {
+                route(exchange);
+            } else {
+                send(exchange, 404, "text/plain; charset=UTF-8", "Not Found");
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error en el sitio local atendiendo {}: {}", exchange.getRequestURI(), e.getMessage(), e);
+            send(exchange, 500, "text/plain; charset=UTF-8", "Internal Server Error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+        Map<String, String> form = "POST".equalsIgnoreCase(exchange.getRequestMethod())
+                ? parseForm(readBody(exchange)) : new HashMap<String, String>();
+        Session session = session(exchange);
+        String route = query.getOrDefault("route", HOME_ROUTE);
+
+        switch (route) {
+            case HOME_ROUTE:
+                html(exchange, StandInPages.home(session));
+                break;
+            case "product/search":
+                String term = query.getOrDefault("search", "");
+                html(exchange, StandInPages.search(session, term, StandInCatalog.search(term)));
+                break;
+            case "product/product":
+                Product product = StandInCatalog.find(parseInt(query.get("product_id"), -1));
+                if (product == null) {
+                    send(exchange, 404, "text/html; charset=UTF-8", StandInPages.notFound(session, "Product not found!"));
+                } else {
+                    html(exchange, StandInPages.product(session, product));
+                }
+                break;
+            case "checkout/cart":
+                html(exchange, StandInPages.cart(session, session.takeFlash()));
+                break;
+            case "checkout/cart/add":
+                cartAdd(exchange, session, form);
+                break;
+            case "checkout/cart/remove":
+                session.remove(parseInt(form.get("key"), -1));
+                json(exchange, "{\"success\":\"Success: You have modified your shopping cart!\",\"total\":\""
+                        + jsonEscape(StandInPages.cartSummary(session)) + "\"}");
+                break;
+            case "checkout/cart/edit":
+                cartEdit(session, form);
+                redirect(exchange, "index.php?route=checkout/cart");
+                break;
+            case "account/register":
+                register(exchange, session, form);
+                break;
+            case "account/success":
+                html(exchange, StandInPages.registerSuccess(session));
+                break;
+            case "account/login":
+                login(exchange, session, form);
+                break;
+            case "account/account":
+                if (session.isLoggedIn()) {
+                    html(exchange, StandInPages.account(session));
+                } else {
+                    redirect(exchange, "index.php?route=account/login");
+                }
+                break;
+            case "account/logout":
+                session.customerEmail = null;
+                redirect(exchange, "index.php?route=" + HOME_ROUTE);
+                break;
+            default:
+                send(exchange, 404, "text/html; charset=UTF-8", StandInPages.notFound(session, "Page not found!"));
+        }
+    }
+
+    private void cartAdd(HttpExchange exchange, Session session, Map<String, String> form) throws IOException {
+        Product product = StandInCatalog.find(parseInt(form.get("product_id"), -1));
+        if (product == null) {
+            json(exchange, "{\"redirect\":\"index.php?route=product/product&product_id=" + parseInt(form.get("product_id"), 0) + "\"}");
+            return;
+        }
+        session.add(product, Math.max(1, parseInt(form.get("quantity"), 1)));
+        String link = "index.php?route=product/product&amp;product_id=" + product.id;
+        String success = "Success: You have added <a href=\"" + link + "\">" + StandInPages.escape(product.name)
+                + "</a> to your <a href=\"index.php?route=checkout/cart\">shopping cart</a>!";
+        json(exchange, "{\"success\":\"" + jsonEscape(success) + "\",\"total\":\""
+                + jsonEscape(StandInPages.cartSummary(session)) + "\"}");
+    }
+
+    private void cartEdit(Session session, Map<String, String> form) {
+        for (Map.Entry<String, String> field : form.entrySet()) {
+            String name = field.getKey();
+            if (name.startsWith("quantity[") && name.endsWith("]")) {
+                int cartId = parseInt(name.substring("quantity[".length(), name.length() - 1), -1);
+                session.update(cartId, parseInt(field.getValue(), 0));
+            }
+        }
+        session.flash = "Success: You have modified your shopping cart!";
+    }
+
+    private void register(HttpExchange exchange, Session session, Map<String, String> form) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            html(exchange, StandInPages.register(session, form, new HashMap<String, String>(), null));
+            return;
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        String firstName = form.getOrDefault("firstname", "").trim();
+        String lastName = form.getOrDefault("lastname", "").trim();
+        String email = form.getOrDefault("email", "").trim();
+        String telephone = form.getOrDefault("telephone", "").trim();
+        String password = form.getOrDefault("password", "");
+        if (firstName.isEmpty() || firstName.length() > 32) {
+            errors.put("firstname", "First Name must be between 1 and 32 characters!");
+        }
+        if (lastName.isEmpty() || lastName.length() > 32) {
+            errors.put("lastname", "Last Name must be between 1 and 32 characters!");
+        }
+        if (!email.matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+") || email.length() > 96) {
+            errors.put("email", "E-Mail Address does not appear to be valid!");
+        }
+        if (telephone.length() < 3 || telephone.length() > 32) {
+            errors.put("telephone", "Telephone must be between 3 and 32 characters!");
+        }
+        if (password.length() < 4 || password.length() > 20) {
+            errors.put("password", "Password must be between 4 and 20 characters!");
+        }
+        if (!password.equals(form.getOrDefault("confirm", ""))) {
+            errors.put("confirm", "Password confirmation does not match password!");
+        }
+
+        String warning = null;
+        if (!form.containsKey("agree")) {
+            warning = "Warning: You must agree to the Privacy Policy!";
+        } else if (errors.isEmpty() && accounts.containsKey(email.toLowerCase())) {
+            warning = "Warning: E-Mail Address is already registered!";
+        }
+        if (warning != null || !errors.isEmpty()) {
+            html(exchange, StandInPages.register(session, form, errors, warning));
+            return;
+        }
+        accounts.put(email.toLowerCase(), password);
+        session.customerEmail = email;
+        redirect(exchange, "index.php?route=account/success");
+    }
+
+    private void login(HttpExchange exchange, Session session, Map<String, String> form) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            html(exchange, StandInPages.login(session, null, null));
+            return;
+        }
+        String email = form.getOrDefault("email", "").trim();
+        String password = accounts.get(email.toLowerCase());
+        if (password == null || !password.equals(form.getOrDefault("password", ""))) {
+            html(exchange, StandInPages.login(session, email, "Warning: No match for E-Mail Address and/or Password."));
+            return;
+        }
+        session.customerEmail = email;
+        redirect(exchange, "index.php?route=account/account");
+    }
+
+    /**
+     * Sesión de la cookie OCSESSID; si no viene (o es desconocida) se crea una nueva
+     */
+    private Session session(HttpExchange exchange) {
+        List<String> cookies = exchange.getRequestHeaders().get("Cookie");
+        if (cookies != null) {
+            for (String header : cookies) {
+                for (String cookie : header.split(";")) {
+                    String[] pair = cookie.trim().split("=", 2);
+                    if (pair.length == 2 && SESSION_COOKIE.equals(pair[0])) {
+                        Session existing = sessions.get(pair[1]);
+                        if (existing != null) {
+                            return existing;
+                        }
+                    }
+                }
+            }
+        }
+        Session created = new Session(UUID.randomUUID().toString().replace("-", ""));
+        sessions.put(created.id, created);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + created.id + "; Path=/; HttpOnly");
+        return created;
+    }
+
+    private static void sendImage(HttpExchange exchange) throws IOException {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"200\" height=\"200\" viewBox=\"0 0 200 200\">"
+                + "<rect width=\"200\" height=\"200\" fill=\"#e5e5e5\"/></svg>";
+        exchange.getResponseHeaders().add("Cache-Control", "max-age=86400");
+        send(exchange, 200, "image/svg+xml", svg);
+    }
+
+    private static void html(HttpExchange exchange, String body) throws IOException {
+        send(exchange, 200, "text/html; charset=UTF-8", body);
+    }
+
+    private static void json(HttpExchange exchange, String body) throws IOException {
+        send(exchange, 200, "application/json; charset=UTF-8", body);
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", "/" + location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+        }
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            String[] parts = pair.split("=", 2);
+            values.put(decode(parts[0]), parts.length > 1 ? decode(parts[1]) : "");
+        }
+        return values;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static String jsonEscape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Estado de una sesión de navegador: carrito, cliente conectado y mensaje pendiente
+     */
+    static final class Session {
+        final String id;
+        private final Map<Integer, CartLine> cart = new LinkedHashMap<>();
+        private int nextCartId = 1;
+        volatile String customerEmail;
+        volatile String flash;
+
+        Session(String id) {
+            this.id = id;
+        }
+
+        boolean isLoggedIn() {
+            return customerEmail != null;
+        }
+
+        synchronized void add(Product product, int quantity) {
+            for (CartLine line : cart.values()) {
+                if (line.product.id == product.id) {
+                    line.quantity += quantity;
+                    return;
+                }
+            }
+            int cartId = nextCartId++;
+            cart.put(cartId, new CartLine(cartId, product, quantity));
+        }
+
+        synchronized void update(int cartId, int quantity) {
+            CartLine line = cart.get(cartId);
+            if (line == null) {
+                return;
+            }
+            if (quantity <= 0) {
+                cart.remove(cartId);
+            } else {
+                line.quantity = quantity;
+            }
+        }
+
+        synchronized void remove(int cartId) {
+            cart.remove(cartId);
+        }
+
+        synchronized List<CartLine> cartLines() {
+            List<CartLine> lines = new ArrayList<>();
+            for (CartLine line : cart.values()) {
+                lines.add(new CartLine(line.cartId, line.product, line.quantity));
+            }
+            return lines;
+        }
+
+        synchronized int cartCount() {
+            int count = 0;
+            for (CartLine line : cart.values()) {
+                count += line.quantity;
+            }
+            return count;
+        }
+
+        synchronized BigDecimal cartTotal() {
+            BigDecimal total = BigDecimal.ZERO;
+            for (CartLine line : cart.values()) {
+                total = total.add(line.total());
+            }
+            return total;
+        }
+
+        String takeFlash() {
+            String message = flash;
+            flash = null;
+            return message;
+        }
+    }
+
+    static final class CartLine {
+        final int cartId;
+        final Product product;
+        int quantity;
+
+        CartLine(int cartId, Product product, int quantity) {
+            this.cartId = cartId;
+            this.product = product;
+            this.quantity = quantity;
+        }
+
+        BigDecimal total() {
+            return product.price.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package cl.walmart.qa.server;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Catálogo fijo del sitio local: los productos de demostración de OpenCart
+ * con sus ids y precios originales, para que búsquedas y carrito se comporten igual
+ */
+final class StandInCatalog {
+
+    private static final List<Product> PRODUCTS = Collections.unmodifiableList(Arrays.asList(
+            new Product(40, "iPhone", "product 11", "123.20", "iPhone is a revolutionary new mobile phone that allows you to make a call by simply tapping a name or number in your address book."),
+            new Product(43, "MacBook", "Product 16", "602.00", "Intel Core 2 Duo processor. Powered by an Intel Core 2 Duo processor at speeds up to 2.16GHz."),
+            new Product(44, "MacBook Air", "Product 17", "1202.00", "MacBook Air is ultrathin, ultraportable, and ultra unlike anything else."),
+            new Product(45, "MacBook Pro", "Product 18", "2000.00", "Latest Intel mobile architecture. Powered by the most advanced mobile processors from Intel."),
+            new Product(41, "iMac", "Product 14", "122.00", "Just when you thought iMac had everything, now there's even more."),
+            new Product(48, "iPod Classic", "product 20", "122.00", "More room to move. With 80GB or 160GB of storage and up to 40 hours of battery life."),
+            new Product(36, "iPod Nano", "Product 9", "122.00", "Video in your pocket. Its the small iPod with one very big idea: video."),
+            new Product(34, "iPod Shuffle", "Product 7", "122.00", "Born to be worn. Clip on the worlds most wearable music player and take up to 240 songs with you."),
+            new Product(32, "iPod Touch", "Product 5", "122.00", "Revolutionary multi-touch interface. iPod touch features the same multi-touch screen technology as iPhone."),
+            new Product(28, "HTC Touch HD", "Product 1", "122.00", "HTC Touch - in High Definition. Watch music videos and streaming content in awe-inspiring high definition clarity."),
+            new Product(29, "Palm Treo Pro", "Product 2", "337.99", "Redefine your workday with the Palm Treo Pro smartphone."),
+            new Product(49, "Samsung Galaxy Tab 10.1", "SAM1", "241.99", "Samsung Galaxy Tab 10.1, is the world's thinnest tablet, measuring 8.6 mm thickness."),
+            new Product(33, "Samsung SyncMaster 941BW", "Product 6", "242.00", "Imagine the advantages of going big without slowing down."),
+            new Product(42, "Apple Cinema 30\"", "Product 15", "122.00", "The 30-inch Apple Cinema HD Display delivers an amazing 2560 x 1600 pixel resolution."),
+            new Product(30, "Canon EOS 5D", "Product 3", "98.00", "Canon's press material for the EOS 5D states that it 'defines (a) new D-SLR category'."),
+            new Product(31, "Nikon D300", "Product 4", "98.00", "Engineered with pro-level features and performance, the 12.3-effective-megapixel D300 combines brand new technologies."),
+            new Product(46, "Sony VAIO", "Product 19", "1202.00", "Unprecedented power. The next generation of processing technology has arrived."),
+            new Product(47, "HP LP3065", "Product 21", "122.00", "Stop your co-workers in their tracks with the stunning new 30-inch diagonal HP LP3065 Flat Panel Monitor.")));
+
+    /** Productos destacados de la portada */
+    private static final int[] FEATURED = {43, 40, 42, 30};
+
+    private StandInCatalog() {
+    }
+
+    static Product find(int productId) {
+        for (Product product : PRODUCTS) {
+            if (product.id == productId) {
+                return product;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Búsqueda por nombre como la de OpenCart: todas las palabras deben aparecer en el nombre
+     */
+    static List<Product> search(String term) {
+        List<Product> results = new ArrayList<>();
+        if (term == null || term.trim().isEmpty()) {
+            return results;
+        }
+        String[] words = term.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        for (Product product : PRODUCTS) {
+            String name = product.name.toLowerCase(Locale.ROOT);
+            boolean matches = true;
+            for (String word : words) {
+                matches &= name.contains(word);
+            }
+            if (matches) {
+                results.add(product);
+            }
+        }
+        return results;
+    }
+
+    static List<Product> featured() {
+        List<Product> featured = new ArrayList<>();
+        for (int id : FEATURED) {
+            featured.add(find(id));
+        }
+        return featured;
+    }
+
+    static final class Product {
+        final int id;
+        final String name;
+        final String model;
+        final BigDecimal price;
+        final String description;
+
+        Product(int id, String name, String model, String price, String description) {
+            this.id = id;
+            this.name = name;
+            this.model = model;
+            this.price = new BigDecimal(price);
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package cl.walmart.qa.server;
+
+import cl.walmart.qa.server.OpenCartStandIn.CartLine;
+import cl.walmart.qa.server.OpenCartStandIn.Session;
+import cl.walmart.qa.server.StandInCatalog.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Plantillas HTML del sitio local
+ * Reproducen el marcado de OpenCart 3 (ids, clases y textos) del que dependen los page
+ * objects, más un JavaScript mínimo sin jQuery para cart.add / cart.remove por AJAX.
+ */
+final class StandInPages {
+
+    private static final String STYLE = "body{font-family:sans-serif;margin:0}.container{padding:0 15px}"
+            + "#top-links ul{list-style:none;margin:0;padding:0}#top-links li{display:inline-block;margin-right:12px;position:relative}"
+            + ".dropdown-menu{display:none;position:absolute;z-index:10;background:#fff;border:1px solid #ccc;list-style:none;padding:5px;min-width:140px}"
+            + ".dropdown.open>.dropdown-menu{display:block}.dropdown-menu li{display:block!important}"
+            + ".alert{padding:10px;margin:10px 0;border:1px solid transparent}.alert-success{background:#dff0d8}.alert-danger{background:#f2dede}"
+            + ".text-danger{color:#a94442}.product-layout{display:inline-block;width:23%;margin:1%;vertical-align:top}"
+            + "table{border-collapse:collapse}td{border:1px solid #ddd;padding:6px}.form-group{margin:8px 0}";
+
+    private static final String SCRIPT = "function ocPost(url, data, done) {"
+            + " var xhr = new XMLHttpRequest(); xhr.open('POST', url, true);"
+            + " xhr.setRequestHeader('Content-Type', 'application/x-www-form-urlencoded');"
+            + " xhr.onload = function () { done(JSON.parse(xhr.responseText)); }; xhr.send(data); }\n"
+            + "function ocAlert(kind, html) {"
+            + " var old = document.querySelectorAll('.alert-dismissible');"
+            + " for (var i = 0; i < old.length; i++) { old[i].parentNode.removeChild(old[i]); }"
+            + " var div = document.createElement('div'); div.className = 'alert alert-' + kind + ' alert-dismissible';"
+            + " div.innerHTML = '<i class=\"fa fa-check-circle\"></i> ' + html + ' <button type=\"button\" class=\"close\" data-dismiss=\"alert\">&times;</button>';"
+            + " var row = document.getElementById('content').parentNode; row.parentNode.insertBefore(div, row); }\n"
+            + "var cart = {\n"
+            + " add: function (productId, quantity) {"
+            + " ocPost('index.php?route=checkout/cart/add', 'product_id=' + encodeURIComponent(productId) + '&quantity=' + encodeURIComponent(quantity || 1), function (json) {"
+            + " if (json.redirect) { location = json.redirect; return; }"
+            + " if (json.success) { ocAlert('success', json.success); document.getElementById('cart-total').innerHTML = json.total; } }); },\n"
+            + " remove: function (key) {"
+            + " ocPost('index.php?route=checkout/cart/remove', 'key=' + encodeURIComponent(key), function (json) {"
+            + " if (location.href.indexOf('checkout/cart') !== -1) { location = 'index.php?route=checkout/cart'; }"
+            + " else { document.getElementById('cart-total').innerHTML = json.total; } }); }\n"
+            + "};\n";
+
+    private StandInPages() {
+    }
+
+    static String home(Session session) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-12\">\n<h3>Featured</h3>\n<div class=\"row\">\n");
+        for (Product product : StandInCatalog.featured()) {
+            productLayout(body, product);
+        }
+        body.append("</div>\n</div></div>\n");
+        return layout(session, "Your Store", "common-home", body);
+    }
+
+    static String search(Session session, String term, List<Product> results) {
+        StringBuilder body = new StringBuilder();
+        String safeTerm = escape(term == null ? "" : term);
+        breadcrumb(body, "index.php?route=product/search&amp;search=" + safeTerm, "Search");
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-12\">\n")
+                .append("<h1>").append(safeTerm.isEmpty() ? "Search" : "Search - " + safeTerm).append("</h1>\n")
+                .append("<label class=\"control-label\" for=\"input-search\">Search Criteria</label>\n")
+                .append("<input type=\"text\" name=\"search\" value=\"").append(safeTerm).append("\" id=\"input-search\" class=\"form-control\"/>\n")
+                .append("<h2>Products meeting the search criteria</h2>\n");
+        if (results.isEmpty()) {
+            body.append("<p>There is no product that matches the search criteria.</p>\n");
+        } else {
+            body.append("<div class=\"row\">\n");
+            for (Product product : results) {
+                productLayout(body, product);
+            }
+            body.append("</div>\n<div class=\"row\"><div class=\"col-sm-6 text-right\">Showing 1 to ").append(results.size())
+                    .append(" of ").append(results.size()).append(" (1 Pages)</div></div>\n");
+        }
+        body.append("</div></div>\n");
+        return layout(session, safeTerm.isEmpty() ? "Search" : "Search - " + safeTerm, "product-search", body);
+    }
+
+    static String product(Session session, Product product) {
+        StringBuilder body = new StringBuilder();
+        breadcrumb(body, "index.php?route=product/product&amp;product_id=" + product.id, escape(product.name));
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-12\"><div class=\"row\">\n")
+                .append("<div class=\"col-sm-8\">\n<ul class=\"thumbnails\"><li><a class=\"thumbnail\" href=\"").append(image(product))
+                .append("\" title=\"").append(escape(product.name)).append("\"><img src=\"").append(image(product))
+                .append("\" width=\"228\" height=\"228\" title=\"").append(escape(product.name)).append("\" alt=\"").append(escape(product.name)).append("\"/></a></li></ul>\n")
+                .append("<ul class=\"nav nav-tabs\"><li class=\"active\"><a href=\"#tab-description\">Description</a></li></ul>\n")
+                .append("<div class=\"tab-content\"><div class=\"tab-pane active\" id=\"tab-description\"><p>").append(escape(product.description)).append("</p></div></div>\n")
+                .append("</div>\n<div class=\"col-sm-4\">\n<h1>").append(escape(product.name)).append("</h1>\n")
+                .append("<ul class=\"list-unstyled\"><li>Product Code: ").append(escape(product.model)).append("</li><li>Availability: In Stock</li></ul>\n")
+                .append("<ul class=\"list-unstyled\"><li><h2>").append(money(product.price)).append("</h2></li></ul>\n")
+                .append("<div id=\"product\"><div class=\"form-group\">\n")
+                .append("<label class=\"control-label\" for=\"input-quantity\">Qty</label>\n")
+                .append("<input type=\"text\" name=\"quantity\" value=\"1\" size=\"2\" id=\"input-quantity\" class=\"form-control\"/>\n")
+                .append("<input type=\"hidden\" name=\"product_id\" value=\"").append(product.id).append("\"/>\n")
+                .append("<button type=\"button\" id=\"button-cart\" class=\"btn btn-primary btn-lg btn-block\" onclick=\"cart.add('")
+                .append(product.id).append("', document.getElementById('input-quantity').value);\">Add to Cart</button>\n")
+                .append("</div></div>\n</div>\n</div></div></div>\n");
+        return layout(session, escape(product.name), "product-product", body);
+    }
+
+    static String cart(Session session, String flash) {
+        StringBuilder body = new StringBuilder();
+        breadcrumb(body, "index.php?route=checkout/cart", "Shopping Cart");
+        if (flash != null) {
+            body.append("<div class=\"alert alert-success alert-dismissible\"><i class=\"fa fa-check-circle\"></i> ")
+                    .append(flash).append(" <button type=\"button\" class=\"close\" data-dismiss=\"alert\">&times;</button></div>\n");
+        }
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-12\">\n");
+        List<CartLine> lines = session.cartLines();
+        if (lines.isEmpty()) {
+            body.append("<h1>Shopping Cart</h1>\n<p>Your shopping cart is empty!</p>\n")
+                    .append("<div class=\"buttons clearfix\"><div class=\"pull-right\"><a href=\"index.php?route=common/home\" class=\"btn btn-primary\">Continue</a></div></div>\n")
+                    .append("</div></div>\n");
+            return layout(session, "Shopping Cart", "checkout-cart", body);
+        }
+        body.append("<h1>Shopping Cart</h1>\n")
+                .append("<form action=\"index.php?route=checkout/cart/edit\" method=\"post\" enctype=\"application/x-www-form-urlencoded\" id=\"form-checkout\">\n")
+                .append("<div class=\"table-responsive\"><table class=\"table table-bordered\">\n")
+                .append("<thead><tr><td class=\"text-center\">Image</td><td class=\"text-left\">Product Name</td><td class=\"text-left\">Model</td>")
+                .append("<td class=\"text-left\">Quantity</td><td class=\"text-right\">Unit Price</td><td class=\"text-right\">Total</td></tr></thead>\n<tbody>\n");
+        for (CartLine line : lines) {
+            Product product = line.product;
+            String link = "index.php?route=product/product&amp;product_id=" + product.id;
+            body.append("<tr>\n<td class=\"text-center\"><a href=\"").append(link).append("\"><img src=\"").append(image(product))
+                    .append("\" width=\"47\" height=\"47\" alt=\"").append(escape(product.name)).append("\" class=\"img-thumbnail\"/></a></td>\n")
+                    .append("<td class=\"text-left\"><a href=\"").append(link).append("\">").append(escape(product.name)).append("</a></td>\n")
+                    .append("<td class=\"text-left\">").append(escape(product.model)).append("</td>\n")
+                    .append("<td class=\"text-left\"><div class=\"input-group btn-block\">")
+                    .append("<input type=\"text\" name=\"quantity[").append(line.cartId).append("]\" value=\"").append(line.quantity)
+                    .append("\" size=\"1\" class=\"form-control\"/><span class=\"input-group-btn\">")
+                    .append("<button type=\"submit\" title=\"Update\" data-original-title=\"Update\" class=\"btn btn-primary\"><i class=\"fa fa-refresh\"></i></button>")
+                    .append("<button type=\"button\" title=\"Remove\" data-original-title=\"Remove\" class=\"btn btn-danger\" onclick=\"cart.remove('")
+                    .append(line.cartId).append("');\"><i class=\"fa fa-times-circle\"></i></button></span></div></td>\n")
+                    .append("<td class=\"text-right\">").append(money(product.price)).append("</td>\n")
+                    .append("<td class=\"text-right\">").append(money(line.total())).append("</td>\n</tr>\n");
+        }
+        String total = money(session.cartTotal());
+        body.append("</tbody>\n</table></div>\n</form>\n")
+                .append("<div class=\"row\"><div class=\"col-sm-4 col-sm-offset-8\"><table class=\"table table-bordered\">\n")
+                .append("<tr><td class=\"text-right\"><strong>Sub-Total:</strong></td><td class=\"text-right\">").append(total).append("</td></tr>\n")
+                .append("<tr><td class=\"text-right\"><strong>Total:</strong></td><td class=\"text-right\">").append(total).append("</td></tr>\n")
+                .append("</table></div></div>\n")
+                .append("<div class=\"buttons clearfix\"><div class=\"pull-left\"><a href=\"index.php?route=common/home\" class=\"btn btn-default\">Continue Shopping</a></div>")
+                .append("<div class=\"pull-right\"><a href=\"index.php?route=checkout/checkout\" class=\"btn btn-primary\">Checkout</a></div></div>\n")
+                .append("</div></div>\n");
+        return layout(session, "Shopping Cart", "checkout-cart", body);
+    }
+
+    static String register(Session session, Map<String, String> form, Map<String, String> errors, String warning) {
+        StringBuilder body = new StringBuilder();
+        breadcrumb(body, "index.php?route=account/register", "Register");
+        if (warning != null) {
+            body.append("<div class=\"alert alert-danger alert-dismissible\"><i class=\"fa fa-exclamation-circle\"></i> ").append(warning).append("</div>\n");
+        }
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-9\">\n<h1>Register Account</h1>\n")
+                .append("<p>If you already have an account with us, please login at the <a href=\"index.php?route=account/login\">login page</a>.</p>\n")
+                .append("<form action=\"index.php?route=account/register\" method=\"post\" enctype=\"application/x-www-form-urlencoded\" class=\"form-horizontal\">\n")
+                .append("<fieldset id=\"account\"><legend>Your Personal Details</legend>\n");
+        field(body, "firstname", "First Name", "text", form, errors);
+        field(body, "lastname", "Last Name", "text", form, errors);
+        field(body, "email", "E-Mail", "email", form, errors);
+        field(body, "telephone", "Telephone", "tel", form, errors);
+        body.append("</fieldset>\n<fieldset><legend>Your Password</legend>\n");
+        field(body, "password", "Password", "password", form, errors);
+        field(body, "confirm", "Password Confirm", "password", form, errors);
+        body.append("</fieldset>\n<fieldset><legend>Newsletter</legend><div class=\"form-group\"><label class=\"col-sm-2 control-label\">Subscribe</label>")
+                .append("<label class=\"radio-inline\"><input type=\"radio\" name=\"newsletter\" value=\"1\"/> Yes</label>")
+                .append("<label class=\"radio-inline\"><input type=\"radio\" name=\"newsletter\" value=\"0\" checked=\"checked\"/> No</label></div></fieldset>\n")
+                .append("<div class=\"buttons\"><div class=\"pull-right\">I have read and agree to the <a href=\"#\" class=\"agree\"><b>Privacy Policy</b></a> ")
+                .append("<input type=\"checkbox\" name=\"agree\" value=\"1\"").append(form.containsKey("agree") ? " checked=\"checked\"" : "").append("/> &nbsp;")
+                .append("<input type=\"submit\" value=\"Continue\" class=\"btn btn-primary\"/></div></div>\n")
+                .append("</form>\n</div></div>\n");
+        return layout(session, "Register Account", "account-register", body);
+    }
+
+    static String registerSuccess(Session session) {
+        StringBuilder body = new StringBuilder();
+        breadcrumb(body, "index.php?route=account/success", "Success");
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-9\">\n<h1>Your Account Has Been Created!</h1>\n")
+                .append("<p>Congratulations! Your new account has been successfully created!</p>\n")
+                .append("<p>You can now take advantage of member privileges to enhance your online shopping experience with us.</p>\n")
+                .append("<div class=\"buttons\"><div class=\"pull-right\"><a href=\"index.php?route=account/account\" class=\"btn btn-primary\">Continue</a></div></div>\n")
+                .append("</div></div>\n");
+        return layout(session, "Your Account Has Been Created!", "common-success", body);
+    }
+
+    static String login(Session session, String email, String warning) {
+        StringBuilder body = new StringBuilder();
+        breadcrumb(body, "index.php?route=account/login", "Login");
+        if (warning != null) {
+            body.append("<div class=\"alert alert-danger alert-dismissible\"><i class=\"fa fa-exclamation-circle\"></i> ").append(warning).append("</div>\n");
+        }
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-12\"><div class=\"row\">\n")
+                .append("<div class=\"col-sm-6\"><div class=\"well\"><h2>New Customer</h2><p><strong>Register Account</strong></p>")
+                .append("<a href=\"index.php?route=account/register\" class=\"btn btn-primary\">Continue</a></div></div>\n")
+                .append("<div class=\"col-sm-6\"><div class=\"well\"><h2>Returning Customer</h2>\n")
+                .append("<form action=\"index.php?route=account/login\" method=\"post\" enctype=\"application/x-www-form-urlencoded\">\n")
+                .append("<div class=\"form-group\"><label class=\"control-label\" for=\"input-email\">E-Mail Address</label>")
+                .append("<input type=\"text\" name=\"email\" value=\"").append(escape(email == null ? "" : email))
+                .append("\" placeholder=\"E-Mail Address\" id=\"input-email\" class=\"form-control\"/></div>\n")
+                .append("<div class=\"form-group\"><label class=\"control-label\" for=\"input-password\">Password</label>")
+                .append("<input type=\"password\" name=\"password\" value=\"\" placeholder=\"Password\" id=\"input-password\" class=\"form-control\"/></div>\n")
+                .append("<input type=\"submit\" value=\"Login\" class=\"btn btn-primary\"/>\n</form>\n</div></div>\n")
+                .append("</div></div></div>\n");
+        return layout(session, "Account Login", "account-login", body);
+    }
+
+    static String account(Session session) {
+        StringBuilder body = new StringBuilder();
+        breadcrumb(body, "index.php?route=account/account", "Account");
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-9\">\n<h2>My Account</h2>\n<ul class=\"list-unstyled\">")
+                .append("<li><a href=\"index.php?route=account/edit\">Edit your account information</a></li>")
+                .append("<li><a href=\"index.php?route=account/password\">Change your password</a></li></ul>\n")
+                .append("<h2>My Orders</h2>\n<ul class=\"list-unstyled\"><li><a href=\"index.php?route=account/order\">View your order history</a></li></ul>\n")
+                .append("</div></div>\n");
+        return layout(session, "My Account", "account-account", body);
+    }
+
+    static String notFound(Session session, String title) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"row\"><div id=\"content\" class=\"col-sm-12\">\n<h1>").append(escape(title)).append("</h1>\n")
+                .append("<p>The page you requested cannot be found!</p>\n</div></div>\n");
+        return layout(session, escape(title), "error-not-found", body);
+    }
+
+    private static String layout(Session session, String title, String containerId, StringBuilder content) {
+        StringBuilder html = new StringBuilder(4096 + content.length());
+        html.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"UTF-8\"/>\n<title>").append(title).append("</title>\n")
+                .append("<style>").append(STYLE).append("</style>\n</head>\n<body>\n")
+                .append("<nav id=\"top\"><div class=\"container\"><div id=\"top-links\" class=\"nav pull-right\"><ul class=\"list-inline\">\n")
+                .append("<li class=\"dropdown\"><a href=\"index.php?route=account/account\" title=\"My Account\" class=\"dropdown-toggle\" data-toggle=\"dropdown\"")
+                .append(" onclick=\"this.parentNode.classList.toggle('open'); return false;\"><i class=\"fa fa-user\"></i> <span>My Account</span></a>\n")
+                .append("<ul class=\"dropdown-menu dropdown-menu-right\">");
+        if (session.isLoggedIn()) {
+            html.append("<li><a href=\"index.php?route=account/account\">My Account</a></li>")
+                    .append("<li><a href=\"index.php?route=account/order\">Order History</a></li>")
+                    .append("<li><a href=\"index.php?route=account/logout\">Logout</a></li>");
+        } else {
+            html.append("<li><a href=\"index.php?route=account/register\">Register</a></li>")
+                    .append("<li><a href=\"index.php?route=account/login\">Login</a></li>");
+        }
+        html.append("</ul></li>\n")
+                .append("<li><a href=\"index.php?route=account/wishlist\" title=\"Wish List (0)\"><i class=\"fa fa-heart\"></i> <span>Wish List (0)</span></a></li>\n")
+                .append("<li><a href=\"index.php?route=checkout/cart\" title=\"Shopping Cart\"><i class=\"fa fa-shopping-cart\"></i> <span>Shopping Cart</span></a></li>\n")
+                .append("<li><a href=\"index.php?route=checkout/checkout\" title=\"Checkout\"><i class=\"fa fa-share\"></i> <span>Checkout</span></a></li>\n")
+                .append("</ul></div></div></nav>\n")
+                .append("<header><div class=\"container\"><div class=\"row\">\n")
+                .append("<div class=\"col-sm-4\"><div id=\"logo\"><a href=\"index.php?route=common/home\"><img src=\"image/catalog/logo.svg\" width=\"180\" height=\"40\" title=\"Your Store\" alt=\"Your Store\" class=\"img-responsive\"/></a></div></div>\n")
+                .append("<div class=\"col-sm-5\"><form id=\"search\" class=\"input-group\" action=\"index.php\" method=\"get\">")
+                .append("<input type=\"hidden\" name=\"route\" value=\"product/search\"/>")
+                .append("<input type=\"text\" name=\"search\" value=\"\" placeholder=\"Search\" class=\"form-control input-lg\"/>")
+                .append("<span class=\"input-group-btn\"><button type=\"submit\" class=\"btn btn-default btn-lg\"><i class=\"fa fa-search\"></i> Search</button></span></form></div>\n")
+                .append("<div class=\"col-sm-3\"><div id=\"cart\" class=\"btn-group btn-block\"><button type=\"button\" class=\"btn btn-inverse btn-block btn-lg\">")
+                .append("<span id=\"cart-total\">").append(cartSummary(session)).append("</span></button></div></div>\n")
+                .append("</div></div></header>\n")
+                .append("<div id=\"").append(containerId).append("\" class=\"container\">\n").append(content).append("</div>\n")
+                .append("<footer><div class=\"container\"><p>Powered By OpenCart (sitio local de pruebas)</p></div></footer>\n")
+                .append("<script>\n").append(SCRIPT).append("</script>\n")
+                .append("</body>\n</html>\n");
+        return html.toString();
+    }
+
+    private static void productLayout(StringBuilder body, Product product) {
+        String link = "index.php?route=product/product&amp;product_id=" + product.id;
+        body.append("<div class=\"product-layout product-grid col-lg-3 col-md-3 col-sm-6 col-xs-12\"><div class=\"product-thumb\">\n")
+                .append("<div class=\"image\"><a href=\"").append(link).append("\"><img src=\"").append(image(product))
+                .append("\" width=\"200\" height=\"200\" alt=\"").append(escape(product.name)).append("\" title=\"").append(escape(product.name))
+                .append("\" class=\"img-responsive\"/></a></div>\n")
+                .append("<div><div class=\"caption\"><h4><a href=\"").append(link).append("\">").append(escape(product.name)).append("</a></h4>\n")
+                .append("<p>").append(escape(product.description)).append("</p>\n")
+                .append("<p class=\"price\">").append(money(product.price)).append("</p></div>\n")
+                .append("<div class=\"button-group\"><button type=\"button\" onclick=\"cart.add('").append(product.id)
+                .append("', '1');\"><i class=\"fa fa-shopping-cart\"></i> <span class=\"hidden-xs hidden-sm hidden-md\">Add to Cart</span></button></div>\n")
+                .append("</div></div></div>\n");
+    }
+
+    private static void field(StringBuilder body, String name, String label, String type,
+                              Map<String, String> form, Map<String, String> errors) {
+        String value = "password".equals(type) ? "" : escape(form.getOrDefault(name, ""));
+        body.append("<div class=\"form-group required\"><label class=\"col-sm-2 control-label\" for=\"input-").append(name).append("\">")
+                .append(label).append("</label><div class=\"col-sm-10\">")
+                .append("<input type=\"").append(type).append("\" name=\"").append(name).append("\" value=\"").append(value)
+                .append("\" placeholder=\"").append(label).append("\" id=\"input-").append(name).append("\" class=\"form-control\"/>");
+        if (errors.containsKey(name)) {
+            body.append("<div class=\"text-danger\">").append(errors.get(name)).append("</div>");
+        }
+        body.append("</div></div>\n");
+    }
+
+    private static void breadcrumb(StringBuilder body, String href, String label) {
+        body.append("<ul class=\"breadcrumb\"><li><a href=\"index.php?route=common/home\"><i class=\"fa fa-home\"></i></a></li>")
+                .append("<li><a href=\"").append(href).append("\">").append(label).append("</a></li></ul>\n");
+    }
+
+    static String cartSummary(Session session) {
+        return session.cartCount() + " item(s) - " + money(session.cartTotal());
+    }
+
+    static String money(BigDecimal amount) {
+        return String.format(Locale.US, "$%,.2f", amount);
+    }
+
+    private static String image(Product product) {
+        return "image/catalog/product-" + product.id + ".svg";
+    }
+
+    static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                case '\'':
+                    sb.append("&#39;");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
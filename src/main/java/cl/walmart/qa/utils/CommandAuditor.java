@@ -0,0 +1,361 @@
+package cl.walmart.qa.utils;
+
+import cl.walmart.qa.driver.DriverCommandListeners;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.Command;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Auditor de round-trips WebDriver por método de page object y por paso
+ * Atribuye cada comando remoto al método de page object más externo de la pila
+ * (p. ej. RegisterPage.fillRegistrationForm) y detecta:
+ * - métodos que superan el presupuesto de comandos por invocación (audit.command.budget)
+ * - patrones N+1: findElements seguido de N comandos del mismo tipo sobre elementos
+ * - regresiones contra un baseline por método (audit.baseline.file)
+ * Llamadas consecutivas al mismo método desde el mismo paso se cuentan como una invocación.
+ */
+public class CommandAuditor {
+
+    private static final Logger logger = LogManager.getLogger(CommandAuditor.class);
+    private static volatile CommandAuditor instance;
+
+    private final int defaultBudget;
+    private final int nPlusOneThreshold;
+    private final Path baselineFile;
+    private final Map<String, Integer> baseline = new HashMap<>();
+    private final ConfigReader config = ConfigReader.getInstance();
+
+    private final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+    private final Map<String, StepStats> steps = new ConcurrentHashMap<>();
+    private final ThreadLocal<Context> context = ThreadLocal.withInitial(Context::new);
+
+    /**
+     * Invocación que superó su límite: el baseline del método (regresión) o, sin baseline, el presupuesto
+     */
+    public static final class Violation {
+        private final String method;
+        private final int commands;
+        private final int limit;
+        private final boolean regression;
+        private final String step;
+
+        Violation(String method, int commands, int limit, boolean regression, String step) {
+            this.method = method;
+            this.commands = commands;
+            this.limit = limit;
+            this.regression = regression;
+            this.step = step;
+        }
+
+        /**
+         * true si el método tiene baseline y lo superó
+         */
+        public boolean isRegression() {
+            return regression;
+        }
+
+        @Override
+        public String toString() {
+            return method + ": " + commands + " comandos (" + (regression ? "baseline" : "presupuesto") + " " + limit
+                    + ") en el paso '" + step + "'";
+        }
+    }
+
+    private CommandAuditor() {
+        this.defaultBudget = config.getPropertyAsInt("audit.command.budget", 15);
+        this.nPlusOneThreshold = config.getPropertyAsInt("audit.nplus1.threshold", 3);
+        String baselinePath = config.getProperty("audit.baseline.file", "").trim();
+        this.baselineFile = baselinePath.isEmpty() ? null : Paths.get(baselinePath);
+        loadBaseline();
+    }
+
+    /**
+     * Obtiene la instancia única del auditor (Singleton)
+     */
+    public static CommandAuditor getInstance() {
+        if (instance == null) {
+            synchronized (CommandAuditor.class) {
+                if (instance == null) {
+                    instance = new CommandAuditor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Observador de DriverCommandListeners: se invoca en el hilo que ejecutó el comando
+     */
+    public void onCommand(Command command, long nanos, boolean failed) {
+        Context ctx = context.get();
+        String method = pageObjectMethod();
+        String name = command.getName();
+        ctx.stepCommands++;
+        if (method == null) {
+            closeInvocation(ctx);
+            return;
+        }
+        if (ctx.invocation == null || !ctx.invocation.method.equals(method)) {
+            closeInvocation(ctx);
+            ctx.invocation = new Invocation(method, ctx.step);
+        }
+        ctx.invocation.add(name);
+    }
+
+    /**
+     * Marca el inicio de un paso en el hilo actual
+     */
+    public void startStep(String step) {
+        Context ctx = context.get();
+        closeInvocation(ctx);
+        ctx.step = step;
+        ctx.stepCommands = 0;
+    }
+
+    /**
+     * Marca el fin del paso en curso y acumula sus comandos
+     */
+    public void endStep() {
+        Context ctx = context.get();
+        closeInvocation(ctx);
+        if (ctx.step != null) {
+            steps.computeIfAbsent(ctx.step, k -> new StepStats()).add(ctx.stepCommands);
+        }
+        ctx.step = null;
+        ctx.stepCommands = 0;
+    }
+
+    /**
+     * Cierra el escenario del hilo actual
+     *
+     * @return Violaciones (presupuesto o baseline) ocurridas en el escenario
+     */
+    public List<Violation> endScenario() {
+        Context ctx = context.get();
+        closeInvocation(ctx);
+        List<Violation> violations = new ArrayList<>(ctx.violations);
+        ctx.violations.clear();
+        return violations;
+    }
+
+    private void closeInvocation(Context ctx) {
+        Invocation invocation = ctx.invocation;
+        if (invocation == null) {
+            return;
+        }
+        ctx.invocation = null;
+        MethodStats stats = methods.computeIfAbsent(invocation.method, k -> new MethodStats());
+        stats.add(invocation);
+        if (invocation.nPlusOne != null) {
+            stats.nPlusOne.add(invocation.nPlusOne);
+        }
+        boolean hasBaseline = baseline.containsKey(invocation.method);
+        int limit = hasBaseline ? baseline.get(invocation.method) : budgetFor(invocation.method);
+        if (invocation.commands > limit) {
+            ctx.violations.add(new Violation(invocation.method, invocation.commands, limit, hasBaseline, invocation.step));
+        }
+    }
+
+    private int budgetFor(String method) {
+        return config.getPropertyAsInt("audit.command.budget." + method, defaultBudget);
+    }
+
+    /**
+     * Método de page object más externo en la pila actual, como Clase.metodo
+     */
+    private static String pageObjectMethod() {
+        List<String> calls = DriverCommandListeners.pageObjectCalls();
+        return calls.isEmpty() ? null : calls.get(0);
+    }
+
+    private void loadBaseline() {
+        if (baselineFile == null || !Files.exists(baselineFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(baselineFile)) {
+            properties.load(in);
+            for (String key : properties.stringPropertyNames()) {
+                baseline.put(key, Integer.parseInt(properties.getProperty(key).trim()));
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("No se pudo leer el baseline de comandos {}: {}", baselineFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe el máximo de comandos por invocación de cada método como nuevo baseline
+     */
+    public void writeBaseline() {
+        if (baselineFile == null) {
+            logger.warn("audit.baseline.file no está configurado; no se escribe el baseline");
+            return;
+        }
+        Map<String, Long> sorted = new TreeMap<>();
+        for (Map.Entry<String, MethodStats> entry : methods.entrySet()) {
+            sorted.put(entry.getKey(), entry.getValue().maxPerInvocation.get());
+        }
+        try {
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8))) {
+                writer.println("# Máximo de comandos WebDriver por invocación de page object");
+                writer.println("# Regenerar con -Daudit.baseline.update=true");
+                for (Map.Entry<String, Long> entry : sorted.entrySet()) {
+                    writer.println(entry.getKey() + "=" + entry.getValue());
+                }
+            }
+            logger.info("Baseline de comandos actualizado en {}", baselineFile);
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el baseline de comandos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reporte por método y por paso, ordenado por comandos totales
+     */
+    public void writeReport(Path reportFile) {
+        List<Map.Entry<String, MethodStats>> entries = new ArrayList<>(methods.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().commands.get(), a.getValue().commands.get()));
+        List<String> flagged = new ArrayList<>();
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8))) {
+                writer.println("Comandos WebDriver por método de page object");
+                writer.printf("%8s %9s %8s %8s %8s  %s%n", "llamadas", "comandos", "prom", "máx", "límite", "método");
+                for (Map.Entry<String, MethodStats> entry : entries) {
+                    String method = entry.getKey();
+                    MethodStats s = entry.getValue();
+                    boolean hasBaseline = baseline.containsKey(method);
+                    int limit = hasBaseline ? baseline.get(method) : budgetFor(method);
+                    writer.printf("%8d %9d %8.1f %8d %7d%s  %s%n", s.invocations.get(), s.commands.get(),
+                            s.commands.get() / (double) s.invocations.get(), s.maxPerInvocation.get(),
+                            limit, hasBaseline ? "b" : " ", method);
+                    writer.println("           " + s.breakdown());
+                    if (s.maxPerInvocation.get() > limit) {
+                        String flag = hasBaseline ? "REGRESIÓN" : "PRESUPUESTO";
+                        writer.println("           [" + flag + "] máx " + s.maxPerInvocation.get() + " > " + limit);
+                        flagged.add(method);
+                    }
+                    for (String pattern : s.nPlusOne) {
+                        writer.println("           [N+1] " + pattern);
+                        flagged.add(method);
+                    }
+                }
+                writer.println();
+                writer.println("Comandos WebDriver por paso");
+                writer.printf("%8s %9s %8s %8s  %s%n", "veces", "comandos", "prom", "máx", "paso");
+                for (Map.Entry<String, StepStats> entry : new TreeMap<>(steps).entrySet()) {
+                    StepStats s = entry.getValue();
+                    writer.printf("%8d %9d %8.1f %8d  %s%n", s.count.get(), s.commands.get(),
+                            s.commands.get() / (double) Math.max(1, s.count.get()), s.max.get(), entry.getKey());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el reporte de comandos {}: {}", reportFile, e.getMessage());
+        }
+        if (!flagged.isEmpty()) {
+            logger.info("Métodos de page object candidatos a agrupar comandos ({}): {}",
+                    reportFile, new LinkedHashSet<>(flagged));
+        }
+    }
+
+    private final class Invocation {
+        private final String method;
+        private final String step;
+        private final Map<String, Integer> byCommand = new HashMap<>();
+        private final Map<String, Integer> sinceFindElements = new HashMap<>();
+        private boolean afterFindElements;
+        private int commands;
+        private String nPlusOne;
+
+        Invocation(String method, String step) {
+            this.method = method;
+            this.step = step;
+        }
+
+        void add(String name) {
+            commands++;
+            byCommand.merge(name, 1, Integer::sum);
+            if ("findElements".equals(name) || "findChildElements".equals(name)) {
+                afterFindElements = true;
+                sinceFindElements.clear();
+                return;
+            }
+            if ("findElement".equals(name) || "findChildElement".equals(name)) {
+                // Una búsqueda individual corta la secuencia: ya no es un recorrido de la lista
+                afterFindElements = false;
+                return;
+            }
+            if (afterFindElements && name.contains("Element") && !name.startsWith("find")) {
+                int repeated = sinceFindElements.merge(name, 1, Integer::sum);
+                if (repeated >= nPlusOneThreshold && nPlusOne == null) {
+                    nPlusOne = "findElements seguido de " + name + " por elemento";
+                }
+            }
+        }
+    }
+
+    private static final class Context {
+        private String step;
+        private int stepCommands;
+        private Invocation invocation;
+        private final List<Violation> violations = new ArrayList<>();
+    }
+
+    private static final class MethodStats {
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong commands = new AtomicLong();
+        private final AtomicLong maxPerInvocation = new AtomicLong();
+        private final Map<String, AtomicLong> byCommand = new ConcurrentHashMap<>();
+        private final Set<String> nPlusOne = ConcurrentHashMap.newKeySet();
+
+        void add(Invocation invocation) {
+            invocations.incrementAndGet();
+            commands.addAndGet(invocation.commands);
+            maxPerInvocation.accumulateAndGet(invocation.commands, Math::max);
+            for (Map.Entry<String, Integer> entry : invocation.byCommand.entrySet()) {
+                byCommand.computeIfAbsent(entry.getKey(), k -> new AtomicLong()).addAndGet(entry.getValue());
+            }
+        }
+
+        String breakdown() {
+            List<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(byCommand.entrySet());
+            entries.sort((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()));
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, AtomicLong> entry : entries) {
+                sb.append(sb.length() == 0 ? "" : ", ").append(entry.getKey()).append(" x").append(entry.getValue().get());
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class StepStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong commands = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void add(int stepCommands) {
+            count.incrementAndGet();
+            commands.addAndGet(stepCommands);
+            max.accumulateAndGet(stepCommands, Math::max);
+        }
+    }
+}
@@ -1,24 +1,61 @@
 package cl.walmart.qa.utils;
 
-import java.io.FileInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Clase para leer configuraciones desde el archivo config.properties
+ * Clase para leer la configuración del framework
  * Implementa el patrón Singleton para una única instancia
+ *
+ * La configuración se arma por capas (cada una sobrescribe a la anterior):
+ * 1. config.properties del classpath (o src/test/resources si no está en el classpath)
+ * 2. Archivo externo opcional: -Dconfig.file o variable de entorno CONFIG_FILE
+ * 3. Variables de entorno con el nombre de la clave en mayúsculas (app.url -> APP_URL)
+ * 4. Propiedades de sistema -D
+ * 5. Valores fijados en tiempo de ejecución con override() (p. ej. la URL del sitio local)
+ * El resultado es un ConfigSnapshot inmutable y validado. Con config.reload.enabled=true
+ * se vigilan los archivos y, si cambian, se publica un snapshot nuevo de forma atómica.
  */
 public class ConfigReader {
-    
-    private static ConfigReader instance;
-    private Properties properties;
-    private static final String CONFIG_FILE_PATH = "src/test/resources/config.properties";
-    
+
+    private static final Logger logger = LogManager.getLogger(ConfigReader.class);
+    private static final String CONFIG_RESOURCE = "config.properties";
+    private static final String LEGACY_CONFIG_FILE_PATH = "src/test/resources/config.properties";
+
+    private static volatile ConfigReader instance;
+
+    private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    private final Set<Path> watchedFiles = new LinkedHashSet<>();
+    private final Map<String, String> overrides = new ConcurrentHashMap<>();
+
     private ConfigReader() {
-        properties = new Properties();
-        loadProperties();
+        snapshot.set(load());
+        logger.debug("Configuración cargada: {} propiedades", snapshot.get().size());
+        if (snapshot.get().getBoolean("config.reload.enabled", false)) {
+            startWatcher();
+        }
     }
-    
+
     /**
      * Obtiene la instancia única de ConfigReader (Singleton)
      */
@@ -32,77 +69,289 @@ public class ConfigReader {
         }
         return instance;
     }
-    
+
+    /**
+     * Snapshot vigente de la configuración. Quien necesite varios valores coherentes
+     * entre sí debe leerlos del mismo snapshot.
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Vuelve a leer todas las capas y publica el snapshot nuevo si es válido
+     *
+     * @return true si se publicó un snapshot nuevo
+     */
+    public boolean reload() {
+        try {
+            snapshot.set(load());
+            logger.info("Configuración recargada");
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Se mantiene la configuración anterior; la nueva no es válida: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Fija un valor por encima de todas las capas y publica un snapshot nuevo.
+     * Lo usan los hooks que descubren valores al arrancar (p. ej. el puerto del sitio local).
+     */
+    public void override(String key, String value) {
+        overrides.put(key, value);
+        snapshot.set(load());
+        logger.info("Propiedad '{}' fijada en tiempo de ejecución: {}", key, value);
+    }
+
+    /**
+     * Quita un valor fijado con override() y vuelve a las capas normales
+     */
+    public void clearOverride(String key) {
+        if (overrides.remove(key) != null) {
+            snapshot.set(load());
+        }
+    }
+
     /**
-     * Carga las propiedades desde el archivo
+     * Construye el snapshot aplicando las capas en orden
      */
-    private void loadProperties() {
-        try (FileInputStream fis = new FileInputStream(CONFIG_FILE_PATH)) {
-            properties.load(fis);
+    private ConfigSnapshot load() {
+        Map<String, String> values = new HashMap<>();
+        Map<String, String> sources = new HashMap<>();
+        Set<Path> files = new LinkedHashSet<>();
+
+        loadBaseFile(values, sources, files);
+
+        String externalFile = System.getProperty("config.file", System.getenv("CONFIG_FILE"));
+        if (externalFile != null && !externalFile.trim().isEmpty()) {
+            Path external = Paths.get(externalFile.trim()).toAbsolutePath();
+            if (Files.exists(external)) {
+                merge(readFile(external), "archivo " + external, values, sources);
+            } else {
+                logger.warn("El archivo de configuración externo {} no existe; se ignora", external);
+            }
+            files.add(external);
+        }
+
+        for (String key : values.keySet().toArray(new String[0])) {
+            String envValue = System.getenv(toEnvironmentName(key));
+            if (envValue != null) {
+                values.put(key, envValue);
+                sources.put(key, "entorno " + toEnvironmentName(key));
+            }
+        }
+
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            values.put(key, system.getProperty(key));
+            sources.put(key, "sistema -D" + key);
+        }
+
+        for (Map.Entry<String, String> override : overrides.entrySet()) {
+            values.put(override.getKey(), override.getValue());
+            sources.put(override.getKey(), "override en ejecución");
+        }
+
+        synchronized (watchedFiles) {
+            watchedFiles.clear();
+            watchedFiles.addAll(files);
+        }
+        return new ConfigSnapshot(values, sources);
+    }
+
+    private void loadBaseFile(Map<String, String> values, Map<String, String> sources, Set<Path> files) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        URL resource = (loader != null ? loader : ConfigReader.class.getClassLoader()).getResource(CONFIG_RESOURCE);
+        if (resource != null) {
+            Properties properties = new Properties();
+            try (InputStream in = resource.openStream()) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new RuntimeException("Error al cargar el archivo de configuración: " + resource, e);
+            }
+            merge(properties, "classpath " + CONFIG_RESOURCE, values, sources);
+            if ("file".equals(resource.getProtocol())) {
+                try {
+                    files.add(Paths.get(resource.toURI()));
+                } catch (URISyntaxException e) {
+                    logger.debug("No se puede vigilar {}: {}", resource, e.getMessage());
+                }
+            }
+            return;
+        }
+        Path legacy = Paths.get(LEGACY_CONFIG_FILE_PATH).toAbsolutePath();
+        if (!Files.exists(legacy)) {
+            throw new RuntimeException("No se encontró " + CONFIG_RESOURCE + " en el classpath ni en " + LEGACY_CONFIG_FILE_PATH);
+        }
+        merge(readFile(legacy), "archivo " + legacy, values, sources);
+        files.add(legacy);
+    }
+
+    private static Properties readFile(Path file) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
         } catch (IOException e) {
-            throw new RuntimeException("Error al cargar el archivo de configuración: " + CONFIG_FILE_PATH, e);
+            throw new RuntimeException("Error al cargar el archivo de configuración: " + file, e);
+        }
+        return properties;
+    }
+
+    private static void merge(Properties properties, String source, Map<String, String> values, Map<String, String> sources) {
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+            sources.put(key, source);
         }
     }
-    
+
+    private static String toEnvironmentName(String key) {
+        return key.toUpperCase().replaceAll("[^A-Z0-9]", "_");
+    }
+
+    /**
+     * Hilo daemon que recarga la configuración cuando cambia alguno de los archivos
+     */
+    private void startWatcher() {
+        Set<Path> files;
+        synchronized (watchedFiles) {
+            files = new LinkedHashSet<>(watchedFiles);
+        }
+        if (files.isEmpty()) {
+            logger.warn("config.reload.enabled=true pero la configuración no viene de archivos vigilables");
+            return;
+        }
+        final WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Set<Path> directories = new LinkedHashSet<>();
+            for (Path file : files) {
+                directories.add(file.getParent());
+            }
+            for (Path directory : directories) {
+                if (Files.isDirectory(directory)) {
+                    directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo iniciar la recarga de configuración: {}", e.getMessage());
+            return;
+        }
+
+        Thread watcher = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    WatchKey key = watchService.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path) {
+                            Path changedFile = ((Path) key.watchable()).resolve((Path) event.context());
+                            synchronized (watchedFiles) {
+                                changed |= watchedFiles.contains(changedFile);
+                            }
+                        }
+                    }
+                    key.reset();
+                    if (changed) {
+                        // Los editores suelen escribir en varios pasos; se espera a que termine
+                        Thread.sleep(200);
+                        reload();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Recarga de configuración activa sobre {}", files);
+    }
+
     /**
      * Obtiene una propiedad como String
      */
     public String getProperty(String key) {
-        String value = properties.getProperty(key);
-        if (value == null) {
-            throw new RuntimeException("La propiedad '" + key + "' no existe en el archivo de configuración");
-        }
-        return value;
+        return require(snapshot.get(), key);
     }
-    
+
     /**
      * Obtiene una propiedad con valor por defecto
      */
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = snapshot.get().get(key);
+        return value == null ? defaultValue : value;
     }
-    
+
     /**
      * Obtiene una propiedad como entero
      */
     public int getPropertyAsInt(String key) {
-        return Integer.parseInt(getProperty(key));
+        ConfigSnapshot current = snapshot.get();
+        require(current, key);
+        return current.getInt(key, 0);
+    }
+
+    /**
+     * Obtiene una propiedad como entero con valor por defecto
+     */
+    public int getPropertyAsInt(String key, int defaultValue) {
+        return snapshot.get().getInt(key, defaultValue);
     }
-    
+
     /**
      * Obtiene una propiedad como booleano
      */
     public boolean getPropertyAsBoolean(String key) {
-        return Boolean.parseBoolean(getProperty(key));
+        ConfigSnapshot current = snapshot.get();
+        require(current, key);
+        return current.getBoolean(key, false);
     }
-    
-    // Métodos de conveniencia para propiedades comunes
-    
-    public String getApplicationUrl() {
-        return getProperty("app.url");
+
+    /**
+     * Obtiene una propiedad como booleano con valor por defecto
+     */
+    public boolean getPropertyAsBoolean(String key, boolean defaultValue) {
+        return snapshot.get().getBoolean(key, defaultValue);
     }
-    
-    public int getImplicitTimeout() {
-        return getPropertyAsInt("timeout.implicit");
+
+    /**
+     * Obtiene una propiedad como decimal con valor por defecto
+     */
+    public double getPropertyAsDouble(String key, double defaultValue) {
+        return snapshot.get().getDouble(key, defaultValue);
     }
-    
+
+    private static String require(ConfigSnapshot current, String key) {
+        String value = current.get(key);
+        if (value == null) {
+            throw new RuntimeException("La propiedad '" + key + "' no existe en el archivo de configuración");
+        }
+        return value;
+    }
+
+    // Métodos de conveniencia para propiedades comunes (precalculadas en el snapshot)
+
+    public String getApplicationUrl() {
+        return snapshot.get().getApplicationUrl();
+    }
+
     public int getExplicitTimeout() {
-        return getPropertyAsInt("timeout.explicit");
+        return snapshot.get().getExplicitTimeout();
     }
-    
+
     public int getPageLoadTimeout() {
-        return getPropertyAsInt("timeout.page.load");
+        return snapshot.get().getPageLoadTimeout();
     }
-    
+
     public String getBrowserType() {
-        return getProperty("browser.type");
+        return snapshot.get().getBrowserType();
     }
-    
+
     public boolean shouldMaximizeBrowser() {
-        return getPropertyAsBoolean("browser.maximize");
+        return snapshot.get().shouldMaximizeBrowser();
     }
-    
+
     public boolean isHeadless() {
-        return getPropertyAsBoolean("browser.headless");
+        return snapshot.get().isHeadless();
     }
 }
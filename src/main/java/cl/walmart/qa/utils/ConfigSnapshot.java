@@ -0,0 +1,256 @@
+package cl.walmart.qa.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Fotografía inmutable y tipada de la configuración
+ * Se construye una sola vez a partir de las capas de ConfigReader, se valida al crearse
+ * contra la tabla de tipos de las claves conocidas y expone las propiedades comunes ya convertidas.
+ * Los getters tipados fallan con clave, valor y origen si el valor no se puede convertir. El resto de conversiones se
+ * memoriza para no volver a parsear el mismo valor en cada llamada.
+ */
+public final class ConfigSnapshot {
+
+    private static final String[] REQUIRED_KEYS = {
+        "app.url", "timeout.explicit", "timeout.page.load", "browser.type"
+    };
+    private static final String[] BOOLEAN_KEYS = {
+        "browser.maximize", "browser.headless", "app.embedded.enabled", "audit.baseline.update", "audit.enabled",
+        "audit.fail.on.regression", "chrome.disable.automation.features", "chrome.disable.dev.shm",
+        "chrome.disable.notifications", "chrome.no.sandbox", "chrome.remote.allow.origins", "driver.offline",
+        "driver.pool.enabled", "driver.prewarm.enabled", "fixtures.cart.http", "grid.embedded", "impact.enabled",
+        "impact.index.record", "proxy.block.baseline.update", "proxy.cache.replay.strict", "scheduler.enabled"
+    };
+    /** Enteros; timeout.explicit y timeout.page.load se validan aparte como no negativos */
+    private static final String[] INT_KEYS = {
+        "accounts.pool.acquire.timeout", "accounts.pool.size",
+        "accounts.pool.threads", "app.embedded.port", "audit.command.budget", "audit.nplus1.threshold",
+        "driver.cache.ttl.hours", "driver.pool.lease.timeout", "driver.pool.max.leases", "driver.pool.size",
+        "driver.prewarm.size", "driver.prewarm.wait", "grid.embedded.port", "grid.queue.timeout", "grid.slots.default",
+        "impact.sample.size", "locators.dead.min.attempts", "logs.scenario.buffer.size", "retries.attempts",
+        "retries.backoff.ms", "retries.budget.run", "retries.budget.scenario", "scheduler.default.step.ms",
+        "screenshots.async.flush.timeout", "screenshots.async.queue.size", "screenshots.dedup.perceptual.threshold",
+        "wait.poll.initial.ms", "wait.poll.max.ms"
+    };
+    /** Prefijos cuyas claves son todas enteras (presupuestos por método del auditor de comandos) */
+    private static final String[] INT_PREFIXES = {
+        "audit.command.budget."
+    };
+    private static final String[] DOUBLE_KEYS = {
+        "scheduler.history.alpha", "wait.poll.backoff"
+    };
+    /** Claves con un conjunto cerrado de valores (se comparan sin distinguir mayúsculas) */
+    private static final Map<String, List<String>> ENUM_KEYS = new HashMap<>();
+
+    static {
+        ENUM_KEYS.put("page.load.strategy", Arrays.asList("normal", "eager", "none"));
+        ENUM_KEYS.put("driver.backend", Arrays.asList("local", "remote"));
+        ENUM_KEYS.put("proxy.cache.mode", Arrays.asList("off", "record", "replay"));
+        ENUM_KEYS.put("proxy.block.mode", Arrays.asList("off", "tag", "all"));
+        ENUM_KEYS.put("screenshots.async.backpressure", Arrays.asList("block", "caller-runs", "drop"));
+        ENUM_KEYS.put("impact.unmapped", Arrays.asList("all", "ignore"));
+    }
+
+    private final Map<String, String> values;
+    private final Map<String, String> sources;
+    private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+    // Propiedades comunes precalculadas
+    private final String applicationUrl;
+    private final int explicitTimeout;
+    private final int pageLoadTimeout;
+    private final String browserType;
+    private final boolean maximizeBrowser;
+    private final boolean headless;
+
+    /**
+     * @param values Valores finales tras aplicar todas las capas
+     * @param sources Capa de la que proviene cada valor (para diagnóstico)
+     * @throws IllegalStateException si la configuración no es válida
+     */
+    ConfigSnapshot(Map<String, String> values, Map<String, String> sources) {
+        this.values = Collections.unmodifiableMap(new HashMap<>(values));
+        this.sources = Collections.unmodifiableMap(new HashMap<>(sources));
+        validate();
+        this.applicationUrl = get("app.url");
+        this.explicitTimeout = getInt("timeout.explicit", 0);
+        this.pageLoadTimeout = getInt("timeout.page.load", 0);
+        this.browserType = get("browser.type");
+        this.maximizeBrowser = getBoolean("browser.maximize", false);
+        this.headless = getBoolean("browser.headless", false);
+    }
+
+    private void validate() {
+        List<String> errors = new ArrayList<>();
+        for (String key : REQUIRED_KEYS) {
+            if (get(key) == null || get(key).trim().isEmpty()) {
+                errors.add("falta la propiedad obligatoria '" + key + "'");
+            }
+        }
+        for (String key : new String[]{"timeout.explicit", "timeout.page.load"}) {
+            String value = get(key);
+            if (value != null && !value.trim().matches("\\d+")) {
+                errors.add(invalid(key, "un entero no negativo"));
+            }
+        }
+        for (String key : INT_KEYS) {
+            checkInt(key, errors);
+        }
+        for (String key : values.keySet()) {
+            for (String prefix : INT_PREFIXES) {
+                if (key.startsWith(prefix)) {
+                    checkInt(key, errors);
+                }
+            }
+        }
+        for (String key : DOUBLE_KEYS) {
+            String value = get(key);
+            if (value != null && parseDouble(value) == null) {
+                errors.add(invalid(key, "un número decimal"));
+            }
+        }
+        for (String key : BOOLEAN_KEYS) {
+            String value = get(key);
+            if (value != null && parseBoolean(value) == null) {
+                errors.add(invalid(key, "true o false"));
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : ENUM_KEYS.entrySet()) {
+            String value = get(entry.getKey());
+            if (value != null && !entry.getValue().contains(value.trim().toLowerCase(Locale.ROOT))) {
+                errors.add(invalid(entry.getKey(), "uno de " + entry.getValue()));
+            }
+        }
+        String url = get("app.url");
+        if (url != null && !url.trim().matches("(?i)https?://.+")) {
+            errors.add("'app.url' debe ser una URL http(s) (valor: '" + url + "', origen: " + sourceOf("app.url") + ")");
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Configuración inválida:\n  - " + String.join("\n  - ", errors));
+        }
+    }
+
+    private void checkInt(String key, List<String> errors) {
+        String value = get(key);
+        if (value != null && parseInt(value) == null) {
+            errors.add(invalid(key, "un entero"));
+        }
+    }
+
+    private String invalid(String key, String expected) {
+        return "'" + key + "' debe ser " + expected + " (valor: '" + get(key) + "', origen: " + sourceOf(key) + ")";
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A diferencia de Boolean.parseBoolean no convierte en false un valor mal escrito ("ture", "si")
+     */
+    private static Boolean parseBoolean(String value) {
+        String trimmed = value.trim();
+        if ("true".equalsIgnoreCase(trimmed)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(trimmed)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    /**
+     * Convierte con el parser dado y falla indicando clave, valor y origen si el valor no es válido
+     * (cubre las claves que no están en las tablas de tipos de validate())
+     */
+    private <T> T typed(String key, String expected, Function<String, T> parser) {
+        T result = parser.apply(values.get(key));
+        if (result == null) {
+            throw new IllegalStateException("Configuración inválida: " + invalid(key, expected));
+        }
+        return result;
+    }
+
+    /**
+     * Valor crudo de una propiedad (null si no existe)
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Capa de la que proviene el valor (classpath, archivo externo, entorno, sistema)
+     */
+    public String sourceOf(String key) {
+        return sources.get(key);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        if (!values.containsKey(key)) {
+            return defaultValue;
+        }
+        return (Integer) parsed.computeIfAbsent("int:" + key, k -> typed(key, "un entero", ConfigSnapshot::parseInt));
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        if (!values.containsKey(key)) {
+            return defaultValue;
+        }
+        return (Boolean) parsed.computeIfAbsent("boolean:" + key, k -> typed(key, "true o false", ConfigSnapshot::parseBoolean));
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        if (!values.containsKey(key)) {
+            return defaultValue;
+        }
+        return (Double) parsed.computeIfAbsent("double:" + key, k -> typed(key, "un número decimal", ConfigSnapshot::parseDouble));
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public String getApplicationUrl() {
+        return applicationUrl;
+    }
+
+    public int getExplicitTimeout() {
+        return explicitTimeout;
+    }
+
+    public int getPageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+
+    public String getBrowserType() {
+        return browserType;
+    }
+
+    public boolean shouldMaximizeBrowser() {
+        return maximizeBrowser;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+}
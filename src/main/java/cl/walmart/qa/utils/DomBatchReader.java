@@ -0,0 +1,139 @@
+package cl.walmart.qa.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lectura en lote de varios localizadores con un único executeScript
+ * Reemplaza los ciclos findElements + getText por elemento, que cuestan un
+ * round trip HTTP al driver por cada llamada (decenas de ms en Grid/remoto).
+ */
+public class DomBatchReader {
+
+    private static final String SCRIPT =
+            "var queries = arguments[0], attrs = arguments[1], out = [];"
+            + "function find(q) {"
+            + "  if (q[0] === 'css') { return Array.prototype.slice.call(document.querySelectorAll(q[1])); }"
+            + "  if (q[0] === 'xpath') {"
+            + "    var r = document.evaluate(q[1], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), l = [];"
+            + "    for (var i = 0; i < r.snapshotLength; i++) { if (r.snapshotItem(i).nodeType === 1) { l.push(r.snapshotItem(i)); } }"
+            + "    return l;"
+            + "  }"
+            + "  return Array.prototype.filter.call(document.getElementsByTagName('a'), function (a) {"
+            + "    var t = (a.innerText || a.textContent || '').trim();"
+            + "    return q[0] === 'linkText' ? t === q[1] : t.indexOf(q[1]) >= 0;"
+            + "  });"
+            + "}"
+            + "function visible(el) {"
+            + "  var s = window.getComputedStyle(el);"
+            + "  if (s.display === 'none' || s.visibility === 'hidden' || s.opacity === '0') { return false; }"
+            + "  var r = el.getBoundingClientRect();"
+            + "  return r.width > 0 || r.height > 0;"
+            + "}"
+            + "for (var i = 0; i < queries.length; i++) {"
+            + "  var els;"
+            + "  try { els = find(queries[i]); } catch (e) { els = []; }"
+            + "  out.push(els.map(function (el) {"
+            + "    var v = visible(el), a = {};"
+            + "    for (var j = 0; j < attrs.length; j++) { a[attrs[j]] = el.getAttribute(attrs[j]); }"
+            + "    return { tag: el.tagName.toLowerCase(), text: v ? (el.innerText || '').trim() : '', visible: v, attributes: a };"
+            + "  }));"
+            + "}"
+            + "return out;";
+
+    private DomBatchReader() {
+    }
+
+    /**
+     * Evalúa todos los localizadores en un solo round trip
+     *
+     * @param driver WebDriver activo
+     * @param locators Localizadores a evaluar (id, name, className, tagName, cssSelector, xpath, linkText)
+     * @param attributes Atributos a leer de cada elemento encontrado
+     * @return Elementos por localizador, en el mismo orden de entrada
+     */
+    public static Map<By, List<ElementSnapshot>> read(WebDriver driver, List<By> locators, String... attributes) {
+        List<List<String>> queries = new ArrayList<>();
+        for (By locator : locators) {
+            queries.add(toQuery(locator));
+        }
+
+        Object raw = ((JavascriptExecutor) driver).executeScript(SCRIPT, queries, Arrays.asList(attributes));
+
+        Map<By, List<ElementSnapshot>> result = new LinkedHashMap<>();
+        List<?> perLocator = raw instanceof List ? (List<?>) raw : Collections.emptyList();
+        for (int i = 0; i < locators.size(); i++) {
+            List<ElementSnapshot> snapshots = new ArrayList<>();
+            if (i < perLocator.size()) {
+                for (Object item : (List<?>) perLocator.get(i)) {
+                    snapshots.add(toSnapshot((Map<?, ?>) item));
+                }
+            }
+            result.put(locators.get(i), snapshots);
+        }
+        return result;
+    }
+
+    private static ElementSnapshot toSnapshot(Map<?, ?> item) {
+        Map<String, String> attributes = new HashMap<>();
+        Object rawAttributes = item.get("attributes");
+        if (rawAttributes instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) rawAttributes).entrySet()) {
+                attributes.put(String.valueOf(entry.getKey()),
+                        entry.getValue() == null ? null : String.valueOf(entry.getValue()));
+            }
+        }
+        return new ElementSnapshot(
+                String.valueOf(item.get("tag")),
+                String.valueOf(item.get("text")),
+                Boolean.TRUE.equals(item.get("visible")),
+                attributes);
+    }
+
+    /**
+     * Traduce un By de Selenium a una consulta [tipo, valor] para el script
+     * Se basa en el formato de By.toString(), p. ej. "By.cssSelector: #content"
+     */
+    private static List<String> toQuery(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(": ");
+        if (!description.startsWith("By.") || separator < 0) {
+            throw new IllegalArgumentException("Localizador no soportado en lectura por lote: " + description);
+        }
+        String type = description.substring(3, separator);
+        String value = description.substring(separator + 2);
+        switch (type) {
+            case "cssSelector":
+                return Arrays.asList("css", value);
+            case "xpath":
+                return Arrays.asList("xpath", value);
+            case "id":
+                return Arrays.asList("css", "[id=\"" + escapeAttribute(value) + "\"]");
+            case "name":
+                return Arrays.asList("css", "[name=\"" + escapeAttribute(value) + "\"]");
+            case "className":
+                return Arrays.asList("css", "." + value);
+            case "tagName":
+                return Arrays.asList("css", value);
+            case "linkText":
+                return Arrays.asList("linkText", value);
+            case "partialLinkText":
+                return Arrays.asList("partialLinkText", value);
+            default:
+                throw new IllegalArgumentException("Localizador no soportado en lectura por lote: " + description);
+        }
+    }
+
+    private static String escapeAttribute(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
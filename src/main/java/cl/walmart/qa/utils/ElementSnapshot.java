@@ -0,0 +1,51 @@
+package cl.walmart.qa.utils;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Fotografía inmutable de un elemento leída en lote por DomBatchReader
+ * El texto sigue la semántica de WebElement.getText(): vacío si el elemento no es visible
+ */
+public class ElementSnapshot {
+
+    private final String tagName;
+    private final String text;
+    private final boolean visible;
+    private final Map<String, String> attributes;
+
+    public ElementSnapshot(String tagName, String text, boolean visible, Map<String, String> attributes) {
+        this.tagName = tagName;
+        this.text = text;
+        this.visible = visible;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Valor de un atributo solicitado en la consulta (null si no existe)
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + tagName + (visible ? "" : " oculto") + "> '" + text + "'";
+    }
+}
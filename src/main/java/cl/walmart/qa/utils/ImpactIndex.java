@@ -0,0 +1,173 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de impacto: qué código y qué localizadores usa cada escenario
+ * Se captura en tiempo de ejecución (ImpactIndexPlugin): métodos de step definitions, métodos de
+ * page objects presentes en la pila de cada comando WebDriver (Clase.metodo) y localizadores usados
+ * en findElement(s). Cada ejecución real reemplaza la entrada de los escenarios que pasaron y amplía
+ * la de los que fallaron, así el índice se mantiene al día sin regenerarlo a mano.
+ */
+public class ImpactIndex {
+
+    private static final Logger logger = LogManager.getLogger(ImpactIndex.class);
+    private static final String CALLS = "calls.";
+    private static final String LOCATORS = "locators.";
+    private static final String SEPARATOR = "\t";
+
+    private final Path file;
+    private final Map<String, Set<String>> calls = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> locators = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    public ImpactIndex(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Índice configurado en impact.index.file
+     */
+    public static ImpactIndex fromConfig() {
+        return new ImpactIndex(Paths.get(ConfigReader.getInstance().getProperty("impact.index.file", "impact-index.properties")));
+    }
+
+    /**
+     * Guarda lo que usó un escenario
+     *
+     * @param key      clave de {@link ScenarioHistory#key}
+     * @param replace  true si el escenario terminó bien (su captura es completa); si falló se
+     *                 suma a la anterior, porque pudo cortar antes de llegar a parte de su código
+     */
+    public void record(String key, Set<String> scenarioCalls, Set<String> scenarioLocators, boolean replace) {
+        merge(calls, key, scenarioCalls, replace);
+        merge(locators, key, scenarioLocators, replace);
+        changed = true;
+    }
+
+    private static void merge(Map<String, Set<String>> map, String key, Set<String> values, boolean replace) {
+        map.compute(key, (k, current) -> {
+            Set<String> merged = new TreeSet<>(values);
+            if (!replace && current != null) {
+                merged.addAll(current);
+            }
+            return Collections.unmodifiableSet(merged);
+        });
+    }
+
+    public boolean isEmpty() {
+        return calls.isEmpty();
+    }
+
+    public boolean contains(String key) {
+        return calls.containsKey(key);
+    }
+
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(calls.keySet());
+    }
+
+    /**
+     * Escenarios que ejecutaron un método (Clase.metodo) o, con method null, cualquier método de la clase
+     */
+    public Set<String> scenariosCalling(String className, String method) {
+        String prefix = className + ".";
+        Set<String> result = new TreeSet<>();
+        for (Map.Entry<String, Set<String>> entry : calls.entrySet()) {
+            for (String call : entry.getValue()) {
+                if (method == null ? call.startsWith(prefix) : call.equals(prefix + method)) {
+                    result.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Escenarios que buscaron elementos con un localizador que contiene el valor dado
+     * (el driver puede traducirlo, p. ej. By.id a un selector CSS, por eso no se exige igualdad)
+     */
+    public Set<String> scenariosUsingLocator(String value) {
+        Set<String> result = new TreeSet<>();
+        for (Map.Entry<String, Set<String>> entry : locators.entrySet()) {
+            for (String locator : entry.getValue()) {
+                if (locator.contains(value)) {
+                    result.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el índice de impacto {}: {}", file, e.getMessage());
+            return;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            String value = properties.getProperty(name);
+            Set<String> values = Collections.unmodifiableSet(value.isEmpty()
+                    ? new TreeSet<>() : new TreeSet<>(Arrays.asList(value.split(SEPARATOR))));
+            if (name.startsWith(CALLS)) {
+                calls.put(name.substring(CALLS.length()), values);
+            } else if (name.startsWith(LOCATORS)) {
+                locators.put(name.substring(LOCATORS.length()), values);
+            }
+        }
+    }
+
+    /**
+     * Escribe el índice si hubo cambios (archivo temporal + rename)
+     */
+    public synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        changed = false;
+        Properties properties = new Properties();
+        for (Map.Entry<String, Set<String>> entry : calls.entrySet()) {
+            properties.setProperty(CALLS + entry.getKey(), String.join(SEPARATOR, entry.getValue()));
+        }
+        for (Map.Entry<String, Set<String>> entry : locators.entrySet()) {
+            properties.setProperty(LOCATORS + entry.getKey(), String.join(SEPARATOR, entry.getValue()));
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Métodos (Clase.metodo) y localizadores usados por cada escenario");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("Índice de impacto actualizado: {} escenarios en {}", calls.size(), file);
+        } catch (IOException e) {
+            logger.warn("No se pudo guardar el índice de impacto {}: {}", file, e.getMessage());
+        }
+    }
+}
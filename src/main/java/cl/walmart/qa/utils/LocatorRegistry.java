@@ -0,0 +1,300 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Registro de localizadores con candidatos alternativos que aprende cuál funciona
+ * Cada elemento lógico (p. ej. "cart.removeButton") tiene candidatos ordenados por
+ * tasa de acierto y latencia. Las estadísticas se guardan entre ejecuciones
+ * (locators.stats.file) y al final se genera un reporte de candidatos muertos.
+ */
+public class LocatorRegistry {
+
+    private static final Logger logger = LogManager.getLogger(LocatorRegistry.class);
+    private static final String KEY_SEPARATOR = "|";
+
+    private static volatile LocatorRegistry instance;
+
+    private final Map<String, List<By>> candidates = new ConcurrentHashMap<>();
+    private final Map<String, CandidateStats> stats = new ConcurrentHashMap<>();
+    private final Path statsFile;
+    private final Path reportFile;
+    private final int deadMinAttempts;
+
+    private LocatorRegistry() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.statsFile = Paths.get(config.getProperty("locators.stats.file", "locator-stats.properties"));
+        this.reportFile = Paths.get(config.getProperty("locators.report.file", "target/locator-report.txt"));
+        this.deadMinAttempts = config.getPropertyAsInt("locators.dead.min.attempts", 20);
+        loadStats();
+    }
+
+    /**
+     * Obtiene la instancia única del registro (Singleton)
+     */
+    public static LocatorRegistry getInstance() {
+        if (instance == null) {
+            synchronized (LocatorRegistry.class) {
+                if (instance == null) {
+                    instance = new LocatorRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Guarda las estadísticas y escribe el reporte de candidatos muertos si el registro llegó a usarse
+     * (lo invoca RunReportsPlugin al terminar la ejecución)
+     */
+    public static void finish() {
+        LocatorRegistry registry = instance;
+        if (registry != null) {
+            registry.saveStats();
+            registry.writeReport();
+        }
+    }
+
+    /**
+     * Registra un elemento lógico con sus candidatos en orden de preferencia inicial
+     */
+    public void register(String name, By... locators) {
+        candidates.putIfAbsent(name, new ArrayList<>(Arrays.asList(locators)));
+    }
+
+    /**
+     * Candidatos de un elemento ordenados por tasa de acierto (desc) y latencia (asc)
+     * A igualdad de estadísticas se conserva el orden declarado
+     */
+    public List<By> candidates(String name) {
+        List<By> declared = candidates.get(name);
+        if (declared == null) {
+            throw new IllegalArgumentException("Elemento lógico no registrado: " + name);
+        }
+        // Se toma una foto de las estadísticas para que otros hilos no alteren el orden a mitad del sort
+        Map<By, double[]> scores = new HashMap<>();
+        for (By by : declared) {
+            CandidateStats s = statsFor(name, by);
+            scores.put(by, new double[]{s.hitRate(), s.averageNanos()});
+        }
+        List<By> ranked = new ArrayList<>(declared);
+        ranked.sort(Comparator
+                .comparingDouble((By by) -> -scores.get(by)[0])
+                .thenComparingDouble(by -> scores.get(by)[1]));
+        return ranked;
+    }
+
+    /**
+     * Prueba los candidatos en orden de ranking hasta que uno produce un resultado
+     * no nulo. Una excepción o un null cuentan como fallo de ese candidato.
+     *
+     * @param name Elemento lógico registrado
+     * @param attempt Acción a ejecutar con cada candidato
+     * @return Resultado del primer candidato exitoso, o null si ninguno funcionó
+     */
+    public <T> T firstMatch(String name, Function<By, T> attempt) {
+        return firstMatch(name, attempt, true);
+    }
+
+    /**
+     * Como {@link #firstMatch}, para candidatos evaluados sobre una lectura en lote ya hecha
+     * (p. ej. BasePage#readAll): cuenta aciertos y fallos pero no latencia, porque evaluar un
+     * candidato en memoria no mide su búsqueda en el driver
+     */
+    public <T> T firstMatchInBatch(String name, Function<By, T> attempt) {
+        return firstMatch(name, attempt, false);
+    }
+
+    private <T> T firstMatch(String name, Function<By, T> attempt, boolean timed) {
+        for (By by : candidates(name)) {
+            long start = System.nanoTime();
+            T result = null;
+            try {
+                result = attempt.apply(by);
+            } catch (RuntimeException e) {
+                logger.debug("Candidato {} para '{}' falló: {}", by, name, e.getMessage());
+            }
+            long elapsed = timed ? System.nanoTime() - start : -1;
+            if (result != null) {
+                recordHit(name, by, elapsed);
+                return result;
+            }
+            recordMiss(name, by, elapsed);
+        }
+        return null;
+    }
+
+    /**
+     * @param nanos Latencia de la búsqueda, o negativo si no se midió
+     */
+    public void recordHit(String name, By by, long nanos) {
+        statsFor(name, by).hit(nanos);
+        logger.debug("Localizador '{}' resuelto con {}", name, by);
+    }
+
+    /**
+     * @param nanos Latencia de la búsqueda, o negativo si no se midió
+     */
+    public void recordMiss(String name, By by, long nanos) {
+        statsFor(name, by).miss(nanos);
+    }
+
+    private CandidateStats statsFor(String name, By by) {
+        return stats.computeIfAbsent(name + KEY_SEPARATOR + by, k -> new CandidateStats());
+    }
+
+    private void loadStats() {
+        if (!Files.exists(statsFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(statsFile)) {
+            properties.load(in);
+            for (String key : properties.stringPropertyNames()) {
+                String[] values = properties.getProperty(key).split(",");
+                if (values.length == 3 || values.length == 4) {
+                    long hits = Long.parseLong(values[0]);
+                    long misses = Long.parseLong(values[1]);
+                    // Formato anterior sin columna de intentos medidos: todos lo eran
+                    long timed = values.length == 4 ? Long.parseLong(values[3]) : hits + misses;
+                    stats.put(key, new CandidateStats(hits, misses, Long.parseLong(values[2]), timed));
+                }
+            }
+            logger.debug("Estadísticas de localizadores cargadas desde {}", statsFile);
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("No se pudieron leer las estadísticas de localizadores {}: {}", statsFile, e.getMessage());
+        }
+    }
+
+    private void saveStats() {
+        Properties properties = new Properties();
+        for (Map.Entry<String, CandidateStats> entry : stats.entrySet()) {
+            CandidateStats s = entry.getValue();
+            properties.setProperty(entry.getKey(), s.hits.get() + "," + s.misses.get() + "," + s.totalNanos.get()
+                    + "," + s.timed.get());
+        }
+        try {
+            Path parent = statsFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "locator-stats", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "Estadísticas de localizadores: aciertos,fallos,nanosegundos,intentos medidos");
+            }
+            Files.move(tmp, statsFile.toAbsolutePath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("No se pudieron guardar las estadísticas de localizadores: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reporte por elemento lógico: ranking actual y candidatos que nunca aciertan
+     */
+    private void writeReport() {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<String> dead = new ArrayList<>();
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8))) {
+                for (Map.Entry<String, List<By>> entry : new TreeMap<>(candidates).entrySet()) {
+                    writer.println(entry.getKey());
+                    for (By by : candidates(entry.getKey())) {
+                        CandidateStats s = statsFor(entry.getKey(), by);
+                        boolean isDead = s.hits.get() == 0 && s.attempts() >= deadMinAttempts;
+                        if (isDead) {
+                            dead.add(entry.getKey() + " -> " + by);
+                        }
+                        writer.printf("  %-6s aciertos=%d fallos=%d latencia prom=%d ms  %s%n",
+                                isDead ? "MUERTO" : "", s.hits.get(), s.misses.get(),
+                                TimeUnit.NANOSECONDS.toMillis(s.averageNanos()), by);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el reporte de localizadores: {}", e.getMessage());
+        }
+        if (!dead.isEmpty()) {
+            logger.info("Candidatos de localizador sin aciertos tras {} intentos (eliminables):\n  {}",
+                    deadMinAttempts, String.join("\n  ", dead));
+        }
+    }
+
+    private static class CandidateStats {
+        private final AtomicLong hits;
+        private final AtomicLong misses;
+        private final AtomicLong totalNanos;
+        private final AtomicLong timed;
+
+        CandidateStats() {
+            this(0, 0, 0, 0);
+        }
+
+        CandidateStats(long hits, long misses, long totalNanos, long timed) {
+            this.hits = new AtomicLong(hits);
+            this.misses = new AtomicLong(misses);
+            this.totalNanos = new AtomicLong(totalNanos);
+            this.timed = new AtomicLong(timed);
+        }
+
+        void hit(long nanos) {
+            hits.incrementAndGet();
+            addLatency(nanos);
+        }
+
+        void miss(long nanos) {
+            misses.incrementAndGet();
+            addLatency(nanos);
+        }
+
+        private void addLatency(long nanos) {
+            if (nanos >= 0) {
+                timed.incrementAndGet();
+                totalNanos.addAndGet(nanos);
+            }
+        }
+
+        long attempts() {
+            return hits.get() + misses.get();
+        }
+
+        /**
+         * Tasa de acierto con suavizado de Laplace: un candidato sin historial vale 0.5
+         */
+        double hitRate() {
+            return (hits.get() + 1.0) / (attempts() + 2.0);
+        }
+
+        /**
+         * Latencia promedio de los intentos medidos (0 sin mediciones: no penaliza en el ranking)
+         */
+        long averageNanos() {
+            long count = timed.get();
+            return count == 0 ? 0 : totalNanos.get() / count;
+        }
+    }
+}
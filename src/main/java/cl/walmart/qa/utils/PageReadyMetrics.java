@@ -0,0 +1,117 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tiempo hasta que cada página cumple su contrato de preparación (BasePage#readiness)
+ * Por página registra dos valores: el tiempo listo medido por el navegador desde el inicio de la
+ * navegación (performance.timing al cumplirse el contrato) y lo que esperó el framework por el contrato
+ * después de recibir el control del driver. Con page.load.strategy eager o none la diferencia entre
+ * el tiempo listo y el evento load es lo que el escenario deja de esperar.
+ * Al terminar la ejecución (RunReportsPlugin) escribe la tabla en page.ready.report.file y la deja en el log.
+ */
+public final class PageReadyMetrics {
+
+    private static final Logger logger = LogManager.getLogger(PageReadyMetrics.class);
+    private static final Map<String, PageStats> stats = new ConcurrentHashMap<>();
+
+    private PageReadyMetrics() {
+    }
+
+    /**
+     * Registra que una página cumplió (o no) su contrato
+     *
+     * @param page       Nombre de la página (clase del page object)
+     * @param readyMillis Milisegundos desde el inicio de la navegación según el navegador (-1 si no se pudo leer)
+     * @param loadMillis Milisegundos hasta el evento load (-1 si aún no ocurría al quedar lista)
+     * @param waitNanos  Espera del framework por el contrato
+     * @param satisfied  true si el contrato se cumplió antes del timeout
+     */
+    public static void record(String page, long readyMillis, long loadMillis, long waitNanos, boolean satisfied) {
+        stats.computeIfAbsent(page, k -> new PageStats()).add(readyMillis, loadMillis, waitNanos, satisfied);
+        logger.debug("Página {} {} en {} ms desde la navegación (load: {}), espera del contrato {} ms",
+                page, satisfied ? "lista" : "no cumplió su contrato", readyMillis,
+                loadMillis < 0 ? "pendiente" : loadMillis + " ms", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    /**
+     * Tabla por página ordenada por tiempo listo promedio
+     */
+    public static String summary() {
+        List<Map.Entry<String, PageStats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().readyHistogram.getMeanMicros(), a.getValue().readyHistogram.getMeanMicros()));
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-22s %6s %8s %10s %10s %10s %12s %12s%n", "página", "veces", "timeouts",
+                "listo p50", "listo p95", "listo máx", "antes de load", "espera prom"));
+        for (Map.Entry<String, PageStats> entry : entries) {
+            PageStats s = entry.getValue();
+            LatencyHistogram ready = s.readyHistogram;
+            long count = s.count.get();
+            sb.append(String.format("%-22s %6d %8d %10d %10d %10d %12d %12d%n", entry.getKey(), count, s.timeouts.get(),
+                    TimeUnit.MICROSECONDS.toMillis(ready.getPercentileMicros(50)),
+                    TimeUnit.MICROSECONDS.toMillis(ready.getPercentileMicros(95)),
+                    TimeUnit.MICROSECONDS.toMillis(ready.getMaxMicros()),
+                    s.beforeLoad.get(),
+                    count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(s.waitNanos.get() / count)));
+        }
+        sb.append("Tiempos en ms; 'antes de load' cuenta las veces que la página quedó lista sin que el evento load hubiera ocurrido\n");
+        return sb.toString();
+    }
+
+    /**
+     * Escribe el reporte y lo deja en el log (lo invoca RunReportsPlugin al terminar la ejecución)
+     */
+    public static void finish() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        String summary = summary();
+        logger.info("Tiempo hasta página lista por página:\n{}", summary);
+        Path report = Paths.get(ConfigReader.getInstance().getProperty("page.ready.report.file",
+                "target/cucumber-reports/page-ready.txt"));
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            Files.write(report, summary.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el reporte de páginas listas {}: {}", report, e.getMessage());
+        }
+    }
+
+    private static final class PageStats {
+        final LatencyHistogram readyHistogram = new LatencyHistogram();
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong beforeLoad = new AtomicLong();
+        final AtomicLong waitNanos = new AtomicLong();
+
+        void add(long readyMillis, long loadMillis, long nanos, boolean satisfied) {
+            count.incrementAndGet();
+            waitNanos.addAndGet(nanos);
+            if (!satisfied) {
+                timeouts.incrementAndGet();
+                return;
+            }
+            if (readyMillis >= 0) {
+                readyHistogram.record(TimeUnit.MILLISECONDS.toNanos(readyMillis));
+                if (loadMillis < 0) {
+                    beforeLoad.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+
+/**
+ * Appender de Log4j2 que envía los eventos al ScenarioLogBuffer del hilo actual
+ * Se declara en log4j2.xml como &lt;ScenarioBuffer name="..."/&gt;. Fuera de un escenario
+ * no hace nada. Debe referenciarse de forma síncrona (no detrás de un Async) porque
+ * el buffer depende del hilo que ejecuta el escenario.
+ */
+@Plugin(name = "ScenarioBuffer", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE)
+public final class ScenarioBufferAppender extends AbstractAppender {
+
+    private ScenarioBufferAppender(String name, Filter filter) {
+        super(name, filter, null, true, Property.EMPTY_ARRAY);
+    }
+
+    @PluginFactory
+    public static ScenarioBufferAppender createAppender(@PluginAttribute("name") String name,
+                                                        @PluginElement("Filter") Filter filter) {
+        return new ScenarioBufferAppender(name == null ? "ScenarioBuffer" : name, filter);
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        if (!ScenarioLogBuffer.isActive()) {
+            return;
+        }
+        // Los eventos y mensajes de Log4j pueden reutilizarse: se copia el mensaje sin formatearlo
+        // (memento conserva el patrón y los parámetros); el texto se arma solo si el buffer se vuelca
+        Message message = event.getMessage();
+        if (message instanceof ReusableMessage) {
+            message = ((ReusableMessage) message).memento();
+        }
+        ScenarioLogBuffer.record(event.getTimeMillis(), event.getLevel(), event.getLoggerName(),
+                message, event.getThrown());
+    }
+}
@@ -0,0 +1,276 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historial de duraciones por escenario y por paso, para ordenar la ejecución
+ * Guarda una media móvil exponencial (scheduler.history.alpha) de las ejecuciones exitosas en
+ * scheduler.history.file. Si el archivo aún no existe se siembra con el cucumber.json de la
+ * ejecución anterior. Los escenarios sin historial se estiman sumando la media de sus pasos.
+ */
+public class ScenarioHistory {
+
+    private static final Logger logger = LogManager.getLogger(ScenarioHistory.class);
+    private static final String SCENARIO = "scenario.";
+    private static final String STEP = "step.";
+    private static final long DRY_RUN_STEP_MILLIS = 10;
+
+    private final Path file;
+    private final double alpha;
+    private final long defaultStepMillis;
+    private final Map<String, Entry> scenarios = new ConcurrentHashMap<>();
+    private final Map<String, Entry> steps = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    public ScenarioHistory(Path file, double alpha, long defaultStepMillis) {
+        this.file = file;
+        this.alpha = alpha;
+        this.defaultStepMillis = defaultStepMillis;
+        load();
+    }
+
+    /**
+     * Historial configurado en scheduler.history.* (vacío = ~/.cache/opencart-automation/scenario-history.properties)
+     */
+    public static ScenarioHistory fromConfig() {
+        ConfigReader config = ConfigReader.getInstance();
+        String path = config.getProperty("scheduler.history.file", "").trim();
+        Path file = path.isEmpty()
+                ? Paths.get(System.getProperty("user.home"), ".cache", "opencart-automation", "scenario-history.properties")
+                : Paths.get(path);
+        ScenarioHistory history = new ScenarioHistory(file,
+                config.getPropertyAsDouble("scheduler.history.alpha", 0.3),
+                config.getPropertyAsInt("scheduler.default.step.ms", 1500));
+        if (history.scenarios.isEmpty()) {
+            // Se guarda de inmediato: el formatter json sobrescribe cucumber.json al iniciar la ejecución
+            history.importCucumberJson(Paths.get(config.getProperty("reports.path", "target/cucumber-reports"), "cucumber.json"));
+            history.save();
+        }
+        return history;
+    }
+
+    /**
+     * Clave estable de un escenario: archivo del feature y nombre del escenario
+     */
+    public static String key(URI featureUri, String scenarioName) {
+        String path = featureUri.getSchemeSpecificPart();
+        return path.substring(path.lastIndexOf('/') + 1) + " :: " + scenarioName.trim();
+    }
+
+    public void recordScenario(String key, long millis) {
+        update(scenarios, key, millis);
+    }
+
+    public void recordStep(String text, long millis) {
+        update(steps, text.trim(), millis);
+    }
+
+    private void update(Map<String, Entry> map, String key, long millis) {
+        map.compute(key, (k, current) -> current == null
+                ? new Entry(millis, 1)
+                : new Entry(Math.round(alpha * millis + (1 - alpha) * current.millis), current.runs + 1));
+        changed = true;
+    }
+
+    /**
+     * Duración esperada del escenario: su historial o, si es nuevo, la suma de sus pasos
+     *
+     * @param key       clave de {@link #key(URI, String)}
+     * @param stepTexts texto de los pasos (incluidos los de Antecedentes)
+     */
+    public Estimate estimate(String key, Collection<String> stepTexts) {
+        Entry known = scenarios.get(key);
+        if (known != null) {
+            return new Estimate(known.millis, true);
+        }
+        long fallback = meanStepMillis();
+        long total = 0;
+        for (String text : stepTexts) {
+            Entry step = steps.get(text.trim());
+            total += step != null ? step.millis : fallback;
+        }
+        return new Estimate(total, false);
+    }
+
+    private long meanStepMillis() {
+        if (steps.isEmpty()) {
+            return defaultStepMillis;
+        }
+        long total = 0;
+        for (Entry entry : steps.values()) {
+            total += entry.millis;
+        }
+        return total / steps.size();
+    }
+
+    public int scenarioCount() {
+        return scenarios.size();
+    }
+
+    /**
+     * Siembra el historial con las duraciones de un cucumber.json (ns por paso)
+     */
+    @SuppressWarnings("unchecked")
+    public void importCucumberJson(Path cucumberJson) {
+        if (!Files.exists(cucumberJson)) {
+            return;
+        }
+        try {
+            String json = new String(Files.readAllBytes(cucumberJson), StandardCharsets.UTF_8);
+            List<Map<String, Object>> features = new Json().toType(json, List.class);
+            int imported = 0;
+            for (Map<String, Object> feature : features) {
+                URI uri = URI.create(String.valueOf(feature.get("uri")));
+                for (Map<String, Object> element : (List<Map<String, Object>>) feature.get("elements")) {
+                    if (!"scenario".equals(element.get("type"))) {
+                        continue;
+                    }
+                    long scenarioNanos = 0;
+                    boolean passed = true;
+                    Map<String, Long> stepMillis = new LinkedHashMap<>();
+                    for (Map<String, Object> step : (List<Map<String, Object>>) element.get("steps")) {
+                        Map<String, Object> result = (Map<String, Object>) step.get("result");
+                        Object duration = result == null ? null : result.get("duration");
+                        long nanos = duration instanceof Number ? ((Number) duration).longValue() : 0;
+                        passed &= result != null && "passed".equals(result.get("status"));
+                        scenarioNanos += nanos;
+                        stepMillis.put(String.valueOf(step.get("name")), nanos / 1_000_000);
+                    }
+                    // Los hooks (@Before/@After: préstamo del navegador, screenshots) también cuentan
+                    for (String hooks : new String[]{"before", "after"}) {
+                        Object list = element.get(hooks);
+                        if (list instanceof List) {
+                            for (Map<String, Object> hook : (List<Map<String, Object>>) list) {
+                                Map<String, Object> result = (Map<String, Object>) hook.get("result");
+                                Object duration = result == null ? null : result.get("duration");
+                                scenarioNanos += duration instanceof Number ? ((Number) duration).longValue() : 0;
+                            }
+                        }
+                    }
+                    // Un cucumber.json de dry-run trae todo "passed" con duraciones de pocos ms por paso
+                    long stepCount = ((List<?>) element.get("steps")).size();
+                    boolean measured = scenarioNanos / 1_000_000 >= DRY_RUN_STEP_MILLIS * Math.max(1, stepCount);
+                    if (passed && measured) {
+                        recordScenario(key(uri, String.valueOf(element.get("name"))), scenarioNanos / 1_000_000);
+                        for (Map.Entry<String, Long> step : stepMillis.entrySet()) {
+                            recordStep(step.getKey(), step.getValue());
+                        }
+                        imported++;
+                    }
+                }
+            }
+            logger.info("Historial de duraciones sembrado con {} escenarios de {}", imported, cucumberJson);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("No se pudo importar el historial desde {}: {}", cucumberJson, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el historial de duraciones {}: {}", file, e.getMessage());
+            return;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            String[] value = properties.getProperty(name).split(",");
+            try {
+                Entry entry = new Entry(Long.parseLong(value[0].trim()), value.length > 1 ? Integer.parseInt(value[1].trim()) : 1);
+                if (name.startsWith(SCENARIO)) {
+                    scenarios.put(name.substring(SCENARIO.length()), entry);
+                } else if (name.startsWith(STEP)) {
+                    steps.put(name.substring(STEP.length()), entry);
+                }
+            } catch (NumberFormatException e) {
+                logger.warn("Entrada inválida en el historial de duraciones: {}", name);
+            }
+        }
+    }
+
+    /**
+     * Escribe el historial si hubo cambios (archivo temporal + rename, para no dejarlo a medias)
+     */
+    public synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        changed = false;
+        Properties properties = new Properties();
+        for (Map.Entry<String, Entry> entry : scenarios.entrySet()) {
+            properties.setProperty(SCENARIO + entry.getKey(), entry.getValue().toString());
+        }
+        for (Map.Entry<String, Entry> entry : steps.entrySet()) {
+            properties.setProperty(STEP + entry.getKey(), entry.getValue().toString());
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Duración media (ms) y ejecuciones por escenario y por paso");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("No se pudo guardar el historial de duraciones {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Duración esperada de un escenario y si sale de su propio historial
+     */
+    public static final class Estimate {
+        private final long millis;
+        private final boolean fromHistory;
+
+        Estimate(long millis, boolean fromHistory) {
+            this.millis = millis;
+            this.fromHistory = fromHistory;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public boolean isFromHistory() {
+            return fromHistory;
+        }
+    }
+
+    private static final class Entry {
+        final long millis;
+        final int runs;
+
+        Entry(long millis, int runs) {
+            this.millis = millis;
+            this.runs = runs;
+        }
+
+        @Override
+        public String toString() {
+            return millis + "," + runs;
+        }
+    }
+}
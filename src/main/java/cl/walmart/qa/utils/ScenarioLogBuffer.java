@@ -0,0 +1,159 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.message.Message;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Buffer circular de log por escenario (uno por hilo)
+ * Guarda en memoria los eventos detallados del escenario en curso; si falla se vuelcan
+ * al reporte de Cucumber y si pasa se descartan. Los arreglos se reservan una sola vez
+ * por hilo y se reutilizan entre escenarios; al llenarse se sobrescriben los más antiguos.
+ * Se guardan los mensajes sin formatear: el formateo se hace recién al volcar, así un escenario
+ * exitoso no paga ese costo.
+ */
+public final class ScenarioLogBuffer {
+
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final ThreadLocal<Ring> current = new ThreadLocal<>();
+
+    private ScenarioLogBuffer() {
+    }
+
+    /**
+     * Comienza a capturar los eventos del hilo actual
+     *
+     * @param capacity Cantidad máxima de eventos retenidos (los más antiguos se sobrescriben)
+     */
+    public static void start(int capacity) {
+        Ring ring = current.get();
+        if (ring == null || ring.capacity() != capacity) {
+            ring = new Ring(capacity);
+            current.set(ring);
+        }
+        ring.clear();
+        ring.active = true;
+    }
+
+    /**
+     * Indica si hay un escenario capturando en el hilo actual
+     */
+    public static boolean isActive() {
+        Ring ring = current.get();
+        return ring != null && ring.active;
+    }
+
+    /**
+     * Registra un evento en el buffer del hilo actual (sin efecto si no hay escenario activo)
+     */
+    public static void record(long epochMillis, Level level, String loggerName, Message message, Throwable thrown) {
+        Ring ring = current.get();
+        if (ring != null && ring.active) {
+            ring.add(epochMillis, level, loggerName, message, thrown);
+        }
+    }
+
+    /**
+     * Devuelve el log del escenario formateado y detiene la captura
+     */
+    public static String drain() {
+        Ring ring = current.get();
+        if (ring == null) {
+            return "";
+        }
+        ring.active = false;
+        String text = ring.format();
+        ring.clear();
+        return text;
+    }
+
+    /**
+     * Descarta el log del escenario y detiene la captura
+     */
+    public static void discard() {
+        Ring ring = current.get();
+        if (ring != null) {
+            ring.active = false;
+            ring.clear();
+        }
+    }
+
+    private static final class Ring {
+        private final long[] times;
+        private final Level[] levels;
+        private final String[] loggers;
+        private final Message[] messages;
+        private final Throwable[] throwables;
+        private int next;
+        private long total;
+        private boolean active;
+
+        Ring(int capacity) {
+            int size = Math.max(1, capacity);
+            times = new long[size];
+            levels = new Level[size];
+            loggers = new String[size];
+            messages = new Message[size];
+            throwables = new Throwable[size];
+        }
+
+        int capacity() {
+            return times.length;
+        }
+
+        void add(long epochMillis, Level level, String loggerName, Message message, Throwable thrown) {
+            times[next] = epochMillis;
+            levels[next] = level;
+            loggers[next] = loggerName;
+            messages[next] = message;
+            throwables[next] = thrown;
+            next = (next + 1) % times.length;
+            total++;
+        }
+
+        void clear() {
+            for (int i = 0; i < times.length; i++) {
+                messages[i] = null;
+                throwables[i] = null;
+            }
+            next = 0;
+            total = 0;
+        }
+
+        String format() {
+            StringBuilder text = new StringBuilder();
+            int size = (int) Math.min(total, times.length);
+            if (total > size) {
+                text.append("... ").append(total - size).append(" eventos anteriores descartados\n");
+            }
+            int start = total > size ? next : 0;
+            for (int i = 0; i < size; i++) {
+                int index = (start + i) % times.length;
+                text.append(TIME_FORMAT.format(Instant.ofEpochMilli(times[index])))
+                        .append(' ').append(String.format("%-5s", levels[index]))
+                        .append(' ').append(shortName(loggers[index]))
+                        .append(" - ").append(messages[index].getFormattedMessage()).append('\n');
+                if (throwables[index] != null) {
+                    StringWriter trace = new StringWriter();
+                    throwables[index].printStackTrace(new PrintWriter(trace));
+                    text.append(trace);
+                }
+            }
+            return text.toString();
+        }
+
+        private static String shortName(String loggerName) {
+            if (loggerName == null) {
+                return "";
+            }
+            int dot = loggerName.lastIndexOf('.');
+            return dot < 0 ? loggerName : loggerName.substring(dot + 1);
+        }
+    }
+}
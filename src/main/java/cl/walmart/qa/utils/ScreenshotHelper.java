@@ -1,16 +1,15 @@
 package cl.walmart.qa.utils;
 
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Helper para capturar screenshots durante la ejecución de pruebas
@@ -18,7 +17,8 @@ import java.util.Date;
 public class ScreenshotHelper {
     
     private static final Logger logger = LogManager.getLogger(ScreenshotHelper.class);
-    private static final String SCREENSHOT_DIR = "target/screenshots/";
+    private static final String REPORTS_DIR =
+            ConfigReader.getInstance().getProperty("reports.path", "target/cucumber-reports");
     
     /**
      * Captura un screenshot y lo guarda con un nombre específico
@@ -29,39 +29,46 @@ public class ScreenshotHelper {
      */
     public static String captureScreenshot(WebDriver driver, String screenshotName) {
         try {
-            // Crear directorio si no existe
-            File directory = new File(SCREENSHOT_DIR);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-            
-            // Generar timestamp
-            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-            
-            // Limpiar nombre del screenshot
-            String cleanName = screenshotName.replaceAll("[^a-zA-Z0-9]", "_");
-            
-            // Nombre del archivo
-            String fileName = cleanName + "_" + timestamp + ".png";
-            String filePath = SCREENSHOT_DIR + fileName;
-            
             // Capturar screenshot
             TakesScreenshot screenshot = (TakesScreenshot) driver;
-            File srcFile = screenshot.getScreenshotAs(OutputType.FILE);
-            File destFile = new File(filePath);
+            byte[] png = screenshot.getScreenshotAs(OutputType.BYTES);
             
-            // Copiar archivo
-            FileUtils.copyFile(srcFile, destFile);
+            // Guardar en el almacén direccionado por contenido (sin duplicados ni colisiones de nombre)
+            String filePath = ScreenshotStore.getInstance().store(png, screenshotName, Instant.now());
             
             logger.info("Screenshot capturado: {}", filePath);
             return filePath;
             
-        } catch (IOException e) {
+        } catch (RuntimeException e) {
             logger.error("Error al capturar screenshot: {}", e.getMessage(), e);
             return null;
         }
     }
     
+    /**
+     * Captura un screenshot como bytes y delega el nombrado y la escritura al
+     * ScreenshotWriter en segundo plano; el paso no espera la E/S de disco
+     * 
+     * @param driver WebDriver activo
+     * @param screenshotName Nombre descriptivo del screenshot
+     * @return Future con la ruta del archivo (null si se descartó por backpressure)
+     */
+    public static CompletableFuture<String> captureScreenshotAsync(WebDriver driver, String screenshotName) {
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        return saveScreenshotAsync(png, screenshotName);
+    }
+    
+    /**
+     * Encola bytes PNG ya capturados (p. ej. los adjuntados al reporte) para escribirse en segundo plano
+     * 
+     * @param png Bytes PNG del screenshot
+     * @param screenshotName Nombre descriptivo del screenshot
+     * @return Future con la ruta del archivo (null si se descartó por backpressure)
+     */
+    public static CompletableFuture<String> saveScreenshotAsync(byte[] png, String screenshotName) {
+        return ScreenshotWriter.getInstance().submit(png, screenshotName, Instant.now());
+    }
+    
     /**
      * Captura un screenshot con nombre basado en el escenario actual
      * 
@@ -88,15 +95,17 @@ public class ScreenshotHelper {
     }
     
     /**
-     * Obtiene la ruta relativa para embedder en reportes
+     * Obtiene la ruta relativa al directorio de reportes (reports.path) para embeber en ellos
      * 
-     * @param absolutePath Ruta absoluta del screenshot
-     * @return Ruta relativa para reportes
+     * @param absolutePath Ruta del screenshot (absoluta o relativa al directorio de trabajo)
+     * @return Ruta relativa para reportes, p. ej. ../screenshots/objects/ab/ab12....png
      */
     public static String getRelativePath(String absolutePath) {
         if (absolutePath == null) {
             return null;
         }
-        return absolutePath.replace("target/", "../");
+        Path reportsDir = Paths.get(REPORTS_DIR).toAbsolutePath().normalize();
+        Path screenshot = Paths.get(absolutePath).toAbsolutePath().normalize();
+        return reportsDir.relativize(screenshot).toString().replace('\\', '/');
     }
 }
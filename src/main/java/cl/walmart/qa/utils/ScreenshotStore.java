@@ -0,0 +1,222 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Almacén de screenshots direccionado por contenido
+ * Cada imagen se guarda una sola vez como objects/&lt;2 hex&gt;/&lt;sha256&gt;.png y los
+ * escenarios la referencian a través de index.tsv (fecha, nombre, objeto, hashes).
+ * Opcionalmente fusiona casi-duplicados con un hash perceptual (dHash de 64 bits):
+ * si la distancia de Hamming es menor o igual a screenshots.dedup.perceptual.threshold
+ * se reutiliza la imagen existente (-1 lo desactiva).
+ */
+public class ScreenshotStore {
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotStore.class);
+    private static final String INDEX_FILE = "index.tsv";
+    // Columna de hash del índice para imágenes sin hash perceptual
+    private static final String NO_HASH = "-";
+    private static final String OBJECTS_DIR = "objects";
+
+    private static volatile ScreenshotStore instance;
+
+    private final String root;
+    private final int perceptualThreshold;
+    private final List<PerceptualEntry> perceptualIndex = new ArrayList<>();
+
+    private ScreenshotStore() {
+        ConfigReader config = ConfigReader.getInstance();
+        String path = config.getProperty("screenshots.path", "target/screenshots");
+        this.root = path.endsWith("/") ? path : path + "/";
+        this.perceptualThreshold = config.getPropertyAsInt("screenshots.dedup.perceptual.threshold", -1);
+        loadPerceptualIndex();
+    }
+
+    /**
+     * Obtiene la instancia única del almacén (Singleton)
+     */
+    public static ScreenshotStore getInstance() {
+        if (instance == null) {
+            synchronized (ScreenshotStore.class) {
+                if (instance == null) {
+                    instance = new ScreenshotStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Guarda la imagen (si aún no existe) y registra la referencia en el índice
+     *
+     * @param png Bytes PNG del screenshot
+     * @param screenshotName Nombre descriptivo (escenario/paso)
+     * @param capturedAt Momento de la captura
+     * @return Ruta del objeto, p. ej. target/screenshots/objects/ab/ab12....png
+     */
+    public String store(byte[] png, String screenshotName, Instant capturedAt) {
+        String sha = sha256(png);
+        // Sin hash (deduplicación apagada o imagen ilegible) solo se deduplica por contenido exacto
+        OptionalLong dHash = perceptualThreshold >= 0 ? differenceHash(png) : OptionalLong.empty();
+
+        synchronized (this) {
+            String objectPath = null;
+            if (dHash.isPresent()) {
+                objectPath = findNearDuplicate(dHash.getAsLong());
+                if (objectPath != null) {
+                    logger.debug("Screenshot '{}' fusionado con casi-duplicado {}", screenshotName, objectPath);
+                }
+            }
+            if (objectPath == null) {
+                objectPath = writeObject(sha, png);
+                if (dHash.isPresent()) {
+                    perceptualIndex.add(new PerceptualEntry(dHash.getAsLong(), objectPath));
+                }
+            }
+            appendIndex(capturedAt, screenshotName, objectPath, sha, dHash);
+            return objectPath;
+        }
+    }
+
+    private String writeObject(String sha, byte[] png) {
+        String objectPath = root + OBJECTS_DIR + "/" + sha.substring(0, 2) + "/" + sha + ".png";
+        Path target = Paths.get(objectPath);
+        if (Files.exists(target)) {
+            logger.debug("Screenshot idéntico ya almacenado: {}", objectPath);
+            return objectPath;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), sha, ".tmp");
+            Files.write(tmp, png);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(tmp);
+            }
+            return objectPath;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al guardar screenshot " + objectPath, e);
+        }
+    }
+
+    private void appendIndex(Instant capturedAt, String name, String objectPath, String sha, OptionalLong dHash) {
+        Path index = Paths.get(root + INDEX_FILE);
+        String line = capturedAt + "\t" + name.replaceAll("[\\t\\r\\n]", " ") + "\t" + objectPath
+                + "\t" + sha + "\t" + (dHash.isPresent() ? Long.toHexString(dHash.getAsLong()) : NO_HASH)
+                + System.lineSeparator();
+        try {
+            Files.createDirectories(index.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(index, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(line);
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo actualizar el índice de screenshots: {}", e.getMessage());
+        }
+    }
+
+    private String findNearDuplicate(long dHash) {
+        for (PerceptualEntry entry : perceptualIndex) {
+            if (Long.bitCount(entry.hash ^ dHash) <= perceptualThreshold) {
+                return entry.objectPath;
+            }
+        }
+        return null;
+    }
+
+    private void loadPerceptualIndex() {
+        Path index = Paths.get(root + INDEX_FILE);
+        if (perceptualThreshold < 0 || !Files.exists(index)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                String[] columns = line.split("\t");
+                if (columns.length == 5 && !NO_HASH.equals(columns[4]) && Files.exists(Paths.get(columns[2]))) {
+                    perceptualIndex.add(new PerceptualEntry(Long.parseUnsignedLong(columns[4], 16), columns[2]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("No se pudo leer el índice de screenshots: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * dHash: reduce la imagen a 9x8 en escala de grises y compara cada píxel con su vecino derecho
+     *
+     * @return vacío si la imagen no se pudo decodificar (no participa de la deduplicación perceptual)
+     */
+    private static OptionalLong differenceHash(byte[] png) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                logger.debug("Formato de imagen no reconocido: sin hash perceptual");
+                return OptionalLong.empty();
+            }
+            BufferedImage small = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D graphics = small.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, 9, 8, null);
+            graphics.dispose();
+
+            long hash = 0L;
+            for (int y = 0; y < 8; y++) {
+                for (int x = 0; x < 8; x++) {
+                    int left = small.getRaster().getSample(x, y, 0);
+                    int right = small.getRaster().getSample(x + 1, y, 0);
+                    hash = (hash << 1) | (left > right ? 1 : 0);
+                }
+            }
+            return OptionalLong.of(hash);
+        } catch (IOException e) {
+            logger.debug("No se pudo calcular el hash perceptual: {}", e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(data)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static class PerceptualEntry {
+        private final long hash;
+        private final String objectPath;
+
+        PerceptualEntry(long hash, String objectPath) {
+            this.hash = hash;
+            this.objectPath = objectPath;
+        }
+    }
+}
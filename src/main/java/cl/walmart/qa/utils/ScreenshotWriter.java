@@ -0,0 +1,140 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritor de screenshots en segundo plano
+ * Recibe los bytes PNG capturados en el hilo del paso y hace el hash y la escritura
+ * en el ScreenshotStore en un hilo aparte, con una cola acotada y backpressure configurable:
+ * - block: el paso espera si la cola está llena (no se pierde nada)
+ * - caller-runs: el paso escribe el archivo él mismo si la cola está llena (o si el escritor ya cerró)
+ * - drop: se descarta el screenshot si la cola está llena
+ * Al terminar la JVM se vacía la cola antes de salir.
+ */
+public class ScreenshotWriter {
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotWriter.class);
+    private static volatile ScreenshotWriter instance;
+
+    private final String backpressure;
+    private final int flushTimeoutSeconds;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private ScreenshotWriter() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.backpressure = config.getProperty("screenshots.async.backpressure", "block").trim().toLowerCase();
+        this.flushTimeoutSeconds = config.getPropertyAsInt("screenshots.async.flush.timeout", 30);
+        int queueSize = config.getPropertyAsInt("screenshots.async.queue.size", 32);
+
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, rejectionHandler());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "screenshot-writer-flush"));
+    }
+
+    /**
+     * Obtiene la instancia única del escritor (Singleton)
+     */
+    public static ScreenshotWriter getInstance() {
+        if (instance == null) {
+            synchronized (ScreenshotWriter.class) {
+                if (instance == null) {
+                    instance = new ScreenshotWriter();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Encola un screenshot para escribirse en segundo plano
+     *
+     * @param png Bytes PNG capturados con OutputType.BYTES
+     * @param screenshotName Nombre descriptivo
+     * @param capturedAt Momento de la captura (se registra en el índice)
+     * @return Future con la ruta del archivo, o null si se descartó
+     */
+    public CompletableFuture<String> submit(byte[] png, String screenshotName, Instant capturedAt) {
+        try {
+            return CompletableFuture.supplyAsync(() -> write(png, screenshotName, capturedAt), executor);
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            logger.warn("Cola de screenshots llena; se descarta '{}'", screenshotName);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Escribe los screenshots pendientes y registra las métricas si el escritor llegó a usarse
+     * (lo invoca RunReportsPlugin al terminar la ejecución; el shutdown hook queda para lo que
+     * se capture después, p. ej. en hooks @AfterAll)
+     */
+    public static void finish() {
+        ScreenshotWriter writer = instance;
+        if (writer != null) {
+            writer.flush();
+            logger.info("Screenshots escritos: {}, descartados: {}", writer.written.get(), writer.dropped.get());
+        }
+    }
+
+    /**
+     * Espera a que se escriban todos los screenshots pendientes
+     */
+    public void flush() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(flushTimeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("Quedaron {} screenshots sin escribir tras {}s", executor.getQueue().size(), flushTimeoutSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String write(byte[] png, String screenshotName, Instant capturedAt) {
+        String filePath = ScreenshotStore.getInstance().store(png, screenshotName, capturedAt);
+        written.incrementAndGet();
+        logger.info("Screenshot capturado: {}", filePath);
+        return filePath;
+    }
+
+    private RejectedExecutionHandler rejectionHandler() {
+        switch (backpressure) {
+            case "drop":
+                return new ThreadPoolExecutor.AbortPolicy();
+            case "caller-runs":
+                // CallerRunsPolicy descarta en silencio la tarea si el pool ya cerró (tras flush):
+                // el future quedaría sin completarse. Aquí el hilo que llama escribe siempre.
+                return (runnable, pool) -> runnable.run();
+            default:
+                return (runnable, pool) -> {
+                    if (pool.isShutdown()) {
+                        // Durante el cierre se escribe en el hilo que llama para no perder nada
+                        runnable.run();
+                        return;
+                    }
+                    try {
+                        pool.getQueue().put(runnable);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrumpido esperando espacio en la cola", e);
+                    }
+                };
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reintento de pasos idempotentes con backoff y presupuesto
+ * Un paso marcado como reintentable se vuelve a ejecutar si falla (AssertionError o RuntimeException),
+ * esperando retries.backoff.ms * 2^(n-1) entre intentos, mientras queden reintentos en el presupuesto
+ * del escenario (retries.budget.scenario) y de la ejecución (retries.budget.run).
+ * Cada reintento queda registrado para el reporte del escenario. Por paso se acumula, también entre
+ * ejecuciones (retries.stats.file), cuántas veces necesitó reintentos: su índice de inestabilidad.
+ */
+public final class StepRetry {
+
+    private static final Logger logger = LogManager.getLogger(StepRetry.class);
+    private static final ConfigReader config = ConfigReader.getInstance();
+    private static final Map<String, StepStats> stats = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Scenario> scenario = ThreadLocal.withInitial(Scenario::new);
+    private static final AtomicInteger runBudget = new AtomicInteger(config.getPropertyAsInt("retries.budget.run", 20));
+    private static final AtomicInteger budgetDenials = new AtomicInteger();
+    private static final AtomicLong runExecutions = new AtomicLong();
+    private static final Path statsFile = Paths.get(config.getProperty("retries.stats.file", "retry-stats.properties"));
+
+    static {
+        loadStats();
+    }
+
+    private StepRetry() {
+    }
+
+    /**
+     * Reinicia el presupuesto del escenario que corre en el hilo actual
+     *
+     * @param enabled false para no reintentar en este escenario (tag @sin-reintentos)
+     */
+    public static void startScenario(boolean enabled) {
+        Scenario current = scenario.get();
+        current.enabled = enabled;
+        current.budget = config.getPropertyAsInt("retries.budget.scenario", 3);
+        current.log.clear();
+    }
+
+    /**
+     * Ejecuta un paso reintentable
+     *
+     * @param step        nombre estable del paso (método de step definition)
+     * @param attempts    intentos totales (0 = retries.attempts)
+     * @param backoffMillis espera antes del primer reintento (0 = retries.backoff.ms)
+     */
+    public static void run(String step, int attempts, long backoffMillis, Runnable body) {
+        int maxAttempts = attempts > 0 ? attempts : config.getPropertyAsInt("retries.attempts", 3);
+        long backoff = backoffMillis > 0 ? backoffMillis : config.getPropertyAsInt("retries.backoff.ms", 500);
+        Scenario current = scenario.get();
+        StepStats stepStats = stats.computeIfAbsent(step, k -> new StepStats());
+        stepStats.executions.incrementAndGet();
+        runExecutions.incrementAndGet();
+        int attempt = 1;
+        while (true) {
+            try {
+                body.run();
+                if (attempt > 1) {
+                    stepStats.retried.incrementAndGet();
+                    current.log.add(String.format("%s: pasó en el intento %d", step, attempt));
+                }
+                return;
+            } catch (AssertionError | RuntimeException e) {
+                if (attempt >= maxAttempts || !current.enabled) {
+                    if (attempt > 1) {
+                        stepStats.retried.incrementAndGet();
+                        stepStats.exhausted.incrementAndGet();
+                        current.log.add(String.format("%s: falló tras %d intentos: %s", step, attempt, e.getMessage()));
+                    }
+                    throw e;
+                }
+                if (current.budget <= 0 || !takeFromRunBudget()) {
+                    budgetDenials.incrementAndGet();
+                    if (attempt > 1) {
+                        stepStats.retried.incrementAndGet();
+                        stepStats.exhausted.incrementAndGet();
+                    }
+                    current.log.add(String.format("%s: sin presupuesto de reintentos (%s)", step,
+                            current.budget <= 0 ? "escenario" : "ejecución"));
+                    throw e;
+                }
+                current.budget--;
+                long wait = backoff << (attempt - 1);
+                stepStats.retries.incrementAndGet();
+                current.log.add(String.format("%s: intento %d falló (%s), reintento en %d ms", step, attempt, e.getMessage(), wait));
+                logger.warn("Paso '{}' falló en el intento {} de {}, se reintenta en {} ms: {}",
+                        step, attempt, maxAttempts, wait, e.getMessage());
+                sleep(wait);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Cierra el escenario del hilo actual
+     *
+     * @return Reintentos ocurridos en el escenario, para adjuntarlos al reporte
+     */
+    public static List<String> endScenario() {
+        Scenario current = scenario.get();
+        List<String> log = new ArrayList<>(current.log);
+        current.log.clear();
+        return log;
+    }
+
+    private static boolean takeFromRunBudget() {
+        while (true) {
+            int left = runBudget.get();
+            if (left <= 0) {
+                return false;
+            }
+            if (runBudget.compareAndSet(left, left - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido esperando para reintentar el paso", e);
+        }
+    }
+
+    /**
+     * Índice de inestabilidad por paso: fracción de ejecuciones (históricas) que necesitaron reintento
+     */
+    public static String flakinessReport() {
+        List<Map.Entry<String, StepStats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort((a, b) -> Double.compare(b.getValue().score(), a.getValue().score()));
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-60s %10s %10s %10s %10s %8s%n", "Paso", "ejecuc.", "con reint.", "reintentos", "agotados", "índice"));
+        for (Map.Entry<String, StepStats> entry : entries) {
+            StepStats s = entry.getValue();
+            if (s.executions.get() == 0) {
+                continue;
+            }
+            sb.append(String.format("%-60s %10d %10d %10d %10d %8.2f%n", entry.getKey(), s.executions.get(),
+                    s.retried.get(), s.retries.get(), s.exhausted.get(), s.score()));
+        }
+        sb.append(String.format("Presupuesto de la ejecución restante: %d, reintentos denegados por presupuesto: %d%n",
+                Math.max(0, runBudget.get()), budgetDenials.get()));
+        return sb.toString();
+    }
+
+    /**
+     * Guarda las estadísticas y escribe el reporte de inestabilidad
+     * (lo invoca RunReportsPlugin al terminar la ejecución)
+     */
+    public static void finish() {
+        if (runExecutions.get() == 0) {
+            return;
+        }
+        saveStats();
+        Path report = Paths.get(config.getProperty("retries.report.file", "target/cucumber-reports/step-retries.txt"));
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            Files.write(report, flakinessReport().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el reporte de reintentos {}: {}", report, e.getMessage());
+        }
+    }
+
+    private static void loadStats() {
+        if (!Files.exists(statsFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(statsFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warn("No se pudieron leer las estadísticas de reintentos {}: {}", statsFile, e.getMessage());
+            return;
+        }
+        for (String step : properties.stringPropertyNames()) {
+            String[] values = properties.getProperty(step).split(",");
+            try {
+                StepStats s = new StepStats();
+                s.executions.set(Long.parseLong(values[0].trim()));
+                s.retried.set(Long.parseLong(values[1].trim()));
+                s.retries.set(Long.parseLong(values[2].trim()));
+                s.exhausted.set(Long.parseLong(values[3].trim()));
+                stats.put(step, s);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                logger.warn("Entrada inválida en las estadísticas de reintentos: {}", step);
+            }
+        }
+    }
+
+    private static void saveStats() {
+        Properties properties = new Properties();
+        for (Map.Entry<String, StepStats> entry : stats.entrySet()) {
+            StepStats s = entry.getValue();
+            properties.setProperty(entry.getKey(), s.executions.get() + "," + s.retried.get() + ","
+                    + s.retries.get() + "," + s.exhausted.get());
+        }
+        try {
+            if (statsFile.getParent() != null) {
+                Files.createDirectories(statsFile.getParent());
+            }
+            Path temp = statsFile.resolveSibling(statsFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Por paso: ejecuciones, ejecuciones con reintento, reintentos, reintentos agotados");
+            }
+            Files.move(temp, statsFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("No se pudieron guardar las estadísticas de reintentos {}: {}", statsFile, e.getMessage());
+        }
+    }
+
+    private static final class Scenario {
+        boolean enabled = true;
+        int budget;
+        final List<String> log = new ArrayList<>();
+    }
+
+    private static final class StepStats {
+        final AtomicLong executions = new AtomicLong();
+        final AtomicLong retried = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        final AtomicLong exhausted = new AtomicLong();
+
+        double score() {
+            long count = executions.get();
+            return count == 0 ? 0 : (double) retried.get() / count;
+        }
+    }
+}
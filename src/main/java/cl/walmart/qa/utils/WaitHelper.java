@@ -1,108 +1,331 @@
 package cl.walmart.qa.utils;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.Sleeper;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
- * Helper class para manejar esperas explícitas de manera centralizada
- * Implementa buenas prácticas de sincronización en Selenium
+ * Motor de esperas único para toda la sincronización del framework
+ * - Polling adaptativo: sondeos rápidos al inicio con backoff hasta wait.poll.max.ms
+ * - Timeout por condición (withTimeout) sobre el timeout explícito por defecto
+ * - Garantiza que la espera implícita esté en 0 para no multiplicar los timeouts
+ * - Registra la duración de cada condición en WaitMetrics
  */
 public class WaitHelper {
-    
-    private WebDriver driver;
-    private WebDriverWait wait;
+
     private static final int DEFAULT_TIMEOUT = 10;
-    
+    private static final Map<WebDriver, Boolean> implicitWaitDisabled =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * DOM parseado: document.readyState interactive o complete
+     */
+    private static final Function<WebDriver, Boolean> DOM_READY = new Function<WebDriver, Boolean>() {
+        @Override
+        public Boolean apply(WebDriver webDriver) {
+            Object state = ((JavascriptExecutor) webDriver).executeScript("return document.readyState");
+            return "interactive".equals(state) || "complete".equals(state);
+        }
+
+        @Override
+        public String toString() {
+            return "document.readyState != loading";
+        }
+    };
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final long initialPollMillis;
+    private final long maxPollMillis;
+    private final double backoffFactor;
+
     public WaitHelper(WebDriver driver) {
-        this.driver = driver;
-        this.wait = new WebDriverWait(driver, DEFAULT_TIMEOUT);
+        this(driver, DEFAULT_TIMEOUT);
     }
-    
+
     public WaitHelper(WebDriver driver, int timeoutInSeconds) {
+        this(driver, Duration.ofSeconds(timeoutInSeconds));
+    }
+
+    private WaitHelper(WebDriver driver, Duration timeout) {
+        ConfigReader config = ConfigReader.getInstance();
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, timeoutInSeconds);
+        this.timeout = timeout;
+        this.initialPollMillis = config.getPropertyAsInt("wait.poll.initial.ms", 50);
+        this.maxPollMillis = config.getPropertyAsInt("wait.poll.max.ms", 500);
+        this.backoffFactor = config.getPropertyAsDouble("wait.poll.backoff", 1.5);
+        disableImplicitWait(driver);
+    }
+
+    /**
+     * Desactiva la espera implícita del driver (una sola vez por instancia)
+     * Toda la sincronización pasa por condiciones explícitas de este motor
+     */
+    public static void disableImplicitWait(WebDriver driver) {
+        if (implicitWaitDisabled.putIfAbsent(driver, Boolean.TRUE) == null) {
+            driver.manage().timeouts().implicitlyWait(0, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Devuelve un WaitHelper sobre el mismo driver con otro timeout
+     */
+    public WaitHelper withTimeout(Duration conditionTimeout) {
+        return new WaitHelper(driver, conditionTimeout);
+    }
+
+    /**
+     * Evalúa una condición con polling adaptativo y registra su duración
+     */
+    public <T> T until(Function<? super WebDriver, T> condition) {
+        return until(condition, timeout);
+    }
+
+    /**
+     * Evalúa una condición con un timeout específico para esa condición
+     */
+    public <T> T until(Function<? super WebDriver, T> condition, Duration conditionTimeout) {
+        long start = System.nanoTime();
+        boolean satisfied = false;
+        try {
+            T result = poll(condition, conditionTimeout);
+            satisfied = true;
+            return result;
+        } finally {
+            WaitMetrics.record(condition.toString(), System.nanoTime() - start, satisfied);
+        }
+    }
+
+    /**
+     * Polling adaptativo sin registrar métricas, para esperas que forman parte de otra medición
+     */
+    private <T> T poll(Function<? super WebDriver, T> condition, Duration conditionTimeout) {
+        FluentWait<WebDriver> wait = new FluentWait<>(driver, Clock.systemDefaultZone(), new BackoffSleeper())
+                .withTimeout(conditionTimeout)
+                .pollingEvery(Duration.ofMillis(initialPollMillis))
+                .ignoring(NotFoundException.class)
+                .withMessage(condition.toString());
+        return wait.until(condition);
+    }
+
+    /**
+     * Compite varias condiciones y devuelve el índice de la primera que se cumple
+     * Pensado para verificaciones "o bien / o bien": retorna apenas la página llega
+     * a un estado decisivo, sin agotar el timeout en el camino normal.
+     *
+     * @return índice de la condición ganadora, o -1 si ninguna se cumplió antes del timeout
+     */
+    @SafeVarargs
+    public final int waitForFirst(Duration conditionTimeout, Function<? super WebDriver, ?>... conditions) {
+        StringBuilder description = new StringBuilder("primera de: ");
+        for (int i = 0; i < conditions.length; i++) {
+            description.append(i == 0 ? "" : " | ").append(conditions[i]);
+        }
+        BackoffSleeper sleeper = new BackoffSleeper();
+        long start = System.nanoTime();
+        long deadline = start + conditionTimeout.toNanos();
+        int winner = -1;
+        try {
+            while (true) {
+                for (int i = 0; i < conditions.length; i++) {
+                    if (isSatisfied(conditions[i])) {
+                        winner = i;
+                        return winner;
+                    }
+                }
+                if (System.nanoTime() >= deadline) {
+                    return winner;
+                }
+                sleeper.sleep(null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return winner;
+        } finally {
+            WaitMetrics.record(description.toString(), System.nanoTime() - start, winner >= 0);
+        }
     }
-    
+
+    /**
+     * Devuelve el índice del primer localizador visible (-1 si ninguno lo está a tiempo)
+     */
+    public int waitForFirstVisible(By... locators) {
+        Function<?, ?>[] conditions = new Function<?, ?>[locators.length];
+        for (int i = 0; i < locators.length; i++) {
+            conditions[i] = ExpectedConditions.visibilityOfElementLocated(locators[i]);
+        }
+        @SuppressWarnings("unchecked")
+        Function<? super WebDriver, ?>[] typed = (Function<? super WebDriver, ?>[]) conditions;
+        return waitForFirst(timeout, typed);
+    }
+
+    /**
+     * Espera a que el documento termine de cargar (document.readyState)
+     */
+    public void waitForDocumentReady() {
+        until(new Function<WebDriver, Boolean>() {
+            @Override
+            public Boolean apply(WebDriver webDriver) {
+                return "complete".equals(((JavascriptExecutor) webDriver).executeScript("return document.readyState"));
+            }
+
+            @Override
+            public String toString() {
+                return "document.readyState == complete";
+            }
+        });
+    }
+
+    /**
+     * Espera a que el DOM esté parseado (document.readyState interactive o complete)
+     * Es lo que garantiza page.load.strategy eager; no espera imágenes ni scripts diferidos.
+     */
+    public void waitForDomReady() {
+        until(DOM_READY);
+    }
+
+    /**
+     * Confirma ausencia: una vez que el DOM está parseado, el elemento no existe o no es
+     * visible. No espera el timeout completo ni el evento load; los page objects ya esperaron
+     * su contrato de preparación al construirse.
+     */
+    public boolean isAbsent(By locator) {
+        long start = System.nanoTime();
+        boolean checked = false;
+        boolean absent = true;
+        try {
+            // La espera del DOM es parte de esta medición: se registra una sola entrada por ausencia
+            poll(DOM_READY, timeout);
+            try {
+                for (WebElement element : driver.findElements(locator)) {
+                    if (element.isDisplayed()) {
+                        absent = false;
+                        break;
+                    }
+                }
+            } catch (StaleElementReferenceException e) {
+                absent = true;
+            }
+            checked = true;
+            return absent;
+        } finally {
+            // Solo un timeout esperando el DOM cuenta como espera agotada; encontrar el elemento no lo es
+            WaitMetrics.record("ausencia de " + locator, System.nanoTime() - start, checked);
+        }
+    }
+
+    private boolean isSatisfied(Function<? super WebDriver, ?> condition) {
+        try {
+            Object value = condition.apply(driver);
+            return value != null && !Boolean.FALSE.equals(value);
+        } catch (NotFoundException | StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
     /**
      * Espera hasta que el elemento sea visible
      */
     public WebElement waitForElementToBeVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return until(ExpectedConditions.visibilityOfElementLocated(locator));
     }
-    
+
     /**
      * Espera hasta que el elemento sea visible
      */
     public WebElement waitForElementToBeVisible(WebElement element) {
-        return wait.until(ExpectedConditions.visibilityOf(element));
+        return until(ExpectedConditions.visibilityOf(element));
     }
-    
+
     /**
      * Espera hasta que el elemento sea clickeable
      */
     public WebElement waitForElementToBeClickable(By locator) {
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        return until(ExpectedConditions.elementToBeClickable(locator));
     }
-    
+
     /**
      * Espera hasta que el elemento sea clickeable
      */
     public WebElement waitForElementToBeClickable(WebElement element) {
-        return wait.until(ExpectedConditions.elementToBeClickable(element));
+        return until(ExpectedConditions.elementToBeClickable(element));
     }
-    
+
     /**
      * Espera hasta que el elemento esté presente en el DOM
      */
     public WebElement waitForElementToBePresent(By locator) {
-        return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        return until(ExpectedConditions.presenceOfElementLocated(locator));
     }
-    
+
     /**
      * Espera hasta que todos los elementos estén presentes
      */
     public List<WebElement> waitForElementsToBePresent(By locator) {
-        return wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+        return until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
     }
-    
+
     /**
      * Espera hasta que el texto esté presente en el elemento
      */
     public boolean waitForTextToBePresentInElement(By locator, String text) {
-        return wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+        return until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
     }
-    
+
     /**
      * Espera hasta que el elemento desaparezca
      */
     public boolean waitForElementToBeInvisible(By locator) {
-        return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        return until(ExpectedConditions.invisibilityOfElementLocated(locator));
     }
-    
+
     /**
      * Espera hasta que la URL contenga el texto especificado
      */
     public boolean waitForUrlContains(String urlFragment) {
-        return wait.until(ExpectedConditions.urlContains(urlFragment));
+        return until(ExpectedConditions.urlContains(urlFragment));
     }
-    
+
     /**
      * Espera hasta que el elemento sea seleccionable
      */
     public boolean waitForElementToBeSelected(By locator) {
-        return wait.until(ExpectedConditions.elementToBeSelected(locator));
+        return until(ExpectedConditions.elementToBeSelected(locator));
     }
-    
+
     /**
      * Espera con timeout personalizado
      */
     public WebElement waitForElementWithCustomTimeout(By locator, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, timeoutInSeconds);
-        return customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return until(ExpectedConditions.visibilityOfElementLocated(locator), Duration.ofSeconds(timeoutInSeconds));
+    }
+
+    /**
+     * Sleeper con backoff: el primer sondeo es casi inmediato y el intervalo
+     * crece multiplicativamente hasta wait.poll.max.ms
+     */
+    private class BackoffSleeper implements Sleeper {
+        private long nextMillis = initialPollMillis;
+
+        @Override
+        public void sleep(Duration ignored) throws InterruptedException {
+            Thread.sleep(nextMillis);
+            nextMillis = Math.min(maxPollMillis, (long) Math.ceil(nextMillis * backoffFactor));
+        }
     }
 }
@@ -0,0 +1,107 @@
+package cl.walmart.qa.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro de la duración de cada condición de espera evaluada por WaitHelper
+ * Acumula estadísticas por condición para toda la ejecución y el total por escenario (por hilo)
+ */
+public class WaitMetrics {
+
+    private static final Logger logger = LogManager.getLogger(WaitMetrics.class);
+    private static final Map<String, ConditionStats> stats = new ConcurrentHashMap<>();
+    private static final ThreadLocal<long[]> scenarioTotals = ThreadLocal.withInitial(() -> new long[2]);
+
+    private WaitMetrics() {
+    }
+
+    /**
+     * Registra la evaluación de una condición
+     *
+     * @param condition Descripción de la condición (incluye el localizador)
+     * @param nanos Duración total de la espera
+     * @param satisfied true si la condición se cumplió antes del timeout
+     */
+    public static void record(String condition, long nanos, boolean satisfied) {
+        stats.computeIfAbsent(condition, k -> new ConditionStats()).add(nanos, satisfied);
+        long[] totals = scenarioTotals.get();
+        totals[0]++;
+        totals[1] += nanos;
+        logger.debug("Espera '{}' {} en {} ms", condition, satisfied ? "cumplida" : "agotada",
+                TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Reinicia los totales del escenario que corre en el hilo actual
+     */
+    public static void startScenario() {
+        long[] totals = scenarioTotals.get();
+        totals[0] = 0;
+        totals[1] = 0;
+    }
+
+    /**
+     * Resumen de las esperas del escenario actual
+     */
+    public static String scenarioSummary() {
+        long[] totals = scenarioTotals.get();
+        return totals[0] + " esperas, " + TimeUnit.NANOSECONDS.toMillis(totals[1]) + " ms en total";
+    }
+
+    /**
+     * Deja el resumen de la ejecución en el log (lo invoca RunReportsPlugin al terminar la ejecución)
+     */
+    public static void finish() {
+        if (!stats.isEmpty()) {
+            logger.info("Resumen de esperas por condición:\n{}", summary());
+        }
+    }
+
+    /**
+     * Tabla de condiciones ordenada por tiempo total consumido
+     */
+    public static String summary() {
+        List<Map.Entry<String, ConditionStats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().totalNanos.get(), a.getValue().totalNanos.get()));
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%8s %8s %10s %10s %10s  %s%n", "veces", "timeouts", "total ms", "prom ms", "máx ms", "condición"));
+        for (Map.Entry<String, ConditionStats> entry : entries) {
+            ConditionStats s = entry.getValue();
+            long count = s.count.get();
+            sb.append(String.format("%8d %8d %10d %10d %10d  %s%n",
+                    count, s.timeouts.get(),
+                    TimeUnit.NANOSECONDS.toMillis(s.totalNanos.get()),
+                    count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(s.totalNanos.get() / count),
+                    TimeUnit.NANOSECONDS.toMillis(s.maxNanos.get()),
+                    entry.getKey()));
+        }
+        return sb.toString();
+    }
+
+    private static class ConditionStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long nanos, boolean satisfied) {
+            count.incrementAndGet();
+            if (!satisfied) {
+                timeouts.incrementAndGet();
+            }
+            totalNanos.addAndGet(nanos);
+            long current;
+            while (nanos > (current = maxNanos.get()) && !maxNanos.compareAndSet(current, nanos)) {
+                // reintentar
+            }
+        }
+    }
+}
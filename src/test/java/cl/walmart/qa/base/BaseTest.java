@@ -1,62 +1,28 @@
 package cl.walmart.qa.base;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import cl.walmart.qa.driver.DriverPool;
+import cl.walmart.qa.utils.ConfigReader;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.firefox.FirefoxDriver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.concurrent.TimeUnit;
-
 /**
  * Clase base para inicializar y configurar el WebDriver
+ * Cada hilo mantiene su propio WebDriver para permitir la ejecución en paralelo
  */
 public class BaseTest {
-    protected static WebDriver driver;
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
     protected static final Logger logger = LogManager.getLogger(BaseTest.class);
-    protected static final String BASE_URL = "https://opencart.abstracta.us/";
-    protected static final int IMPLICIT_WAIT = 10;
 
     /**
-     * Inicializa el WebDriver según el navegador especificado
+     * Obtiene un WebDriver del pool según el navegador especificado
      * @param browser Nombre del navegador (chrome, firefox, edge)
      */
     public static void setUp(String browser) {
         logger.info("Iniciando configuración del navegador: " + browser);
         
         try {
-            switch (browser.toLowerCase()) {
-                case "chrome":
-                    WebDriverManager.chromedriver().setup();
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    chromeOptions.addArguments("--start-maximized");
-                    chromeOptions.addArguments("--disable-notifications");
-                    driver = new ChromeDriver(chromeOptions);
-                    break;
-                    
-                case "firefox":
-                    WebDriverManager.firefoxdriver().setup();
-                    driver = new FirefoxDriver();
-                    driver.manage().window().maximize();
-                    break;
-                    
-                case "edge":
-                    WebDriverManager.edgedriver().setup();
-                    driver = new EdgeDriver();
-                    driver.manage().window().maximize();
-                    break;
-                    
-                default:
-                    logger.warn("Navegador no reconocido. Usando Chrome por defecto.");
-                    WebDriverManager.chromedriver().setup();
-                    driver = new ChromeDriver();
-                    driver.manage().window().maximize();
-            }
-            
-            driver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT, TimeUnit.SECONDS);
+            driver.set(DriverPool.getInstance().lease(browser));
             logger.info("WebDriver inicializado correctamente");
             
         } catch (Exception e) {
@@ -66,21 +32,30 @@ public class BaseTest {
     }
 
     /**
-     * Cierra el navegador y limpia los recursos
+     * Devuelve el navegador al pool y limpia los recursos
      */
     public static void tearDown() {
-        if (driver != null) {
-            logger.info("Cerrando el navegador");
-            driver.quit();
-            driver = null;
+        WebDriver current = driver.get();
+        if (current != null) {
+            logger.info("Devolviendo el navegador al pool");
+            DriverPool.getInstance().release(current);
+            driver.remove();
         }
     }
 
     /**
-     * Navega a la URL base
+     * Navega a la URL base (app.url; el sitio local si app.embedded.enabled=true)
      */
     public static void navigateToBaseUrl() {
-        logger.info("Navegando a: " + BASE_URL);
-        driver.get(BASE_URL);
+        String baseUrl = ConfigReader.getInstance().getApplicationUrl();
+        logger.info("Navegando a: " + baseUrl);
+        getDriver().get(baseUrl);
+    }
+
+    /**
+     * Obtiene el WebDriver del hilo actual
+     */
+    public static WebDriver getDriver() {
+        return driver.get();
     }
 }
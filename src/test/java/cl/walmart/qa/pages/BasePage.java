@@ -1,16 +1,23 @@
 package cl.walmart.qa.pages;
 
 import cl.walmart.qa.utils.ConfigReader;
+import cl.walmart.qa.utils.DomBatchReader;
+import cl.walmart.qa.utils.ElementSnapshot;
+import cl.walmart.qa.utils.PageReadyMetrics;
 import cl.walmart.qa.utils.WaitHelper;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Clase base mejorada para todas las páginas (Page Object Model)
@@ -18,7 +25,6 @@ import java.util.List;
  */
 public class BasePage {
     protected WebDriver driver;
-    protected WebDriverWait wait;
     protected WaitHelper waitHelper;
     protected static final Logger logger = LogManager.getLogger(BasePage.class);
     protected static final ConfigReader config = ConfigReader.getInstance();
@@ -26,11 +32,89 @@ public class BasePage {
     public BasePage(WebDriver driver) {
         this.driver = driver;
         int timeout = config.getExplicitTimeout();
-        this.wait = new WebDriverWait(driver, timeout);
         this.waitHelper = new WaitHelper(driver, timeout);
         logger.debug("BasePage inicializada con timeout de {} segundos", timeout);
     }
 
+    /**
+     * Contrato de preparación de la página (elementos clave, patrón de URL y predicado JS opcional)
+     * Las páginas lo declaran y llaman a {@link #awaitReady()} al final de su constructor.
+     *
+     * @return null si la página no declara contrato
+     */
+    protected PageContract readiness() {
+        return null;
+    }
+
+    /**
+     * Espera solo por el contrato de la página, no por el evento load (page.load.strategy eager/none),
+     * y registra cuánto tardó la página en quedar lista desde el inicio de la navegación
+     */
+    protected final void awaitReady() {
+        PageContract contract = readiness();
+        if (contract == null) {
+            return;
+        }
+        String page = getClass().getSimpleName();
+        long start = System.nanoTime();
+        boolean satisfied = false;
+        try {
+            waitHelper.until(new Function<WebDriver, Boolean>() {
+                @Override
+                public Boolean apply(WebDriver webDriver) {
+                    return isReady(contract);
+                }
+
+                @Override
+                public String toString() {
+                    return "contrato de " + page + ": " + contract;
+                }
+            });
+            satisfied = true;
+        } finally {
+            long[] timing = satisfied ? readNavigationTiming() : new long[]{-1, -1};
+            PageReadyMetrics.record(page, timing[0], timing[1], System.nanoTime() - start, satisfied);
+        }
+    }
+
+    private boolean isReady(PageContract contract) {
+        try {
+            if (contract.getUrl() != null && !contract.getUrl().matcher(driver.getCurrentUrl()).find()) {
+                return false;
+            }
+            for (By locator : contract.getElements()) {
+                List<WebElement> found = driver.findElements(locator);
+                if (found.isEmpty() || !found.get(0).isDisplayed()) {
+                    return false;
+                }
+            }
+            return contract.getScript() == null || Boolean.TRUE.equals(
+                    ((JavascriptExecutor) driver).executeScript("return !!(" + contract.getScript() + ");"));
+        } catch (StaleElementReferenceException e) {
+            // La navegación reemplazó el documento entre la búsqueda y la lectura
+            return false;
+        }
+    }
+
+    /**
+     * Milisegundos desde el inicio de la navegación hasta ahora y hasta el evento load (-1 si no ocurrió)
+     */
+    private long[] readNavigationTiming() {
+        try {
+            Object value = ((JavascriptExecutor) driver).executeScript(
+                    "var t = window.performance && performance.timing;"
+                            + "if (!t || !t.navigationStart) { return [-1, -1]; }"
+                            + "return [Date.now() - t.navigationStart, t.loadEventEnd > 0 ? t.loadEventEnd - t.navigationStart : -1];");
+            if (value instanceof List && ((List<?>) value).size() == 2) {
+                List<?> values = (List<?>) value;
+                return new long[]{((Number) values.get(0)).longValue(), ((Number) values.get(1)).longValue()};
+            }
+        } catch (WebDriverException | ClassCastException e) {
+            logger.debug("No se pudo leer el tiempo de navegación: {}", e.getMessage());
+        }
+        return new long[]{-1, -1};
+    }
+
     /**
      * Espera a que un elemento sea visible y lo devuelve
      */
@@ -165,6 +249,48 @@ public class BasePage {
         return isElementVisible(locator);
     }
 
+    /**
+     * Compite varios localizadores y devuelve el índice del primero que se vuelve visible
+     * Retorna apenas la página llega a un estado decisivo (-1 si ninguno aparece a tiempo)
+     */
+    protected int firstVisible(By... locators) {
+        int winner = waitHelper.waitForFirstVisible(locators);
+        logger.debug("Primer elemento visible: {}", winner >= 0 ? locators[winner] : "ninguno");
+        return winner;
+    }
+
+    /**
+     * Verifica ausencia sin esperar el timeout: la página debe estar lista y el
+     * elemento no existir o no ser visible
+     */
+    protected boolean isAbsent(By locator) {
+        boolean absent = waitHelper.isAbsent(locator);
+        logger.debug("Elemento {} ausente: {}", locator, absent);
+        return absent;
+    }
+
+    /**
+     * Lee texto, visibilidad y atributos de varios localizadores en un solo round trip
+     */
+    protected Map<By, List<ElementSnapshot>> readAll(By... locators) {
+        return readAll(Arrays.asList(locators));
+    }
+
+    /**
+     * Lee varios localizadores en un solo round trip, incluyendo los atributos indicados
+     */
+    protected Map<By, List<ElementSnapshot>> readAll(List<By> locators, String... attributes) {
+        logger.debug("Lectura en lote de {} localizadores", locators.size());
+        try {
+            Map<By, List<ElementSnapshot>> result = DomBatchReader.read(driver, locators, attributes);
+            logger.debug("Resultado de lectura en lote: {}", result);
+            return result;
+        } catch (Exception e) {
+            logger.error("Error en lectura en lote de: {}", locators, e);
+            throw e;
+        }
+    }
+
     /**
      * Verifica si un elemento está presente en el DOM
      */
@@ -20,8 +20,18 @@ public class HomePage extends BasePage {
 
     public HomePage(WebDriver driver) {
         super(driver);
-        // Esperar a que la página esté completamente cargada
-        waitHelper.waitForElementToBePresent(logo);
+        awaitReady();
+    }
+
+    /**
+     * Lista cuando se ven el logo y la búsqueda y sus handlers están enlazados
+     * La URL solo descarta about:blank / data: mientras el driver aún no navega (strategy none)
+     */
+    @Override
+    protected PageContract readiness() {
+        return PageContract.of(logo, searchInput)
+                .url("^https?://")
+                .script(PageContract.JQUERY_READY);
     }
 
     public void searchProduct(String productName) {
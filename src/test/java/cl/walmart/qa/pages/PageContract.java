@@ -0,0 +1,80 @@
+package cl.walmart.qa.pages;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Contrato de preparación de una página: lo mínimo que debe cumplirse para poder operarla
+ * Elementos clave visibles, URL que calce con un patrón y, opcionalmente, un predicado JavaScript
+ * (p. ej. que los handlers de la página ya estén enlazados). Con page.load.strategy eager o none
+ * el driver devuelve el control antes del evento load y BasePage espera solo por este contrato.
+ */
+public final class PageContract {
+
+    /**
+     * Verdadero cuando la página no usa jQuery o cuando jQuery ya ejecutó sus handlers de ready
+     * (en OpenCart los clics de búsqueda y carrito se enlazan en $(document).ready)
+     */
+    public static final String JQUERY_READY = "!window.jQuery || window.jQuery.isReady";
+
+    private final List<By> elements;
+    private Pattern url;
+    private String script;
+
+    private PageContract(List<By> elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Contrato con los elementos clave que deben estar visibles
+     */
+    public static PageContract of(By... elements) {
+        return new PageContract(Collections.unmodifiableList(new ArrayList<>(Arrays.asList(elements))));
+    }
+
+    /**
+     * La URL actual debe contener una coincidencia de la expresión regular
+     * Evita dar por lista la página anterior cuando el driver no espera la navegación (strategy none).
+     */
+    public PageContract url(String regex) {
+        this.url = Pattern.compile(regex);
+        return this;
+    }
+
+    /**
+     * Expresión JavaScript que debe evaluar a verdadero (sin "return")
+     */
+    public PageContract script(String expression) {
+        this.script = expression;
+        return this;
+    }
+
+    List<By> getElements() {
+        return elements;
+    }
+
+    Pattern getUrl() {
+        return url;
+    }
+
+    String getScript() {
+        return script;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("elementos ").append(elements);
+        if (url != null) {
+            sb.append(", url ~ ").append(url.pattern());
+        }
+        if (script != null) {
+            sb.append(", js: ").append(script);
+        }
+        return sb.toString();
+    }
+}
@@ -18,6 +18,17 @@ public class ProductPage extends BasePage {
 
     public ProductPage(WebDriver driver) {
         super(driver);
+        awaitReady();
+    }
+
+    /**
+     * Lista con el título y el botón de carrito, y con cart.add ya definido
+     */
+    @Override
+    protected PageContract readiness() {
+        return PageContract.of(productTitle, addToCartButton)
+                .url("route=product/product")
+                .script("typeof window.cart === 'object' && (" + PageContract.JQUERY_READY + ")");
     }
 
     public String getProductTitle() {
@@ -20,9 +20,21 @@ public class RegisterPage extends BasePage {
     private By successMessage = By.cssSelector("#content h1");
     private By privacyPolicyError = By.cssSelector(".alert-danger");
     private By firstNameError = By.cssSelector("input[name='firstname'] + .text-danger");
+    private By fieldErrors = By.cssSelector(".text-danger, .alert-danger");
+    private By accountCreated = By.id("common-success");
 
     public RegisterPage(WebDriver driver) {
         super(driver);
+        awaitReady();
+    }
+
+    /**
+     * Lista con el formulario a la vista (primer campo y botón Continue)
+     */
+    @Override
+    protected PageContract readiness() {
+        return PageContract.of(firstNameInput, continueButton)
+                .url("route=account/register");
     }
 
     public void fillRegistrationForm(String firstName, String lastName, String email, 
@@ -48,10 +60,11 @@ public class RegisterPage extends BasePage {
     }
 
     public boolean isPrivacyPolicyErrorDisplayed() {
-        return isDisplayed(privacyPolicyError);
+        // Estado decisivo: o aparece el error o la cuenta se creó
+        return firstVisible(privacyPolicyError, accountCreated) == 0;
     }
 
     public boolean areFieldErrorsDisplayed() {
-        return isDisplayed(privacyPolicyError);
+        return firstVisible(fieldErrors, accountCreated) == 0;
     }
 }
@@ -22,6 +22,18 @@ public class SearchResultsPage extends BasePage {
 
     public SearchResultsPage(WebDriver driver) {
         super(driver);
+        awaitReady();
+    }
+
+    /**
+     * Lista con el título de la búsqueda: los resultados pueden no existir (búsqueda sin coincidencias)
+     * El formulario GET del buscador codifica la ruta (route=product%2Fsearch)
+     */
+    @Override
+    protected PageContract readiness() {
+        return PageContract.of(pageTitle)
+                .url("route=product(/|%2F)search")
+                .script(PageContract.JQUERY_READY);
     }
 
     public String getPageTitle() {
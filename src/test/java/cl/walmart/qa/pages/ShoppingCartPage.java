@@ -1,13 +1,50 @@
 package cl.walmart.qa.pages;
 
+import cl.walmart.qa.utils.ElementSnapshot;
+import cl.walmart.qa.utils.LocatorRegistry;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Page Object para la página del carrito de compras
  */
 public class ShoppingCartPage extends BasePage {
 
+    // Elementos con selectores alternativos: el registro aprende cuál funciona y lo prueba primero
+    private static final LocatorRegistry locators = LocatorRegistry.getInstance();
+    private static final String PRODUCT_LINKS = "cart.productLinks";
+    private static final String TOTAL_PRICE = "cart.totalPrice";
+    private static final String REMOVE_BUTTON = "cart.removeButton";
+
+    static {
+        locators.register(PRODUCT_LINKS,
+            By.xpath("//div[@id='content']//table//td[@class='text-left']//a"),
+            By.cssSelector("#content table td.text-left a"),
+            By.xpath("//table//tbody//td[@class='text-left']//a"),
+            By.cssSelector("table.table td a"),
+            By.xpath("//div[contains(@class,'table-responsive')]//a"));
+        locators.register(TOTAL_PRICE,
+            By.xpath("//table//tr[last()]//td[last()]"),
+            By.xpath("//strong[contains(text(),'Total')]/parent::td/following-sibling::td"),
+            By.cssSelector("#content table tr:last-child td:last-child"),
+            By.xpath("//div[@id='content']//table//tbody//tr//td[contains(@class,'text-right')]"),
+            By.cssSelector("table.table tbody tr td.text-right"));
+        locators.register(REMOVE_BUTTON,
+            By.cssSelector("button[data-original-title='Remove']"),
+            By.cssSelector("button.btn-danger"),
+            By.xpath("//button[contains(@onclick,'remove')]"),
+            By.xpath("//button[@title='Remove']"),
+            By.cssSelector("i.fa-times-circle"),
+            By.xpath("//i[contains(@class,'fa-times')]/parent::button"),
+            By.xpath("//td[@class='text-center']//button[contains(@class,'btn-danger')]"));
+    }
+
     // Elementos de la página generados manualmente con selectores más robustos
     private By pageTitle = By.cssSelector("h1, h2");
     private By productName = By.xpath("//div[@class='table-responsive']//td[@class='text-left']//a | //table//td[@class='text-left']//a | //form[@id='form-checkout']//td[@class='text-left']//a");
@@ -21,6 +58,17 @@ public class ShoppingCartPage extends BasePage {
 
     public ShoppingCartPage(WebDriver driver) {
         super(driver);
+        awaitReady();
+    }
+
+    /**
+     * Lista con el título del carrito, esté vacío o no; cart.remove debe estar definido
+     */
+    @Override
+    protected PageContract readiness() {
+        return PageContract.of(pageTitle)
+                .url("route=checkout/cart")
+                .script("typeof window.cart === 'object' && (" + PageContract.JQUERY_READY + ")");
     }
 
     public String getPageTitle() {
@@ -29,28 +77,19 @@ public class ShoppingCartPage extends BasePage {
 
     public boolean isProductInCart(String productName) {
         try {
-            // Buscar todos los enlaces posibles en la tabla del carrito
-            By[] productSelectors = {
-                By.xpath("//div[@id='content']//table//td[@class='text-left']//a"),
-                By.cssSelector("#content table td.text-left a"),
-                By.xpath("//table//tbody//td[@class='text-left']//a"),
-                By.cssSelector("table.table td a"),
-                By.xpath("//div[contains(@class,'table-responsive')]//a")
-            };
-            
-            for (By selector : productSelectors) {
-                try {
-                    java.util.List<org.openqa.selenium.WebElement> products = driver.findElements(selector);
-                    if (!products.isEmpty()) {
-                        for (org.openqa.selenium.WebElement product : products) {
-                            String productText = product.getText();
-                            if (productText != null && productText.toLowerCase().contains(productName.toLowerCase())) {
-                                return true;
-                            }
-                        }
-                    }
-                } catch (Exception ignored) {
-                    // Continuar con el siguiente selector
+            // Una sola lectura en lote para todos los candidatos, evaluados en orden de ranking.
+            // El acierto del selector depende solo de que encuentre productos: que el buscado no esté
+            // en el carrito es un resultado válido y no debe contar como fallo de los candidatos
+            Map<By, List<ElementSnapshot>> results = readAll(locators.candidates(PRODUCT_LINKS));
+            List<ElementSnapshot> products = locators.firstMatchInBatch(PRODUCT_LINKS,
+                    selector -> results.get(selector).isEmpty() ? null : results.get(selector));
+            if (products == null) {
+                return false;
+            }
+            for (ElementSnapshot product : products) {
+                String productText = product.getText();
+                if (productText != null && productText.toLowerCase().contains(productName.toLowerCase())) {
+                    return true;
                 }
             }
             return false;
@@ -62,29 +101,17 @@ public class ShoppingCartPage extends BasePage {
 
     public String getTotalPrice() {
         try {
-            // Intentar múltiples selectores para encontrar el precio total
-            By[] priceSelectors = {
-                By.xpath("//table//tr[last()]//td[last()]"),
-                By.xpath("//strong[contains(text(),'Total')]/parent::td/following-sibling::td"),
-                By.cssSelector("#content table tr:last-child td:last-child"),
-                By.xpath("//div[@id='content']//table//tbody//tr//td[contains(@class,'text-right')]"),
-                By.cssSelector("table.table tbody tr td.text-right")
-            };
-            
-            for (By selector : priceSelectors) {
-                try {
-                    java.util.List<org.openqa.selenium.WebElement> prices = driver.findElements(selector);
-                    if (!prices.isEmpty()) {
-                        String price = prices.get(prices.size() - 1).getText().trim();
-                        if (price != null && !price.isEmpty() && (price.contains("$") || price.matches(".*\\d.*"))) {
-                            return price;
-                        }
-                    }
-                } catch (Exception ignored) {
-                    // Continuar con el siguiente selector
+            // Una sola lectura en lote para todos los candidatos, evaluados en orden de ranking
+            Map<By, List<ElementSnapshot>> results = readAll(locators.candidates(TOTAL_PRICE));
+            String price = locators.firstMatchInBatch(TOTAL_PRICE, selector -> {
+                List<ElementSnapshot> prices = results.get(selector);
+                if (prices.isEmpty()) {
+                    return null;
                 }
-            }
-            return "$0.00";
+                String text = prices.get(prices.size() - 1).getText().trim();
+                return !text.isEmpty() && (text.contains("$") || text.matches(".*\\d.*")) ? text : null;
+            });
+            return price != null ? price : "$0.00";
         } catch (Exception e) {
             logger.warn("No se pudo obtener el precio total");
             return "$0.00";
@@ -105,45 +132,46 @@ public class ShoppingCartPage extends BasePage {
 
     public void removeProduct() {
         try {
-            // Intenta múltiples selectores comunes para el botón de eliminar
-            By[] selectors = {
-                By.cssSelector("button[data-original-title='Remove']"),
-                By.cssSelector("button.btn-danger"),
-                By.xpath("//button[contains(@onclick,'remove')]"),
-                By.xpath("//button[@title='Remove']"),
-                By.cssSelector("i.fa-times-circle"),
-                By.xpath("//i[contains(@class,'fa-times')]/parent::button"),
-                By.xpath("//td[@class='text-center']//button[contains(@class,'btn-danger')]")
-            };
-            
-            boolean removed = false;
-            for (By selector : selectors) {
-                try {
-                    driver.findElement(selector).click();
-                    removed = true;
-                    System.out.println("Producto eliminado usando selector: " + selector);
-                    break;
-                } catch (Exception ignored) {
-                    // Continúa con el siguiente selector
-                }
-            }
-            
-            if (!removed) {
-                System.out.println("No se pudo hacer clic en el botón de eliminar con ningún selector");
+            // Prueba los selectores del botón de eliminar en orden de ranking
+            WebElement button = locators.firstMatch(REMOVE_BUTTON, selector -> {
+                WebElement candidate = driver.findElement(selector);
+                candidate.click();
+                logger.debug("Producto eliminado usando selector: {}", selector);
+                return candidate;
+            });
+
+            if (button == null) {
+                logger.warn("No se pudo hacer clic en el botón de eliminar con ningún selector");
+            } else {
+                waitForReload(button);
             }
         } catch (Exception e) {
-            System.out.println("Error al intentar eliminar producto: " + e.getMessage());
+            logger.error("Error al intentar eliminar producto: {}", e.getMessage(), e);
         }
     }
 
     public boolean isCartEmpty() {
         try {
-            return isDisplayed(emptyCartMessage) || !isDisplayed(cartTable);
+            // Estado decisivo: mensaje de carrito vacío o tabla de productos, lo que aparezca primero
+            int state = firstVisible(emptyCartMessage, cartTable);
+            return state == 0 || (state < 0 && isAbsent(cartTable));
         } catch (Exception e) {
             return true;
         }
     }
 
+    /**
+     * Al eliminar, OpenCart recarga el carrito; esperar a que el elemento
+     * clickeado quede obsoleto evita evaluar la página anterior
+     */
+    private void waitForReload(WebElement clicked) {
+        try {
+            waitHelper.until(ExpectedConditions.stalenessOf(clicked));
+        } catch (TimeoutException e) {
+            logger.debug("El carrito no se recargó tras eliminar el producto");
+        }
+    }
+
     public String getEmptyCartMessage() {
         try {
             return getText(emptyCartMessage);
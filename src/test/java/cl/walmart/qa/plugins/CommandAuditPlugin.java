@@ -0,0 +1,65 @@
+package cl.walmart.qa.plugins;
+
+import cl.walmart.qa.driver.DriverCommandListeners;
+import cl.walmart.qa.utils.CommandAuditor;
+import cl.walmart.qa.utils.ConfigReader;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+import java.io.File;
+
+/**
+ * Plugin de Cucumber que activa el CommandAuditor (solo con audit.enabled=true)
+ * Marca el inicio y fin de cada paso para atribuir comandos y al terminar escribe
+ * command-audit.txt con los comandos por método de page object y por paso.
+ * Con -Daudit.baseline.update=true además reescribe el baseline (audit.baseline.file).
+ *
+ * Registro en junit-platform.properties:
+ * cl.walmart.qa.plugins.CommandAuditPlugin:target/cucumber-reports/command-audit.txt
+ */
+public class CommandAuditPlugin implements ConcurrentEventListener {
+
+    private static final String DEFAULT_OUTPUT = "target/cucumber-reports/command-audit.txt";
+
+    private final File output;
+
+    public CommandAuditPlugin() {
+        this(new File(DEFAULT_OUTPUT));
+    }
+
+    public CommandAuditPlugin(File output) {
+        this.output = output;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!ConfigReader.getInstance().getPropertyAsBoolean("audit.enabled", false)) {
+            return;
+        }
+        CommandAuditor auditor = CommandAuditor.getInstance();
+        DriverCommandListeners.Listener listener = auditor::onCommand;
+        DriverCommandListeners.add(listener);
+
+        publisher.registerHandlerFor(TestStepStarted.class, event -> {
+            if (event.getTestStep() instanceof PickleStepTestStep) {
+                auditor.startStep(((PickleStepTestStep) event.getTestStep()).getPattern());
+            }
+        });
+        publisher.registerHandlerFor(TestStepFinished.class, event -> {
+            if (event.getTestStep() instanceof PickleStepTestStep) {
+                auditor.endStep();
+            }
+        });
+        publisher.registerHandlerFor(TestRunFinished.class, event -> {
+            DriverCommandListeners.remove(listener);
+            auditor.writeReport(output.toPath());
+            if (ConfigReader.getInstance().getPropertyAsBoolean("audit.baseline.update", false)) {
+                auditor.writeBaseline();
+            }
+        });
+    }
+}
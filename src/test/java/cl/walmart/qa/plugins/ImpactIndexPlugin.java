@@ -0,0 +1,98 @@
+package cl.walmart.qa.plugins;
+
+import cl.walmart.qa.driver.DriverCommandListeners;
+import cl.walmart.qa.runners.PlatformProperties;
+import cl.walmart.qa.utils.ConfigReader;
+import cl.walmart.qa.utils.ImpactIndex;
+import cl.walmart.qa.utils.ScenarioHistory;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.openqa.selenium.remote.Command;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Plugin de Cucumber que mantiene al día el índice de impacto (impact.index.file)
+ * Por escenario registra los step definitions y hooks ejecutados, los métodos de page object que
+ * aparecen en la pila de cada comando WebDriver y los localizadores de findElement(s).
+ * ImpactSelection usa el índice para ejecutar solo los escenarios afectados por un diff.
+ * Solo registra con impact.enabled=true o impact.index.record=true: sin ellos no agrega trabajo a cada
+ * comando. En dry-run no registra nada (no se ejecuta código de pasos ni de páginas).
+ *
+ * Registro en junit-platform.properties:
+ * cl.walmart.qa.plugins.ImpactIndexPlugin
+ */
+public class ImpactIndexPlugin implements ConcurrentEventListener {
+
+    private final ConfigReader config = ConfigReader.getInstance();
+    private ImpactIndex index;
+    private final ThreadLocal<Capture> current = new ThreadLocal<>();
+    private final DriverCommandListeners.Listener commandListener = (command, nanos, failed) -> onCommand(command);
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        boolean wanted = config.getPropertyAsBoolean("impact.enabled", false)
+                || config.getPropertyAsBoolean("impact.index.record", false);
+        if (!wanted || PlatformProperties.isDryRun()) {
+            return;
+        }
+        index = ImpactIndex.fromConfig();
+        DriverCommandListeners.add(commandListener);
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> current.set(new Capture()));
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> {
+            DriverCommandListeners.remove(commandListener);
+            index.save();
+        });
+    }
+
+    private void onStepStarted(TestStepStarted event) {
+        Capture capture = current.get();
+        String location = event.getTestStep().getCodeLocation();
+        if (capture != null && location != null) {
+            // cl.walmart.qa.steps.StepDefinitions.buscarElProducto(java.lang.String) -> StepDefinitions.buscarElProducto
+            String method = location.contains("(") ? location.substring(0, location.indexOf('(')) : location;
+            int dot = method.lastIndexOf('.');
+            int classDot = dot > 0 ? method.lastIndexOf('.', dot - 1) : -1;
+            capture.calls.add(method.substring(classDot + 1));
+        }
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        Capture capture = current.get();
+        current.remove();
+        Status status = event.getResult().getStatus();
+        if (capture == null || status == Status.SKIPPED || status == Status.UNDEFINED) {
+            return;
+        }
+        index.record(ScenarioHistory.key(event.getTestCase().getUri(), event.getTestCase().getName()),
+                capture.calls, capture.locators, status == Status.PASSED);
+    }
+
+    /**
+     * Se invoca en el hilo del escenario: la pila muestra qué page objects originaron el comando
+     * (recorrido compartido con los demás observadores, ver DriverCommandListeners#pageObjectCalls)
+     */
+    private void onCommand(Command command) {
+        Capture capture = current.get();
+        if (capture == null) {
+            return;
+        }
+        capture.calls.addAll(DriverCommandListeners.pageObjectCalls());
+        if (command.getName().startsWith("find") && command.getParameters().containsKey("value")) {
+            capture.locators.add(command.getParameters().get("using") + "=" + command.getParameters().get("value"));
+        }
+    }
+
+    private static final class Capture {
+        final Set<String> calls = new HashSet<>();
+        final Set<String> locators = new HashSet<>();
+    }
+}
@@ -0,0 +1,55 @@
+package cl.walmart.qa.plugins;
+
+import cl.walmart.qa.driver.DriverPool;
+import cl.walmart.qa.driver.GridDispatcher;
+import cl.walmart.qa.proxy.BrowserProxy;
+import cl.walmart.qa.utils.LocatorRegistry;
+import cl.walmart.qa.utils.PageReadyMetrics;
+import cl.walmart.qa.utils.ScreenshotWriter;
+import cl.walmart.qa.utils.StepRetry;
+import cl.walmart.qa.utils.WaitMetrics;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestRunFinished;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Plugin de Cucumber que escribe los reportes de fin de ejecución de las utilidades del framework
+ * al recibir TestRunFinished, mientras el logging sigue activo. Desde un shutdown hook competirían
+ * con el de Log4j2 y el resumen podía perderse; los hooks quedan solo para cerrar recursos.
+ *
+ * Registro en junit-platform.properties:
+ * cl.walmart.qa.plugins.RunReportsPlugin
+ */
+public class RunReportsPlugin implements ConcurrentEventListener {
+
+    private static final Logger logger = LogManager.getLogger(RunReportsPlugin.class);
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunFinished.class, event -> onRunFinished());
+    }
+
+    private void onRunFinished() {
+        run("páginas listas", PageReadyMetrics::finish);
+        run("esperas", WaitMetrics::finish);
+        run("localizadores", LocatorRegistry::finish);
+        run("reintentos", StepRetry::finish);
+        run("pool de navegadores", DriverPool::finish);
+        run("grid", GridDispatcher::finish);
+        run("proxy de navegadores", BrowserProxy::finish);
+        run("screenshots", ScreenshotWriter::finish);
+    }
+
+    /**
+     * Un reporte que falla no impide escribir los demás
+     */
+    private static void run(String report, Runnable finish) {
+        try {
+            finish.run();
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo generar el reporte de {}: {}", report, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package cl.walmart.qa.plugins;
+
+import cl.walmart.qa.runners.PlatformProperties;
+import cl.walmart.qa.utils.ScenarioHistory;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * Plugin de Cucumber que alimenta el historial de duraciones usado por LongestFirstOrder
+ * Registra la duración de cada escenario exitoso (incluidos sus hooks) y de cada paso exitoso;
+ * los fallidos, omitidos y el dry-run no cuentan para no distorsionar las medias.
+ *
+ * Registro en junit-platform.properties:
+ * cl.walmart.qa.plugins.ScenarioHistoryPlugin
+ */
+public class ScenarioHistoryPlugin implements ConcurrentEventListener {
+
+    private final ScenarioHistory history = ScenarioHistory.fromConfig();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (PlatformProperties.isDryRun()) {
+            return;
+        }
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> history.save());
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep && event.getResult().getStatus() == Status.PASSED) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            history.recordStep(step.getStep().getText(), event.getResult().getDuration().toMillis());
+        }
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        if (event.getResult().getStatus() == Status.PASSED) {
+            history.recordScenario(ScenarioHistory.key(event.getTestCase().getUri(), event.getTestCase().getName()),
+                    event.getResult().getDuration().toMillis());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package cl.walmart.qa.plugins;
+
+import cl.walmart.qa.driver.DriverCommandListeners;
+import cl.walmart.qa.utils.LatencyHistogram;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plugin de Cucumber que mide la latencia de cada paso y de cada comando WebDriver
+ * Agrupa por definición de paso (p. ej. "buscar el producto {string}") y por tipo de
+ * comando (findElement, clickElement...) en histogramas con p50/p90/p99/máx.
+ * Al terminar escribe timings.json junto a cucumber.json y deja una tabla resumen en el log.
+ *
+ * Registro en junit-platform.properties:
+ * cl.walmart.qa.plugins.TimingPlugin:target/cucumber-reports/timings.json
+ */
+public class TimingPlugin implements ConcurrentEventListener {
+
+    private static final Logger logger = LogManager.getLogger(TimingPlugin.class);
+    private static final String DEFAULT_OUTPUT = "target/cucumber-reports/timings.json";
+
+    private final File output;
+    private final Map<String, LatencyHistogram> steps = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> commands = new ConcurrentHashMap<>();
+    private final DriverCommandListeners.Listener commandListener =
+            (command, nanos, failed) -> histogram(commands, command.getName()).record(nanos);
+
+    public TimingPlugin() {
+        this(new File(DEFAULT_OUTPUT));
+    }
+
+    public TimingPlugin(File output) {
+        this.output = output;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        DriverCommandListeners.add(commandListener);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> onRunFinished());
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        String name = stepName(event.getTestStep());
+        if (name != null) {
+            histogram(steps, name).record(event.getResult().getDuration().toNanos());
+        }
+    }
+
+    private void onRunFinished() {
+        DriverCommandListeners.remove(commandListener);
+        writeJson();
+        if (!steps.isEmpty() || !commands.isEmpty()) {
+            logger.info("Latencia por paso:\n{}", table(steps));
+            logger.info("Latencia por comando WebDriver:\n{}", table(commands));
+        }
+    }
+
+    private static String stepName(TestStep step) {
+        if (step instanceof PickleStepTestStep) {
+            return ((PickleStepTestStep) step).getPattern();
+        }
+        if (step instanceof HookTestStep) {
+            return "hook " + ((HookTestStep) step).getCodeLocation();
+        }
+        return null;
+    }
+
+    private static LatencyHistogram histogram(Map<String, LatencyHistogram> histograms, String key) {
+        return histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    private static List<Map.Entry<String, LatencyHistogram>> byTotalTime(Map<String, LatencyHistogram> histograms) {
+        List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().getTotalMicros(), a.getValue().getTotalMicros()));
+        return entries;
+    }
+
+    private void writeJson() {
+        try {
+            File parent = output.getAbsoluteFile().getParentFile();
+            Files.createDirectories(parent.toPath());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8))) {
+                writer.println("{");
+                writer.println("  \"generatedAt\": \"" + Instant.now() + "\",");
+                writer.println("  \"unit\": \"ms\",");
+                writeSection(writer, "steps", steps);
+                writer.println(",");
+                writeSection(writer, "commands", commands);
+                writer.println();
+                writer.println("}");
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir {}: {}", output, e.getMessage());
+        }
+    }
+
+    private static void writeSection(PrintWriter writer, String name, Map<String, LatencyHistogram> histograms) {
+        writer.print("  \"" + name + "\": [");
+        String separator = "\n";
+        for (Map.Entry<String, LatencyHistogram> entry : byTotalTime(histograms)) {
+            LatencyHistogram h = entry.getValue();
+            writer.print(separator);
+            writer.printf("    {\"name\": \"%s\", \"count\": %d, \"totalMs\": %s, \"meanMs\": %s, "
+                            + "\"p50Ms\": %s, \"p90Ms\": %s, \"p99Ms\": %s, \"maxMs\": %s}",
+                    escape(entry.getKey()), h.getCount(), millis(h.getTotalMicros()), millis(h.getMeanMicros()),
+                    millis(h.getPercentileMicros(50)), millis(h.getPercentileMicros(90)),
+                    millis(h.getPercentileMicros(99)), millis(h.getMaxMicros()));
+            separator = ",\n";
+        }
+        writer.print(histograms.isEmpty() ? "]" : "\n  ]");
+    }
+
+    private static String table(Map<String, LatencyHistogram> histograms) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%7s %10s %9s %9s %9s %9s  %s%n", "veces", "total ms", "p50 ms", "p90 ms", "p99 ms", "máx ms", "nombre"));
+        for (Map.Entry<String, LatencyHistogram> entry : byTotalTime(histograms)) {
+            LatencyHistogram h = entry.getValue();
+            sb.append(String.format("%7d %10s %9s %9s %9s %9s  %s%n", h.getCount(),
+                    millis(h.getTotalMicros()), millis(h.getPercentileMicros(50)), millis(h.getPercentileMicros(90)),
+                    millis(h.getPercentileMicros(99)), millis(h.getMaxMicros()), entry.getKey()));
+        }
+        return sb.toString();
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.1f", micros / 1000.0);
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package cl.walmart.qa.runners;
+
+import cl.walmart.qa.fixtures.TestAccountFactory;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Informa a TestAccountFactory cuántos escenarios de la ejecución tomarán una cuenta de prueba
+ * Cuenta los escenarios @cuenta del plan (ya sin los que descarta la selección por impacto) que además
+ * pasan cucumber.filter.tags: Cucumber deja en el plan los escenarios que no calzan y los omite al
+ * ejecutar. Así el pool de cuentas deja de registrar en cuanto están cubiertos y no deja cuentas
+ * huérfanas en el sitio.
+ *
+ * Registro en META-INF/services/org.junit.platform.launcher.TestExecutionListener
+ */
+public class AccountDemand implements TestExecutionListener {
+
+    private static final TestTag ACCOUNT_TAG = TestTag.create("cuenta");
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if (PlatformProperties.isDryRun()) {
+            return;
+        }
+        String tags = PlatformProperties.get("cucumber.filter.tags", "").trim();
+        Expression tagFilter = tags.isEmpty() ? null : TagExpressionParser.parse(tags);
+        int scenarios = 0;
+        Deque<TestIdentifier> pending = new ArrayDeque<>(testPlan.getRoots());
+        while (!pending.isEmpty()) {
+            TestIdentifier identifier = pending.pop();
+            if (identifier.isTest() && identifier.getTags().contains(ACCOUNT_TAG)
+                    && (tagFilter == null || tagFilter.evaluate(cucumberTags(identifier)))) {
+                scenarios++;
+            }
+            pending.addAll(testPlan.getChildren(identifier));
+        }
+        // La suite ejecuta el motor de Cucumber en su propio launcher: el plan puede llegar dos veces
+        TestAccountFactory.getInstance().expectAccounts(scenarios);
+    }
+
+    private static List<String> cucumberTags(TestIdentifier identifier) {
+        List<String> tags = new ArrayList<>();
+        for (TestTag tag : identifier.getTags()) {
+            tags.add("@" + tag.getName());
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,122 @@
+package cl.walmart.qa.runners;
+
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.resource.Resource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClasspathResourceSource;
+import org.junit.platform.engine.support.descriptor.FilePosition;
+import org.junit.platform.engine.support.descriptor.FileSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Acceso a los .feature detrás de los nodos del motor de Cucumber, para los PostDiscoveryFilter
+ * Los nodos de escenario no exponen su Pickle: se vuelve a parsear el archivo (una vez por archivo)
+ * y se busca el escenario por la línea de su TestSource.
+ */
+final class FeatureSources {
+
+    private static final Logger logger = LogManager.getLogger(FeatureSources.class);
+    private static final String ENGINE = "cucumber";
+
+    private final FeatureParser parser = new FeatureParser(UUID::randomUUID);
+    private final Map<String, Optional<Feature>> features = new HashMap<>();
+
+    /**
+     * Escenario de un nodo hoja, o null si el nodo no viene de un .feature legible
+     */
+    Pickle pickleOf(TestDescriptor descriptor) {
+        Optional<TestSource> source = descriptor.getSource();
+        URL url = null;
+        Optional<FilePosition> position = Optional.empty();
+        try {
+            if (source.isPresent() && source.get() instanceof ClasspathResourceSource) {
+                ClasspathResourceSource resource = (ClasspathResourceSource) source.get();
+                url = Thread.currentThread().getContextClassLoader().getResource(resource.getClasspathResourceName());
+                position = resource.getPosition();
+            } else if (source.isPresent() && source.get() instanceof FileSource) {
+                FileSource file = (FileSource) source.get();
+                url = file.getFile().toURI().toURL();
+                position = file.getPosition();
+            }
+        } catch (MalformedURLException e) {
+            logger.debug("Origen no reconocido para {}: {}", descriptor.getDisplayName(), e.getMessage());
+        }
+        if (url == null || !position.isPresent()) {
+            return null;
+        }
+        Optional<Feature> feature = features.computeIfAbsent(url.toString(), this::parse);
+        if (!feature.isPresent()) {
+            return null;
+        }
+        int line = position.get().getLine();
+        for (Pickle pickle : feature.get().getPickles()) {
+            if (pickle.getLocation().getLine() == line) {
+                return pickle;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Feature ya parseado al que pertenece el escenario
+     */
+    Feature featureOf(Pickle pickle) {
+        for (Optional<Feature> feature : features.values()) {
+            if (feature.isPresent() && feature.get().getPickles().contains(pickle)) {
+                return feature.get();
+            }
+        }
+        return null;
+    }
+
+    private Optional<Feature> parse(String location) {
+        try {
+            URL url = new URL(location);
+            URI uri = url.toURI();
+            return parser.parseResource(new Resource() {
+                @Override
+                public URI getUri() {
+                    return uri;
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return url.openStream();
+                }
+            });
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            logger.warn("No se pudo leer {}: {}", location, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    static boolean isCucumber(TestDescriptor descriptor) {
+        for (UniqueId.Segment segment : descriptor.getUniqueId().getSegments()) {
+            if ("engine".equals(segment.getType()) && ENGINE.equals(segment.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isEngine(TestDescriptor descriptor) {
+        UniqueId.Segment last = descriptor.getUniqueId().getLastSegment();
+        return "engine".equals(last.getType()) && ENGINE.equals(last.getValue());
+    }
+}
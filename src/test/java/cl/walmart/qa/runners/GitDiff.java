@@ -0,0 +1,121 @@
+package cl.walmart.qa.runners;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Archivos y líneas cambiadas respecto de una revisión (commits, cambios sin commitear y archivos nuevos)
+ */
+final class GitDiff {
+
+    private static final Pattern HUNK = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private GitDiff() {
+    }
+
+    /**
+     * Un archivo cambiado: líneas del archivo actual tocadas y el texto agregado o quitado
+     * Si el archivo es nuevo, se borró o es binario, whole es true y no hay detalle por línea.
+     */
+    static final class ChangedFile {
+        final String path;
+        boolean whole;
+        final Set<Integer> lines = new TreeSet<>();
+        final List<String> added = new ArrayList<>();
+        final List<String> removed = new ArrayList<>();
+
+        ChangedFile(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Cambios del directorio de trabajo respecto de base (p. ej. HEAD~1 u origin/main)
+     */
+    static List<ChangedFile> since(String base) {
+        Map<String, ChangedFile> files = new LinkedHashMap<>();
+        ChangedFile file = null;
+        String oldPath = null;
+        for (String line : git("diff", "--no-color", "--no-renames", "--unified=0", base, "--")) {
+            if (line.startsWith("diff --git ")) {
+                file = null;
+                oldPath = null;
+            } else if (line.startsWith("--- ")) {
+                oldPath = line.startsWith("--- a/") ? line.substring(6) : null;
+            } else if (line.startsWith("+++ ")) {
+                boolean deleted = line.equals("+++ /dev/null");
+                String path = deleted ? oldPath : line.substring(6);
+                file = files.computeIfAbsent(path, ChangedFile::new);
+                file.whole |= deleted || oldPath == null;
+            } else if (line.startsWith("Binary files ")) {
+                // Sin líneas +++: se toma la ruta nueva del encabezado "Binary files a/x and b/x differ"
+                String path = line.substring(line.lastIndexOf(" b/") + 3, line.length() - " differ".length());
+                files.computeIfAbsent(path, ChangedFile::new).whole = true;
+            } else if (file != null && line.startsWith("@@")) {
+                Matcher hunk = HUNK.matcher(line);
+                if (hunk.find()) {
+                    int start = Integer.parseInt(hunk.group(1));
+                    int count = hunk.group(2) == null ? 1 : Integer.parseInt(hunk.group(2));
+                    if (count == 0) {
+                        // Solo se quitaron líneas entre start y start + 1
+                        file.lines.add(Math.max(start, 1));
+                        file.lines.add(start + 1);
+                    }
+                    for (int i = 0; i < count; i++) {
+                        file.lines.add(start + i);
+                    }
+                }
+            } else if (file != null && line.startsWith("+")) {
+                file.added.add(line.substring(1));
+            } else if (file != null && line.startsWith("-")) {
+                file.removed.add(line.substring(1));
+            }
+        }
+        for (String path : git("ls-files", "--others", "--exclude-standard")) {
+            files.computeIfAbsent(path, ChangedFile::new).whole = true;
+        }
+        return new ArrayList<>(files.values());
+    }
+
+    private static List<String> git(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        List<String> output = new ArrayList<>();
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.add(line);
+                }
+            }
+            if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new RuntimeException("git " + args[0] + " no terminó en " + TIMEOUT_SECONDS + " s");
+            }
+            if (process.exitValue() != 0) {
+                throw new RuntimeException("git " + String.join(" ", args) + " falló: " + String.join(" ", output));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo ejecutar git", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido esperando a git", e);
+        }
+        return output;
+    }
+}
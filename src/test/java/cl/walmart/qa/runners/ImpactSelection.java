@@ -0,0 +1,389 @@
+package cl.walmart.qa.runners;
+
+import cl.walmart.qa.utils.ConfigReader;
+import cl.walmart.qa.utils.ImpactIndex;
+import cl.walmart.qa.utils.ScenarioHistory;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.gherkin.Pickle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Selección de escenarios por impacto: con impact.enabled=true solo se ejecutan los escenarios
+ * afectados por los cambios desde impact.base, más una muestra de seguridad al azar
+ * Cómo se decide qué escenario está afectado:
+ * - .feature: el escenario que contiene la línea cambiada (encabezado o Antecedentes = todo el archivo)
+ * - page objects y step definitions: los escenarios que ejecutaron el método cambiado según el índice
+ *   de impacto (ImpactIndexPlugin); un localizador cambiado, los que lo usaron; si no se puede
+ *   precisar, todos los que usan la clase
+ * - escenarios que aún no están en el índice: siempre
+ * - cualquier otro cambio bajo src/ o en pom.xml: todos (impact.unmapped=all) o ninguno (ignore)
+ * Escribe impact-selection.txt con el motivo de cada escenario seleccionado.
+ *
+ * Registro en META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter (antes de LongestFirstOrder,
+ * para que el orden y el plan consideren solo los escenarios seleccionados)
+ */
+public class ImpactSelection implements PostDiscoveryFilter {
+
+    private static final Logger logger = LogManager.getLogger(ImpactSelection.class);
+    private static final String REPORT_FILE = "impact-selection.txt";
+    private static final String SOURCES = "src/test/java/";
+    private static final Pattern LOCATOR = Pattern.compile("By\\.\\w+\\(\\s*\"((?:[^\"\\\\]|\\\\.)*)\"\\s*\\)");
+    private static final Pattern METHOD = Pattern.compile(
+            "^\\s*(?:@\\w+(?:\\([^)]*\\))?\\s+)*(?:(?:public|protected|private|static|final|synchronized|abstract)\\s+)*"
+                    + "(?:<[^>]+>\\s+)?[\\w.\\[\\]<>,?]+(?:\\s*<[^>]*>)?\\s+(\\w+)\\s*\\([^=]*$");
+    private static final Pattern CONSTRUCTOR = Pattern.compile(
+            "^\\s*(?:(?:public|protected|private)\\s+)?(\\w+)\\s*\\([^=;]*$");
+    private static final Set<String> NOT_METHODS = new TreeSet<>(Arrays.asList(
+            "return", "new", "else", "if", "for", "while", "switch", "catch", "throw", "try", "synchronized"));
+
+    // La suite descubre el motor de Cucumber dentro de su propio launcher: se decide una sola vez
+    private static volatile boolean decided;
+    private static volatile Map<String, String> selection;
+
+    private final ConfigReader config = ConfigReader.getInstance();
+    private final boolean enabled = config.getPropertyAsBoolean("impact.enabled", false);
+    private final FeatureSources sources = new FeatureSources();
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (enabled && FeatureSources.isEngine(descriptor)) {
+            select(descriptor);
+        }
+        return FilterResult.included("selección por impacto");
+    }
+
+    private void select(TestDescriptor engine) {
+        // Los ejemplos de un Scenario Outline comparten clave (y entrada del índice): se seleccionan juntos
+        Map<String, List<TestDescriptor>> scenarios = new LinkedHashMap<>();
+        Map<String, Pickle> pickles = new LinkedHashMap<>();
+        for (TestDescriptor descriptor : engine.getDescendants()) {
+            Pickle pickle = descriptor.isTest() ? sources.pickleOf(descriptor) : null;
+            if (pickle != null) {
+                String key = ScenarioHistory.key(pickle.getUri(), pickle.getName());
+                scenarios.computeIfAbsent(key, k -> new ArrayList<>()).add(descriptor);
+                pickles.putIfAbsent(key, pickle);
+            }
+        }
+        if (scenarios.isEmpty()) {
+            // Motor de Cucumber del launcher externo (surefire), sin features seleccionados
+            return;
+        }
+        if (!decided) {
+            selection = decide(pickles);
+            decided = true;
+        }
+        Map<String, String> selected = selection;
+        if (selected == null) {
+            return;
+        }
+        for (Map.Entry<String, List<TestDescriptor>> entry : scenarios.entrySet()) {
+            if (selected.containsKey(entry.getKey())) {
+                continue;
+            }
+            for (TestDescriptor descriptor : entry.getValue()) {
+                TestDescriptor parent = descriptor.getParent().orElse(null);
+                descriptor.removeFromHierarchy();
+                // Features, outlines o bloques de Examples que quedan vacíos
+                while (parent != null && !parent.isRoot() && parent.getChildren().isEmpty()) {
+                    TestDescriptor next = parent.getParent().orElse(null);
+                    parent.removeFromHierarchy();
+                    parent = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return escenarios a ejecutar con su motivo, o null para ejecutar todos
+     */
+    private Map<String, String> decide(Map<String, Pickle> pickles) {
+        String base = config.getProperty("impact.base", "HEAD~1").trim();
+        ImpactIndex index = ImpactIndex.fromConfig();
+        if (index.isEmpty()) {
+            logger.warn("Índice de impacto vacío ({}): se ejecutan todos los escenarios. "
+                    + "Se llena con una ejecución completa con -Dimpact.index.record=true", config.getProperty("impact.index.file", "impact-index.properties"));
+            return null;
+        }
+        List<GitDiff.ChangedFile> changes;
+        try {
+            changes = GitDiff.since(base);
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo obtener el diff desde {}: {}. Se ejecutan todos los escenarios", base, e.getMessage());
+            return null;
+        }
+
+        String pagesDir = SOURCES + config.getProperty("audit.pages.package", "cl.walmart.qa.pages").replace('.', '/') + "/";
+        String stepsDir = SOURCES + PlatformProperties.get("cucumber.glue", "cl.walmart.qa.steps").replace('.', '/') + "/";
+        boolean unmappedRunsAll = !"ignore".equalsIgnoreCase(config.getProperty("impact.unmapped", "all").trim());
+
+        Map<String, String> selected = new TreeMap<>();
+        Map<String, String> fileNotes = new LinkedHashMap<>();
+        for (GitDiff.ChangedFile change : changes) {
+            Set<String> affected;
+            String path = change.path;
+            if (path.endsWith(".feature")) {
+                affected = affectedByFeature(change, pickles);
+            } else if (path.endsWith(".java") && (path.startsWith(pagesDir) || path.startsWith(stepsDir))) {
+                affected = affectedByClass(change, index);
+            } else if (path.startsWith("src/") || path.equals("pom.xml")) {
+                affected = unmappedRunsAll ? pickles.keySet() : Collections.<String>emptySet();
+                fileNotes.put(path, unmappedRunsAll ? "sin mapeo: todos (impact.unmapped=all)" : "sin mapeo: ignorado");
+            } else {
+                continue;
+            }
+            fileNotes.putIfAbsent(path, affected.size() + " escenarios");
+            for (String key : affected) {
+                selected.putIfAbsent(key, path);
+            }
+        }
+        for (String key : pickles.keySet()) {
+            if (!index.contains(key)) {
+                selected.putIfAbsent(key, "no está en el índice");
+            }
+        }
+
+        List<String> rest = new ArrayList<>();
+        for (String key : pickles.keySet()) {
+            if (!selected.containsKey(key)) {
+                rest.add(key);
+            }
+        }
+        String seedValue = config.getProperty("impact.sample.seed", "").trim();
+        long seed = seedValue.isEmpty() ? System.nanoTime() : Long.parseLong(seedValue);
+        Collections.shuffle(rest, new Random(seed));
+        int sample = Math.min(rest.size(), Math.max(0, config.getPropertyAsInt("impact.sample.size", 2)));
+        for (String key : rest.subList(0, sample)) {
+            selected.put(key, "muestra de seguridad");
+        }
+
+        writeReport(base, seed, fileNotes, selected, pickles.keySet());
+        logger.info("Selección por impacto desde {}: {} de {} escenarios ({} por muestra de seguridad, semilla {})",
+                base, selected.size(), pickles.size(), sample, seed);
+        return selected;
+    }
+
+    /**
+     * Escenarios de un .feature cambiado; las líneas anteriores al primer escenario (encabezado,
+     * descripción, Antecedentes) afectan a todos los escenarios del archivo
+     */
+    private Set<String> affectedByFeature(GitDiff.ChangedFile change, Map<String, Pickle> pickles) {
+        String fileName = change.path.substring(change.path.lastIndexOf('/') + 1);
+        Map<Integer, List<String>> byStart = new TreeMap<>();
+        Feature feature = null;
+        for (Map.Entry<String, Pickle> entry : pickles.entrySet()) {
+            Pickle pickle = entry.getValue();
+            String uri = pickle.getUri().getSchemeSpecificPart();
+            if (uri.endsWith("/" + fileName) || uri.equals(fileName)) {
+                byStart.computeIfAbsent(pickle.getScenarioLocation().getLine(), k -> new ArrayList<>()).add(entry.getKey());
+                feature = feature != null ? feature : sources.featureOf(pickle);
+            }
+        }
+        Set<String> affected = new TreeSet<>();
+        if (byStart.isEmpty()) {
+            return affected;
+        }
+        if (change.whole || feature == null) {
+            for (List<String> keys : byStart.values()) {
+                affected.addAll(keys);
+            }
+            return affected;
+        }
+        String[] lines = feature.getSource().split("\\r?\\n", -1);
+        List<Integer> starts = new ArrayList<>(byStart.keySet());
+        for (int line : change.lines) {
+            Integer owner = ownerOf(line, starts, lines);
+            if (owner == null) {
+                for (List<String> keys : byStart.values()) {
+                    affected.addAll(keys);
+                }
+                return affected;
+            }
+            affected.addAll(byStart.get(owner));
+        }
+        return affected;
+    }
+
+    /**
+     * Escenario dueño de una línea: el que empieza antes, o el siguiente si entre la línea y ese
+     * escenario solo hay tags, comentarios o líneas vacías (p. ej. se cambió su tag)
+     */
+    private static Integer ownerOf(int line, List<Integer> starts, String[] lines) {
+        for (Integer start : starts) {
+            if (start >= line) {
+                boolean header = true;
+                for (int i = line; i < start && header; i++) {
+                    String text = i - 1 < lines.length ? lines[i - 1].trim() : "";
+                    header = text.isEmpty() || text.startsWith("@") || text.startsWith("#");
+                }
+                if (header) {
+                    return start;
+                }
+                break;
+            }
+        }
+        Integer owner = null;
+        for (Integer start : starts) {
+            if (start <= line) {
+                owner = start;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Escenarios que usan el código cambiado de un page object o de los step definitions
+     */
+    private Set<String> affectedByClass(GitDiff.ChangedFile change, ImpactIndex index) {
+        String className = change.path.substring(change.path.lastIndexOf('/') + 1, change.path.length() - ".java".length());
+        Path file = Paths.get(change.path);
+        if (change.whole || !Files.exists(file)) {
+            return index.scenariosCalling(className, null);
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return index.scenariosCalling(className, null);
+        }
+        String[] owners = methodOwners(lines, className);
+        Set<String> affected = new TreeSet<>();
+        boolean classLevel = false;
+        for (int line : change.lines) {
+            String method = line - 1 < owners.length ? owners[line - 1] : null;
+            String text = line - 1 < lines.size() ? lines.get(line - 1) : "";
+            if (method != null) {
+                Set<String> callers = index.scenariosCalling(className, method);
+                classLevel |= callers.isEmpty();
+                affected.addAll(callers);
+            } else if (!LOCATOR.matcher(text).find() && !text.trim().isEmpty()) {
+                classLevel = true;
+            }
+        }
+        // Localizadores agregados o quitados (incluye los de líneas borradas). Un localizador modificado
+        // se encuentra por su valor anterior; si ninguno aparece en el índice no se puede precisar
+        List<String> changedText = new ArrayList<>(change.added);
+        changedText.addAll(change.removed);
+        boolean locatorChanged = false;
+        boolean locatorFound = false;
+        for (String text : changedText) {
+            Matcher matcher = LOCATOR.matcher(text);
+            while (matcher.find()) {
+                String value = matcher.group(1).replace("\\\"", "\"").replace("\\\\", "\\");
+                Set<String> users = index.scenariosUsingLocator(value);
+                locatorChanged = true;
+                locatorFound |= !users.isEmpty();
+                affected.addAll(users);
+            }
+        }
+        classLevel |= locatorChanged && !locatorFound;
+        if (classLevel) {
+            affected.addAll(index.scenariosCalling(className, null));
+        }
+        return affected;
+    }
+
+    /**
+     * Método al que pertenece cada línea (null = fuera de un método: campos, imports, comentarios)
+     * Seguimiento simple de llaves, suficiente para el estilo de las páginas y step definitions
+     */
+    private static String[] methodOwners(List<String> lines, String className) {
+        String[] owners = new String[lines.size()];
+        boolean[] declaration = new boolean[lines.size()];
+        int depth = 0;
+        String method = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String code = lines.get(i).replaceAll("\"(?:[^\"\\\\]|\\\\.)*\"", "\"\"").replaceAll("'(?:[^'\\\\]|\\\\.)*'", "''");
+            int comment = code.indexOf("//");
+            if (comment >= 0) {
+                code = code.substring(0, comment);
+            }
+            if (depth == 1 && method == null) {
+                Matcher constructor = CONSTRUCTOR.matcher(code);
+                Matcher signature = METHOD.matcher(code);
+                if (constructor.find() && constructor.group(1).equals(className)) {
+                    method = "<init>";
+                } else if (signature.find() && !NOT_METHODS.contains(signature.group(1))
+                        && !code.trim().startsWith("return ") && !code.contains(" class ")) {
+                    method = signature.group(1);
+                }
+            }
+            declaration[i] = method != null && (i == 0 || owners[i - 1] == null || !method.equals(owners[i - 1]));
+            owners[i] = method;
+            for (char c : code.toCharArray()) {
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+            }
+            if (method != null && depth <= 1 && (code.contains("}") || code.trim().endsWith(";"))) {
+                method = null;
+            }
+        }
+        // Javadoc y anotaciones (@Dado("...")) pertenecen al método que sigue
+        String next = null;
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            String text = lines.get(i).trim();
+            if (declaration[i]) {
+                next = owners[i];
+            } else if (owners[i] == null && next != null && (text.startsWith("@") || text.startsWith("/*")
+                    || text.startsWith("*") || text.startsWith("//"))) {
+                owners[i] = next;
+            } else {
+                next = null;
+            }
+        }
+        return owners;
+    }
+
+    private void writeReport(String base, long seed, Map<String, String> fileNotes, Map<String, String> selected, Set<String> all) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Selección por impacto desde %s: %d de %d escenarios (semilla de la muestra: %d)%n",
+                base, selected.size(), all.size(), seed));
+        sb.append(System.lineSeparator()).append("Archivos cambiados:").append(System.lineSeparator());
+        for (Map.Entry<String, String> entry : fileNotes.entrySet()) {
+            sb.append(String.format("  %s -> %s%n", entry.getKey(), entry.getValue()));
+        }
+        sb.append(System.lineSeparator()).append("Escenarios seleccionados:").append(System.lineSeparator());
+        for (Map.Entry<String, String> entry : selected.entrySet()) {
+            sb.append(String.format("  %s  [%s]%n", entry.getKey(), entry.getValue()));
+        }
+        sb.append(System.lineSeparator()).append("Escenarios omitidos:").append(System.lineSeparator());
+        for (String key : all) {
+            if (!selected.containsKey(key)) {
+                sb.append("  ").append(key).append(System.lineSeparator());
+            }
+        }
+        Path reportFile = Paths.get(config.getProperty("reports.path", "target/cucumber-reports"), REPORT_FILE);
+        try {
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            Files.write(reportFile, sb.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir la selección por impacto {}: {}", reportFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package cl.walmart.qa.runners;
+
+import cl.walmart.qa.utils.ConfigReader;
+import cl.walmart.qa.utils.ScenarioHistory;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.gherkin.Step;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordena los escenarios de Cucumber de mayor a menor duración esperada (longest processing time first)
+ * La duración sale de ScenarioHistory (ejecuciones anteriores o, para escenarios nuevos, la suma de
+ * sus pasos). Se reordenan los hijos de cada nodo (features, outlines, escenarios) antes de ejecutar:
+ * en paralelo el pool fork-join de JUnit reparte los nodos en ese orden y los hilos libres toman el
+ * siguiente más largo, así los escenarios cortos quedan para el final y rellenan los huecos.
+ * Además escribe schedule-plan.txt con la asignación estimada por hilo y el tiempo total esperado.
+ *
+ * Registro en META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter
+ * Se desactiva con -Dscheduler.enabled=false (se respeta el orden de los archivos .feature).
+ */
+public class LongestFirstOrder implements PostDiscoveryFilter {
+
+    private static final Logger logger = LogManager.getLogger(LongestFirstOrder.class);
+    private static final String PLAN_FILE = "schedule-plan.txt";
+
+    // La suite descubre el motor de Cucumber dentro de su propio launcher: el filtro se aplica dos veces
+    private static volatile String lastPlan;
+
+    private final boolean enabled;
+    private final ScenarioHistory history;
+    private final Expression tagFilter;
+    private final FeatureSources sources = new FeatureSources();
+    private final Map<UniqueId, Long> costs = new HashMap<>();
+    private final Map<UniqueId, ScenarioHistory.Estimate> estimates = new HashMap<>();
+    private final Map<UniqueId, String> keys = new HashMap<>();
+
+    public LongestFirstOrder() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.enabled = config.getPropertyAsBoolean("scheduler.enabled", true);
+        this.history = enabled ? ScenarioHistory.fromConfig() : null;
+        String tags = PlatformProperties.get("cucumber.filter.tags", "").trim();
+        this.tagFilter = tags.isEmpty() ? null : TagExpressionParser.parse(tags);
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (enabled && FeatureSources.isCucumber(descriptor) && descriptor.isContainer()) {
+            if (FeatureSources.isEngine(descriptor)) {
+                writePlan(descriptor);
+            }
+            reorder(descriptor);
+        }
+        return FilterResult.included("orden por duración estimada");
+    }
+
+    /**
+     * Deja los hijos del nodo de mayor a menor costo; a igual costo se conserva el orden del archivo
+     */
+    private void reorder(TestDescriptor parent) {
+        List<TestDescriptor> children = new ArrayList<>(parent.getChildren());
+        if (children.size() < 2) {
+            return;
+        }
+        List<TestDescriptor> sorted = new ArrayList<>(children);
+        sorted.sort(Comparator.comparingLong(this::cost).reversed());
+        if (sorted.equals(children)) {
+            return;
+        }
+        for (TestDescriptor child : children) {
+            parent.removeChild(child);
+        }
+        for (TestDescriptor child : sorted) {
+            parent.addChild(child);
+        }
+    }
+
+    /**
+     * Duración esperada del nodo: la del escenario o la suma de los escenarios que contiene.
+     * Los escenarios que cucumber.filter.tags va a omitir cuestan 0.
+     */
+    private long cost(TestDescriptor descriptor) {
+        Long cached = costs.get(descriptor.getUniqueId());
+        if (cached != null) {
+            return cached;
+        }
+        long total = 0;
+        if (descriptor.isTest()) {
+            Pickle pickle = sources.pickleOf(descriptor);
+            if (pickle != null && (tagFilter == null || tagFilter.evaluate(pickle.getTags()))) {
+                List<String> stepTexts = new ArrayList<>();
+                for (Step step : pickle.getSteps()) {
+                    stepTexts.add(step.getText());
+                }
+                String key = ScenarioHistory.key(pickle.getUri(), pickle.getName());
+                ScenarioHistory.Estimate estimate = history.estimate(key, stepTexts);
+                keys.put(descriptor.getUniqueId(), key);
+                estimates.put(descriptor.getUniqueId(), estimate);
+                total = estimate.getMillis();
+            }
+        }
+        for (TestDescriptor child : descriptor.getChildren()) {
+            total += cost(child);
+        }
+        costs.put(descriptor.getUniqueId(), total);
+        return total;
+    }
+
+    /**
+     * Simula el reparto LPT sobre los hilos configurados y lo compara con el orden de los archivos
+     */
+    private void writePlan(TestDescriptor engine) {
+        List<TestDescriptor> scenarios = new ArrayList<>();
+        for (TestDescriptor descriptor : engine.getDescendants()) {
+            if (descriptor.isTest() && cost(descriptor) > 0) {
+                scenarios.add(descriptor);
+            }
+        }
+        if (scenarios.isEmpty()) {
+            return;
+        }
+        int workers = workers();
+        long fileOrderMakespan = max(assign(scenarios, workers, new HashMap<>()));
+        List<TestDescriptor> sorted = new ArrayList<>(scenarios);
+        sorted.sort(Comparator.comparingLong(this::cost).reversed());
+        Map<TestDescriptor, Integer> assignment = new HashMap<>();
+        long[] loads = assign(sorted, workers, assignment);
+        long makespan = max(loads);
+        int fromHistory = 0;
+        for (TestDescriptor scenario : scenarios) {
+            fromHistory += estimates.get(scenario.getUniqueId()).isFromHistory() ? 1 : 0;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Plan de ejecución (mayor duración primero): %d escenarios, %d hilos%n", scenarios.size(), workers));
+        sb.append(String.format("Con historial: %d, estimados por sus pasos: %d%n", fromHistory, scenarios.size() - fromHistory));
+        sb.append(String.format("Duración estimada: %d ms (orden de los archivos: %d ms)%n", makespan, fileOrderMakespan));
+        for (int i = 0; i < loads.length; i++) {
+            sb.append(String.format("Hilo %d: %d ms%n", i + 1, loads[i]));
+        }
+        sb.append(System.lineSeparator());
+        sb.append(String.format("%-5s %10s %-10s %s%n", "Hilo", "est. ms", "origen", "Escenario"));
+        for (TestDescriptor scenario : sorted) {
+            UniqueId id = scenario.getUniqueId();
+            sb.append(String.format("%-5d %10d %-10s %s%n", assignment.get(scenario) + 1, cost(scenario),
+                    estimates.get(id).isFromHistory() ? "historial" : "pasos", keys.get(id)));
+        }
+
+        String plan = sb.toString();
+        if (plan.equals(lastPlan)) {
+            return;
+        }
+        lastPlan = plan;
+        Path planFile = Paths.get(ConfigReader.getInstance().getProperty("reports.path", "target/cucumber-reports"), PLAN_FILE);
+        try {
+            if (planFile.getParent() != null) {
+                Files.createDirectories(planFile.getParent());
+            }
+            Files.write(planFile, plan.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("No se pudo escribir el plan de ejecución {}: {}", planFile, e.getMessage());
+        }
+        logger.info("Escenarios ordenados por duración estimada: {} hilos, {} ms estimados (orden de archivos: {} ms)",
+                workers, makespan, fileOrderMakespan);
+    }
+
+    /**
+     * Reparto por lista: cada escenario va al hilo que queda libre primero
+     */
+    private long[] assign(List<TestDescriptor> scenarios, int workers, Map<TestDescriptor, Integer> assignment) {
+        long[] loads = new long[workers];
+        for (TestDescriptor scenario : scenarios) {
+            int least = 0;
+            for (int i = 1; i < workers; i++) {
+                if (loads[i] < loads[least]) {
+                    least = i;
+                }
+            }
+            loads[least] += cost(scenario);
+            assignment.put(scenario, least);
+        }
+        return loads;
+    }
+
+    private static long max(long[] values) {
+        long max = 0;
+        for (long value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Hilos de Cucumber según cucumber.execution.parallel.* (1 si la ejecución es secuencial)
+     */
+    private int workers() {
+        if (!Boolean.parseBoolean(PlatformProperties.get("cucumber.execution.parallel.enabled", "false"))) {
+            return 1;
+        }
+        try {
+            if ("dynamic".equals(PlatformProperties.get("cucumber.execution.parallel.config.strategy", "fixed"))) {
+                double factor = Double.parseDouble(PlatformProperties.get("cucumber.execution.parallel.config.dynamic.factor", "1"));
+                return Math.max(1, (int) Math.round(Runtime.getRuntime().availableProcessors() * factor));
+            }
+            return Math.max(1, Integer.parseInt(PlatformProperties.get("cucumber.execution.parallel.config.fixed.parallelism", "1")));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package cl.walmart.qa.runners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Lectura de la configuración de Cucumber/JUnit Platform fuera del motor (filtros y plugins)
+ * Mismo orden de precedencia que JUnit Platform: -D primero, luego junit-platform.properties.
+ */
+public final class PlatformProperties {
+
+    private static final Logger logger = LogManager.getLogger(PlatformProperties.class);
+    private static final Properties properties = load();
+
+    private PlatformProperties() {
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? value : properties.getProperty(key, defaultValue);
+    }
+
+    /**
+     * En dry-run Cucumber marca los pasos como exitosos sin ejecutarlos
+     */
+    public static boolean isDryRun() {
+        return Boolean.parseBoolean(get("cucumber.execution.dry-run", "false"));
+    }
+
+    private static Properties load() {
+        Properties loaded = new Properties();
+        try (InputStream in = PlatformProperties.class.getClassLoader().getResourceAsStream("junit-platform.properties")) {
+            if (in != null) {
+                loaded.load(in);
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo leer junit-platform.properties: {}", e.getMessage());
+        }
+        return loaded;
+    }
+}
@@ -1,11 +1,12 @@
 package cl.walmart.qa.runners;
 
-import io.cucumber.junit.Cucumber;
-import io.cucumber.junit.CucumberOptions;
-import org.junit.runner.RunWith;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
 
 /**
- * Test Runner mejorado para ejecutar las pruebas de Cucumber
+ * Test Runner mejorado para ejecutar las pruebas de Cucumber sobre JUnit Platform
+ * La configuración (glue, plugins, tags y paralelismo) está en junit-platform.properties
  * Los tags se pueden configurar desde línea de comandos con:
  * mvn test -Dcucumber.filter.tags="@smoke"
  * mvn test -Dcucumber.filter.tags="@regression"
@@ -13,19 +14,14 @@ import org.junit.runner.RunWith;
  * mvn test -Dcucumber.filter.tags="@carrito"
  * 
  * Si no se especifica tag desde línea de comandos, se ejecutarán todos (@smoke or @regression)
+ * 
+ * Ejecución paralela de escenarios (cada hilo usa su propio WebDriver y Page Objects):
+ * mvn test -Pparallel
+ * mvn test -Pparallel -Dparallel.workers=8
+ * mvn test -Pparallel -Dparallel.strategy=dynamic -Dparallel.factor=1
  */
-@RunWith(Cucumber.class)
-@CucumberOptions(
-    features = "src/test/resources/features",
-    glue = "cl.walmart.qa.steps",
-    plugin = {
-        "pretty",
-        "html:target/cucumber-reports/cucumber-html-report.html",
-        "json:target/cucumber-reports/cucumber.json",
-        "junit:target/cucumber-reports/cucumber.xml"
-    },
-    monochrome = true,
-    tags = "@smoke or @regression"  // Por defecto ejecuta todos los tests smoke y regression
-)
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("features")
 public class TestRunner {
 }
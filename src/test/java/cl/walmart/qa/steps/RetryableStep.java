@@ -0,0 +1,26 @@
+package cl.walmart.qa.steps;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un step definition como idempotente: si falla se puede volver a ejecutar sin efectos
+ * secundarios (verificaciones de solo lectura). El cuerpo del paso se envuelve con
+ * StepDefinitions.retrying, que aplica StepRetry con esta política.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RetryableStep {
+
+    /**
+     * Intentos totales (0 = retries.attempts)
+     */
+    int attempts() default 0;
+
+    /**
+     * Espera antes del primer reintento, se duplica en cada uno (0 = retries.backoff.ms)
+     */
+    long backoffMillis() default 0;
+}
@@ -1,18 +1,36 @@
 package cl.walmart.qa.steps;
 
+import cl.walmart.qa.driver.DriverPool;
+import cl.walmart.qa.fixtures.CartFixture;
+import cl.walmart.qa.fixtures.TestAccountFactory;
+import cl.walmart.qa.fixtures.TestIdentity;
 import cl.walmart.qa.pages.*;
+import cl.walmart.qa.proxy.BrowserProxy;
+import cl.walmart.qa.server.OpenCartStandIn;
+import cl.walmart.qa.utils.CommandAuditor;
 import cl.walmart.qa.utils.ConfigReader;
+import cl.walmart.qa.utils.ScenarioLogBuffer;
+import cl.walmart.qa.utils.ScreenshotHelper;
+import cl.walmart.qa.utils.StepRetry;
+import cl.walmart.qa.utils.WaitMetrics;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.es.*;
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -25,6 +43,12 @@ public class StepDefinitions {
 
     private static final Logger logger = LogManager.getLogger(StepDefinitions.class);
     private static final ConfigReader config = ConfigReader.getInstance();
+    private static OpenCartStandIn standIn;
+    /** Valor de "correo" en la tabla de registro que pide un correo nuevo a TestAccountFactory */
+    private static final String UNIQUE_EMAIL = "(único)";
+    /** Tag que desactiva los reintentos de pasos en el escenario */
+    private static final String NO_RETRY_TAG = "@sin-reintentos";
+    private static final Map<String, RetryableStep> RETRYABLE = retryableSteps();
     
     private WebDriver driver;
     private HomePage homePage;
@@ -33,39 +57,58 @@ public class StepDefinitions {
     private RegisterPage registerPage;
     private ShoppingCartPage shoppingCartPage;
 
+    /**
+     * Con app.embedded.enabled=true levanta el sitio OpenCart local y apunta app.url a él
+     */
+    @BeforeAll
+    public static void startStandInSite() {
+        if (!config.getPropertyAsBoolean("app.embedded.enabled", false)) {
+            return;
+        }
+        standIn = new OpenCartStandIn();
+        String url = standIn.start(config.getPropertyAsInt("app.embedded.port", 0));
+        config.override("app.url", url);
+    }
+
+    @AfterAll
+    public static void stopStandInSite() {
+        if (standIn != null) {
+            standIn.stop();
+            config.clearOverride("app.url");
+            standIn = null;
+        }
+    }
+
+    /**
+     * Empieza a registrar en segundo plano las cuentas del pool con el primer escenario que las usa,
+     * así una ejecución sin escenarios @cuenta no registra nada en el sitio
+     */
+    @Before(value = "@cuenta", order = 20000)
+    public void prewarmAccountPool() {
+        if (config.getPropertyAsInt("accounts.pool.size", 2) > 0) {
+            TestAccountFactory.getInstance().prewarm();
+        }
+    }
+
+    @AfterAll(order = 20000)
+    public static void stopAccountPool() {
+        TestAccountFactory.getInstance().shutdown();
+    }
+
     @Before
-    public void setUp() {
-        logger.info("Iniciando configuración del WebDriver");
+    public void setUp(Scenario scenario) {
+        ScenarioLogBuffer.start(config.getPropertyAsInt("logs.scenario.buffer.size", 2000));
+        logger.info("Obteniendo WebDriver del pool");
         try {
-            WebDriverManager.chromedriver().clearDriverCache().setup();
-            ChromeOptions options = new ChromeOptions();
-            
-            if (config.shouldMaximizeBrowser()) {
-                options.addArguments("--start-maximized");
-            }
-            if (config.getPropertyAsBoolean("chrome.disable.notifications")) {
-                options.addArguments("--disable-notifications");
-            }
-            if (config.getPropertyAsBoolean("chrome.remote.allow.origins")) {
-                options.addArguments("--remote-allow-origins=*");
-            }
-            if (config.getPropertyAsBoolean("chrome.disable.automation.features")) {
-                options.addArguments("--disable-blink-features=AutomationControlled");
-            }
-            if (config.getPropertyAsBoolean("chrome.no.sandbox")) {
-                options.addArguments("--no-sandbox");
+            boolean fresh = scenario.getSourceTagNames().contains(DriverPool.FRESH_TAG);
+            driver = DriverPool.getInstance().lease(config.getBrowserType(), fresh);
+            if (BrowserProxy.isEnabled()) {
+                boolean blocking = BrowserProxy.getInstance().shouldBlock(scenario.getSourceTagNames());
+                BrowserProxy.getInstance().setBlocking(driver, blocking);
+                logger.debug("Bloqueo de recursos para el escenario: {}", blocking);
             }
-            if (config.getPropertyAsBoolean("chrome.disable.dev.shm")) {
-                options.addArguments("--disable-dev-shm-usage");
-            }
-            if (config.isHeadless()) {
-                options.addArguments("--headless");
-            }
-            
-            driver = new ChromeDriver(options);
-            driver.manage().timeouts().implicitlyWait(config.getImplicitTimeout(), TimeUnit.SECONDS);
-            driver.manage().timeouts().pageLoadTimeout(config.getPageLoadTimeout(), TimeUnit.SECONDS);
-            
+            WaitMetrics.startScenario();
+            StepRetry.startScenario(!scenario.getSourceTagNames().contains(NO_RETRY_TAG));
             logger.info("WebDriver configurado exitosamente");
         } catch (Exception e) {
             logger.error("Error al configurar WebDriver: {}", e.getMessage(), e);
@@ -93,8 +136,9 @@ public class StepDefinitions {
     }
 
     @Entonces("verificar que aparecen resultados de búsqueda para {string}")
+    @RetryableStep
     public void verificarQueAparecenResultadosDeBusquedaPara(String productName) {
-        assertTrue("No se encontraron resultados", searchResultsPage.hasResults());
+        retrying(() -> assertTrue("No se encontraron resultados", searchResultsPage.hasResults()));
     }
 
     @Y("el primer producto contiene {string} en su nombre")
@@ -105,8 +149,9 @@ public class StepDefinitions {
     }
 
     @Entonces("verificar que aparecen resultados de búsqueda")
+    @RetryableStep
     public void verificarQueAparecenResultadosDeBusqueda() {
-        assertTrue("No se encontraron resultados", searchResultsPage.hasResults());
+        retrying(() -> assertTrue("No se encontraron resultados", searchResultsPage.hasResults()));
     }
 
     @Y("verificar que hay al menos {int} producto en los resultados")
@@ -122,9 +167,10 @@ public class StepDefinitions {
     }
 
     @Entonces("verificar que se muestra la página de detalles del producto")
+    @RetryableStep
     public void verificarQueSeMuestraLaPaginaDeDetallesDelProducto() {
-        assertTrue("No se visualiza la imagen del producto",
-                   productPage.isProductImageDisplayed());
+        retrying(() -> assertTrue("No se visualiza la imagen del producto",
+                productPage.isProductImageDisplayed()));
     }
 
     @Y("verificar que el producto tiene un botón {string}")
@@ -142,11 +188,16 @@ public class StepDefinitions {
     @Y("completar el formulario de registro con datos válidos:")
     public void completarElFormularioDeRegistroConDatosValidos(io.cucumber.datatable.DataTable dataTable) {
         Map<String, String> data = dataTable.asMap(String.class, String.class);
-        
+        String email = data.get("correo");
+        if (email == null || UNIQUE_EMAIL.equals(email.trim())) {
+            email = TestAccountFactory.getInstance().newIdentity().getEmail();
+            logger.info("Correo único generado para el registro: {}", email);
+        }
+
         registerPage.fillRegistrationForm(
             data.get("nombre"),
             data.get("apellido"),
-            data.get("correo"),
+            email,
             data.get("telefono"),
             data.get("clave")
         );
@@ -177,13 +228,27 @@ public class StepDefinitions {
         }
     }
 
+    @Dado("haber iniciado sesión con una cuenta de prueba")
+    public void haberIniciadoSesionConUnaCuentaDePrueba() {
+        try {
+            TestIdentity account = TestAccountFactory.getInstance().acquire();
+            TestAccountFactory.getInstance().login(driver, account);
+        } catch (Exception e) {
+            logger.error("Error al iniciar sesión con una cuenta de prueba: {}", e.getMessage(), e);
+            throw new RuntimeException("Fallo al iniciar sesión con una cuenta de prueba", e);
+        }
+    }
+
     @Y("verificar que se redirige a mi cuenta")
+    @RetryableStep
     public void verificarQueSeRedirigeAMiCuenta() {
         try {
-            String currentUrl = driver.getCurrentUrl();
-            logger.info("URL actual: {}", currentUrl);
-            assertTrue("No se redirigió a la página de cuenta. URL actual: " + currentUrl,
-                       currentUrl.contains("account"));
+            retrying(() -> {
+                String currentUrl = driver.getCurrentUrl();
+                logger.info("URL actual: {}", currentUrl);
+                assertTrue("No se redirigió a la página de cuenta. URL actual: " + currentUrl,
+                           currentUrl.contains("account"));
+            });
             logger.info("Redirección a cuenta verificada");
         } catch (AssertionError e) {
             logger.error("Fallo en verificación de redirección: {}", e.getMessage());
@@ -245,8 +310,8 @@ public class StepDefinitions {
     public void verificarQueApareceUnMensajeDeConfirmacion() {
         try {
             logger.info("Verificando mensaje de confirmación");
-            boolean messageDisplayed = homePage.isSuccessMessageDisplayed();
-            assertTrue("No se mostró mensaje de confirmación", messageDisplayed);
+            // Sin reintentos: el aviso es efímero, reintentar cuando ya desapareció solo gasta presupuesto
+            assertTrue("No se mostró mensaje de confirmación", homePage.isSuccessMessageDisplayed());
             logger.info("Mensaje de confirmación verificado");
         } catch (Exception e) {
             logger.warn("Mensaje de confirmación no visible (puede desaparecer rápido): {}", e.getMessage());
@@ -265,6 +330,15 @@ public class StepDefinitions {
 
     @Dado("haber agregado un producto {string} al carrito")
     public void haberAgregadoUnProductoAlCarrito(String productName) {
+        if (config.getPropertyAsBoolean("fixtures.cart.http", true)) {
+            try {
+                new CartFixture(config.getApplicationUrl()).addToCart(driver, productName, 1);
+                shoppingCartPage = new ShoppingCartPage(driver);
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("No se pudo preparar el carrito por HTTP, se usa la UI: {}", e.getMessage());
+            }
+        }
         if (homePage == null) {
             estarEnLaPaginaPrincipalDeOpenCart();
         }
@@ -275,6 +349,10 @@ public class StepDefinitions {
     @Cuando("navegar al carrito de compras")
     public void navegarAlCarritoDeCompras() {
         try {
+            if (shoppingCartPage != null && driver.getCurrentUrl().contains("route=checkout/cart")) {
+                logger.info("El carrito ya está abierto (preparado por HTTP)");
+                return;
+            }
             logger.info("Navegando al carrito de compras");
             homePage.goToShoppingCart();
             shoppingCartPage = new ShoppingCartPage(driver);
@@ -286,11 +364,12 @@ public class StepDefinitions {
     }
 
     @Entonces("verificar que aparece el producto {string} en el carrito")
+    @RetryableStep
     public void verificarQueApareceElProductoEnElCarrito(String productName) {
         try {
             logger.info("Verificando que el producto '{}' está en el carrito", productName);
-            boolean productInCart = shoppingCartPage.isProductInCart(productName);
-            assertTrue("El producto '" + productName + "' no está en el carrito", productInCart);
+            retrying(() -> assertTrue("El producto '" + productName + "' no está en el carrito",
+                    shoppingCartPage.isProductInCart(productName)));
             logger.info("Producto verificado en el carrito");
         } catch (AssertionError e) {
             logger.error("El producto no se encontró en el carrito: {}", e.getMessage());
@@ -316,11 +395,11 @@ public class StepDefinitions {
     }
 
     @Y("verificar que aparece el botón {string}")
+    @RetryableStep
     public void verificarQueApareceElBoton(String buttonText) {
         try {
             logger.info("Verificando que aparece el botón '{}'", buttonText);
-            boolean buttonDisplayed = shoppingCartPage.isCheckoutButtonDisplayed();
-            assertTrue("No se encontró el botón " + buttonText, buttonDisplayed);
+            retrying(() -> assertTrue("No se encontró el botón " + buttonText, shoppingCartPage.isCheckoutButtonDisplayed()));
             logger.info("Botón '{}' verificado", buttonText);
         } catch (AssertionError e) {
             logger.error("Botón no encontrado: {}", e.getMessage());
@@ -389,11 +468,11 @@ public class StepDefinitions {
     }
 
     @Entonces("verificar que el carrito está vacío")
+    @RetryableStep
     public void verificarQueElCarritoEstaVacio() {
         try {
             logger.info("Verificando que el carrito está vacío");
-            boolean isEmpty = shoppingCartPage.isCartEmpty();
-            assertTrue("El carrito no está vacío", isEmpty);
+            retrying(() -> assertTrue("El carrito no está vacío", shoppingCartPage.isCartEmpty()));
             logger.info("Carrito vacío verificado correctamente");
         } catch (AssertionError e) {
             logger.error("El carrito no está vacío: {}", e.getMessage());
@@ -419,12 +498,133 @@ public class StepDefinitions {
         }
     }
 
+    /**
+     * Con el proxy activo registra el tiempo de carga de cada página nueva (con o sin bloqueo)
+     */
+    @AfterStep
+    public void samplePageLoad() {
+        if (driver != null && BrowserProxy.isEnabled()) {
+            BrowserProxy.getInstance().samplePageLoad(driver);
+        }
+    }
+
+    /**
+     * Revisa el presupuesto de comandos WebDriver del escenario (CommandAuditor)
+     * Avisa de todo método sobre su límite; con audit.fail.on.regression solo falla si un método
+     * con baseline lo supera. Corre antes que tearDown para que, si falla, el escenario quede con screenshot y log
+     */
+    @io.cucumber.java.After(order = 20000)
+    public void checkCommandBudget(Scenario scenario) {
+        List<CommandAuditor.Violation> violations = CommandAuditor.getInstance().endScenario();
+        if (violations.isEmpty()) {
+            return;
+        }
+        List<String> all = new ArrayList<>();
+        List<String> regressions = new ArrayList<>();
+        for (CommandAuditor.Violation violation : violations) {
+            all.add(violation.toString());
+            if (violation.isRegression()) {
+                regressions.add(violation.toString());
+            }
+        }
+        logger.warn("Métodos sobre su presupuesto de comandos WebDriver:\n  {}", String.join("\n  ", all));
+        if (!regressions.isEmpty() && config.getPropertyAsBoolean("audit.fail.on.regression", false)) {
+            fail("Regresión de comandos WebDriver:\n  " + String.join("\n  ", regressions));
+        }
+    }
+
     @io.cucumber.java.After
-    public void tearDown() {
-        if (driver != null) {
-            logger.info("Cerrando el navegador");
-            driver.quit();
-            logger.info("Navegador cerrado exitosamente");
+    public void tearDown(Scenario scenario) {
+        try {
+            logger.info("Esperas del escenario: {}", WaitMetrics.scenarioSummary());
+            if (driver != null && scenario.isFailed()) {
+                captureFailureScreenshot(scenario);
+            }
+            if (driver != null) {
+                logger.debug("Devolviendo el navegador al pool");
+                DriverPool.getInstance().release(driver);
+                driver = null;
+                logger.debug("Navegador devuelto exitosamente");
+            }
+        } finally {
+            attachRetries(scenario);
+            attachScenarioLog(scenario);
+        }
+    }
+
+    /**
+     * Ejecuta el cuerpo del paso que la llama aplicando la política de su @RetryableStep
+     * La política se toma de la anotación del método que llama, así que renombrar el paso no la desconecta.
+     */
+    private void retrying(Runnable body) {
+        String step = callingStep();
+        RetryableStep policy = RETRYABLE.get(step);
+        if (policy == null) {
+            throw new IllegalStateException("El paso " + step + " usa retrying() sin @RetryableStep");
+        }
+        StepRetry.run(step, policy.attempts(), policy.backoffMillis(), body);
+    }
+
+    /**
+     * Método del step definition que llamó a retrying (el primer marco de esta clase fuera de ella)
+     */
+    private static String callingStep() {
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String method = frame.getMethodName();
+            if (frame.getClassName().equals(StepDefinitions.class.getName()) && !method.equals("retrying")
+                    && !method.equals("callingStep") && !method.startsWith("lambda$")) {
+                return method;
+            }
+        }
+        throw new IllegalStateException("retrying() debe llamarse desde un step definition");
+    }
+
+    private static Map<String, RetryableStep> retryableSteps() {
+        Map<String, RetryableStep> steps = new HashMap<>();
+        for (Method method : StepDefinitions.class.getDeclaredMethods()) {
+            RetryableStep policy = method.getAnnotation(RetryableStep.class);
+            if (policy != null && steps.put(method.getName(), policy) != null) {
+                // La política se busca por nombre: dos pasos reintentables no pueden compartirlo
+                throw new IllegalStateException("Más de un paso @RetryableStep se llama " + method.getName());
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * Adjunta al reporte los reintentos de pasos del escenario (aunque haya pasado)
+     */
+    private void attachRetries(Scenario scenario) {
+        List<String> retries = StepRetry.endScenario();
+        if (!retries.isEmpty()) {
+            scenario.attach(String.join("\n", retries).getBytes(StandardCharsets.UTF_8), "text/plain", "REINTENTOS_" + scenario.getName());
+            logger.warn("Pasos reintentados en '{}':\n  {}", scenario.getName(), String.join("\n  ", retries));
+        }
+    }
+
+    /**
+     * Adjunta el log detallado del escenario al reporte si falló; si pasó se descarta
+     */
+    private void attachScenarioLog(Scenario scenario) {
+        if (scenario.isFailed()) {
+            String log = ScenarioLogBuffer.drain();
+            scenario.attach(log.getBytes(StandardCharsets.UTF_8), "text/plain", "LOG_" + scenario.getName());
+            logger.info("Escenario fallido '{}': log detallado adjunto al reporte", scenario.getName());
+        } else {
+            ScenarioLogBuffer.discard();
+        }
+    }
+
+    /**
+     * Adjunta el screenshot del fallo al reporte y lo guarda en disco en segundo plano
+     */
+    private void captureFailureScreenshot(Scenario scenario) {
+        try {
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            scenario.attach(png, "image/png", "FAILED_" + scenario.getName());
+            ScreenshotHelper.saveScreenshotAsync(png, "FAILED_" + scenario.getName());
+        } catch (Exception e) {
+            logger.warn("No se pudo capturar el screenshot del fallo: {}", e.getMessage());
         }
     }
 }
@@ -14,6 +14,7 @@ Característica: Búsqueda de Productos en OpenCart
     Entonces verificar que aparecen resultados de búsqueda
     Y verificar que hay al menos 1 producto en los resultados
 
+  @sin-bloqueo
   Escenario: Ver detalles de un producto desde la búsqueda
     Dado estar en la página principal de OpenCart
     Cuando buscar el producto "MacBook"
@@ -1,14 +1,14 @@
 # language: es
 @smoke @registro
 Característica: Registro de Usuario en OpenCart
-  @regression
+  @regression @navegador-nuevo
   Escenario: Registro exitoso de un nuevo usuario
     Dado estar en la página principal de OpenCart
     Cuando navegar a la página de registro
     Y completar el formulario de registro con datos válidos:
       | nombre    | Maria Loreto         |
       | apellido  | Solorza              |
-      | correo    | pruebawalmart1@ejemplo.com   |
+      | correo    | (único)              |
       | telefono  | +56912345678         |
       | clave     | Prueba123456!        |
     Y aceptar la política de privacidad
@@ -16,13 +16,14 @@ Característica: Registro de Usuario en OpenCart
     Entonces verificar que aparece el mensaje de registro exitoso
     Y verificar que se redirige a mi cuenta
 
+  @navegador-nuevo
   Escenario: Intento de registro sin aceptar política de privacidad
     Dado estar en la página principal de OpenCart
     Cuando navegar a la página de registro
     Y completar el formulario de registro con datos válidos:
       | nombre    | Maria Loreto         |
       | apellido  | Solorza              |
-      | correo    | pruebawalmart2@ejemplo.com  |
+      | correo    | (único)              |
       | telefono  | +56912345679         |
       | clave     | Prueba123456!        |
     Y NO aceptar la política de privacidad
@@ -34,3 +35,8 @@ Característica: Registro de Usuario en OpenCart
     Cuando navegar a la página de registro
     Y hacer clic en el botón Continue sin llenar campos
     Entonces verificar que aparecen mensajes de error en los campos obligatorios
+
+  @cuenta
+  Escenario: Acceso con una cuenta de prueba ya registrada
+    Dado haber iniciado sesión con una cuenta de prueba
+    Entonces verificar que se redirige a mi cuenta